@@ -0,0 +1,145 @@
+package sitecore.sherpa.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import sitecore.sherpa.streams.helpers.Person;
+import sitecore.sherpa.streams.helpers.Service;
+
+/**
+ * Deterministic input generators shared by the benchmarks, so that every run
+ * (and every optimization compared against it) works on the same data.
+ */
+public final class BenchmarkData {
+    private static final long SEED = 0x5EED_CAFEL;
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz";
+    private static final String[] NAMES = {
+            "Alice", "Bob", "Charles", "Diana", "Edward", "Fiona", "George", "Hannah",
+            "Ian", "Julia", "Kevin", "Laura", "Michael", "Nora", "Oscar", "Paula"
+    };
+    private static final String[] AREAS = {
+            "Security", "Data Warehousing", "Operations", "Payments", "Search", "Messaging",
+            "Identity", "Storage", "Networking", "Billing", "Reporting", "Notifications"
+    };
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Creates a list of random integers, roughly half of them even.
+     * 
+     * @param size the number of elements to generate
+     * @return a list of {@code size} random integers
+     */
+    public static List<Integer> integers(int size) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<Integer> numbers = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            numbers.add(random.nextInt());
+        }
+        return numbers;
+    }
+
+    /**
+     * Creates the same random integers as {@link #integers(int)}, as a primitive
+     * array.
+     * 
+     * @param size the number of elements to generate
+     * @return an array of {@code size} random integers
+     */
+    public static int[] primitiveIntegers(int size) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        int[] numbers = new int[size];
+        for (int i = 0; i < size; i++) {
+            numbers[i] = random.nextInt();
+        }
+        return numbers;
+    }
+
+    /**
+     * Creates a list of random lowercase words between 4 and 16 characters long.
+     * 
+     * @param size the number of words to generate
+     * @return a list of {@code size} random words
+     */
+    public static List<String> words(int size) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<String> words = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            words.add(word(random, 4 + random.nextInt(13)));
+        }
+        return words;
+    }
+
+    /**
+     * Creates a list of random lowercase keywords, used as substring patterns.
+     * 
+     * @param count  the number of keywords to generate
+     * @param length the length of each keyword
+     * @return a list of {@code count} random keywords
+     */
+    public static List<String> keywords(int count, int length) {
+        SplittableRandom random = new SplittableRandom(~SEED);
+        List<String> keywords = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            keywords.add(word(random, length));
+        }
+        return keywords;
+    }
+
+    /**
+     * Creates a list of people with random UUID ids, names drawn from a small
+     * pool and ages between 0 and 109.
+     * 
+     * @param size the number of people to generate
+     * @return a list of {@code size} people
+     */
+    public static List<Person> people(int size) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<Person> people = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String id = new UUID(random.nextLong(), random.nextLong()).toString();
+            people.add(new Person(id, NAMES[random.nextInt(NAMES.length)], random.nextInt(110)));
+        }
+        return people;
+    }
+
+    /**
+     * Creates a list of services spread over a dozen areas, with latencies
+     * between 10 and 110 and about one day in twenty without a value.
+     * 
+     * @param size the number of services to generate
+     * @return a list of {@code size} services
+     */
+    public static List<Service> services(int size) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<Service> services = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            double[] latencies = new double[7];
+            for (int day = 0; day < latencies.length; day++) {
+                latencies[day] = random.nextInt(20) == 0 ? Double.NaN : 10 + random.nextDouble() * 100;
+            }
+            services.add(new Service("service-" + i, AREAS[random.nextInt(AREAS.length)], latencies));
+        }
+        return services;
+    }
+
+    /**
+     * Returns the areas used by {@link #services(int)}.
+     * 
+     * @return a copy of the service areas
+     */
+    public static String[] serviceAreas() {
+        return AREAS.clone();
+    }
+
+    private static String word(SplittableRandom random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,111 @@
+package sitecore.sherpa.benchmarks.collections;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sitecore.sherpa.collections.ChunkedList;
+
+/**
+ * Benchmarks for {@link ChunkedList} against {@link ArrayList}, for the
+ * operations of {@code ArrayListExamples}.
+ * 
+ * {@code add} builds a list of {@code size} elements from empty, so it
+ * includes the growth of the list. {@code insertMiddle} inserts an element in
+ * the middle and {@code removeMiddle} takes one out, each followed by the
+ * opposite operation at the end of the list so the size stays the same
+ * between invocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class ChunkedListBenchmark {
+
+    public enum Implementation {
+        ARRAY, CHUNKED
+    }
+
+    @Param({ "1000", "100000", "1000000", "10000000" })
+    private int size;
+
+    @Param({ "ARRAY", "CHUNKED" })
+    private Implementation implementation;
+
+    private Integer[] elements;
+    private List<Integer> list;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        elements = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            elements[i] = i;
+        }
+        list = add();
+    }
+
+    private List<Integer> newList() {
+        return implementation == Implementation.ARRAY ? new ArrayList<>() : new ChunkedList<>(size);
+    }
+
+    private int nextIndex() {
+        // Walks the whole list in large steps, so consecutive calls touch
+        // different chunks
+        cursor = (cursor + 7919) % size;
+        return cursor;
+    }
+
+    @Benchmark
+    public List<Integer> add() {
+        List<Integer> result = newList();
+        for (Integer element : elements) {
+            result.add(element);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public Integer set() {
+        int index = nextIndex();
+        return list.set(index, elements[index]);
+    }
+
+    @Benchmark
+    public Integer insertMiddle() {
+        list.add(size / 2, elements[0]);
+        return list.remove(list.size() - 1);
+    }
+
+    @Benchmark
+    public Integer removeMiddle() {
+        Integer removed = list.remove(size / 2);
+        list.add(removed);
+        return removed;
+    }
+
+    @Benchmark
+    public int indexOf() {
+        return list.indexOf(elements[size - 1]);
+    }
+
+    @Benchmark
+    public int lastIndexOf() {
+        return list.lastIndexOf(elements[0]);
+    }
+}
@@ -0,0 +1,105 @@
+package sitecore.sherpa.benchmarks.collections;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sitecore.sherpa.collections.StripedHashMap;
+
+/**
+ * Contention benchmarks for {@link StripedHashMap} against
+ * {@link ConcurrentHashMap} and {@code Collections.synchronizedMap}, with
+ * every thread sharing one lookup map.
+ * 
+ * The {@code read} and {@code write} benchmarks run 8 threads doing only one
+ * kind of operation. The {@code mixed} group runs 6 reading threads next to 2
+ * writing ones, the typical shape of a shared lookup map.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class ConcurrentMapBenchmark {
+
+    public enum Implementation {
+        STRIPED, CONCURRENT, SYNCHRONIZED
+    }
+
+    @Param({ "1000", "100000" })
+    private int size;
+
+    @Param({ "STRIPED", "CONCURRENT", "SYNCHRONIZED" })
+    private Implementation implementation;
+
+    private Integer[] keys;
+    private Map<Integer, Integer> map;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = i;
+        }
+        map = switch (implementation) {
+            case STRIPED -> new StripedHashMap<>(size, 16);
+            case CONCURRENT -> new ConcurrentHashMap<>(size);
+            case SYNCHRONIZED -> Collections.synchronizedMap(new HashMap<>(size));
+        };
+        for (Integer key : keys) {
+            map.put(key, key);
+        }
+    }
+
+    private Integer randomKey() {
+        return keys[ThreadLocalRandom.current().nextInt(size)];
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Integer read() {
+        return map.get(randomKey());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Integer write() {
+        Integer key = randomKey();
+        return map.put(key, key);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(6)
+    public Integer mixedRead() {
+        return map.get(randomKey());
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public Integer mixedWrite() {
+        Integer key = randomKey();
+        return map.merge(key, 1, Integer::sum);
+    }
+}
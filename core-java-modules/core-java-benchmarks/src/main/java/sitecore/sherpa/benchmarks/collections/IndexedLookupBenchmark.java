@@ -0,0 +1,126 @@
+package sitecore.sherpa.benchmarks.collections;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sitecore.sherpa.collections.BidirectionalMap;
+import sitecore.sherpa.collections.IndexedList;
+
+/**
+ * Benchmarks for the value lookups of {@link IndexedList} and
+ * {@link BidirectionalMap} against the scans of {@link ArrayList} and
+ * {@link HashMap}.
+ * 
+ * {@code dedup} runs the usual "add if {@code indexOf} is -1" loop over
+ * {@code size} words with about half of them repeated, which is quadratic
+ * with an {@code ArrayList}. {@code insertAndLookUp} inserts 100 words in the
+ * middle of a copy of the list and looks another one up after each insert.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class IndexedLookupBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    private int size;
+
+    private String[] words;
+    private String[] missing;
+    private Map<String, String> hashMap;
+    private BidirectionalMap<String, String> bidirectionalMap;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        words = new String[size];
+        missing = new String[100];
+        for (int i = 0; i < size; i++) {
+            words[i] = "word" + random.nextInt(size / 2);
+        }
+        for (int i = 0; i < missing.length; i++) {
+            missing[i] = "missing" + i;
+        }
+        hashMap = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            hashMap.put("key" + i, words[i]);
+        }
+        bidirectionalMap = new BidirectionalMap<>(hashMap);
+    }
+
+    private static List<String> dedup(List<String> unique, String[] words) {
+        for (String word : words) {
+            if (unique.indexOf(word) < 0) {
+                unique.add(word);
+            }
+        }
+        return unique;
+    }
+
+    @Benchmark
+    public List<String> dedupArrayList() {
+        return dedup(new ArrayList<>(), words);
+    }
+
+    @Benchmark
+    public List<String> dedupIndexedList() {
+        return dedup(new IndexedList<>(), words);
+    }
+
+    private static int insertAndLookUp(List<String> list, String[] words) {
+        int found = 0;
+        for (int i = 0; i < 100; i++) {
+            list.add(list.size() / 2, words[i % words.length]);
+            found += list.indexOf(words[words.length - 1 - i % words.length]);
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int insertAndLookUpArrayList() {
+        return insertAndLookUp(new ArrayList<>(Arrays.asList(words)), words);
+    }
+
+    @Benchmark
+    public int insertAndLookUpIndexedList() {
+        return insertAndLookUp(new IndexedList<>(Arrays.asList(words)), words);
+    }
+
+    @Benchmark
+    public int containsValueHashMap() {
+        int found = 0;
+        for (String value : missing) {
+            found += hashMap.containsValue(value) ? 1 : 0;
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int containsValueBidirectionalMap() {
+        int found = 0;
+        for (String value : missing) {
+            found += bidirectionalMap.containsValue(value) ? 1 : 0;
+        }
+        return found;
+    }
+}
@@ -0,0 +1,229 @@
+package sitecore.sherpa.benchmarks.collections;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import sitecore.sherpa.collections.IntIntOpenHashMap;
+import sitecore.sherpa.collections.LongObjectOpenHashMap;
+import sitecore.sherpa.collections.StringObjectOpenHashMap;
+
+/**
+ * Benchmarks for the open addressing maps against {@link HashMap}. Every
+ * operation runs over all the keys of the map, so the scores are per
+ * {@code size} operations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class OpenHashMapBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    private int size;
+
+    private int[] intKeys;
+    private long[] longKeys;
+    private String[] stringKeys;
+
+    private IntIntOpenHashMap intOpenMap;
+    private Map<Integer, Integer> intHashMap;
+    private LongObjectOpenHashMap<String> longOpenMap;
+    private Map<Long, String> longHashMap;
+    private StringObjectOpenHashMap<String> stringOpenMap;
+    private Map<String, String> stringHashMap;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        intKeys = new int[size];
+        longKeys = new long[size];
+        stringKeys = new String[size];
+        for (int i = 0; i < size; i++) {
+            intKeys[i] = random.nextInt();
+            longKeys[i] = random.nextLong();
+            stringKeys[i] = "key-" + random.nextInt(Integer.MAX_VALUE);
+        }
+        intOpenMap = buildIntOpenMap();
+        intHashMap = buildIntHashMap();
+        longOpenMap = buildLongOpenMap();
+        longHashMap = buildLongHashMap();
+        stringOpenMap = buildStringOpenMap();
+        stringHashMap = buildStringHashMap();
+    }
+
+    @Benchmark
+    public IntIntOpenHashMap buildIntOpenMap() {
+        IntIntOpenHashMap map = new IntIntOpenHashMap();
+        for (int key : intKeys) {
+            map.put(key, key);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> buildIntHashMap() {
+        Map<Integer, Integer> map = new HashMap<>();
+        for (int key : intKeys) {
+            map.put(key, key);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public LongObjectOpenHashMap<String> buildLongOpenMap() {
+        LongObjectOpenHashMap<String> map = new LongObjectOpenHashMap<>();
+        for (long key : longKeys) {
+            map.put(key, "value");
+        }
+        return map;
+    }
+
+    @Benchmark
+    public Map<Long, String> buildLongHashMap() {
+        Map<Long, String> map = new HashMap<>();
+        for (long key : longKeys) {
+            map.put(key, "value");
+        }
+        return map;
+    }
+
+    @Benchmark
+    public StringObjectOpenHashMap<String> buildStringOpenMap() {
+        StringObjectOpenHashMap<String> map = new StringObjectOpenHashMap<>();
+        for (String key : stringKeys) {
+            map.put(key, key);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public Map<String, String> buildStringHashMap() {
+        Map<String, String> map = new HashMap<>();
+        for (String key : stringKeys) {
+            map.put(key, key);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public long getIntOpenMap() {
+        long sum = 0;
+        for (int key : intKeys) {
+            sum += intOpenMap.get(key);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long getIntHashMap() {
+        long sum = 0;
+        for (int key : intKeys) {
+            sum += intHashMap.get(key);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public void getLongOpenMap(Blackhole blackhole) {
+        for (long key : longKeys) {
+            blackhole.consume(longOpenMap.get(key));
+        }
+    }
+
+    @Benchmark
+    public void getLongHashMap(Blackhole blackhole) {
+        for (long key : longKeys) {
+            blackhole.consume(longHashMap.get(key));
+        }
+    }
+
+    @Benchmark
+    public void getStringOpenMap(Blackhole blackhole) {
+        for (String key : stringKeys) {
+            blackhole.consume(stringOpenMap.get(key));
+        }
+    }
+
+    @Benchmark
+    public void getStringHashMap(Blackhole blackhole) {
+        for (String key : stringKeys) {
+            blackhole.consume(stringHashMap.get(key));
+        }
+    }
+
+    // Removing and putting back every key leaves the map as it was, so the
+    // state can be shared between invocations
+    @Benchmark
+    public int removeIntOpenMap() {
+        for (int key : intKeys) {
+            intOpenMap.put(key, intOpenMap.remove(key));
+        }
+        return intOpenMap.size();
+    }
+
+    @Benchmark
+    public int removeIntHashMap() {
+        for (int key : intKeys) {
+            intHashMap.put(key, intHashMap.remove(key));
+        }
+        return intHashMap.size();
+    }
+
+    @Benchmark
+    public int removeStringOpenMap() {
+        for (String key : stringKeys) {
+            stringOpenMap.put(key, stringOpenMap.remove(key));
+        }
+        return stringOpenMap.size();
+    }
+
+    @Benchmark
+    public int removeStringHashMap() {
+        for (String key : stringKeys) {
+            stringHashMap.put(key, stringHashMap.remove(key));
+        }
+        return stringHashMap.size();
+    }
+
+    @Benchmark
+    public long iterateIntOpenMap() {
+        long[] sum = new long[1];
+        intOpenMap.forEach((key, value) -> sum[0] += value);
+        return sum[0];
+    }
+
+    @Benchmark
+    public long iterateIntHashMap() {
+        long[] sum = new long[1];
+        intHashMap.forEach((key, value) -> sum[0] += value);
+        return sum[0];
+    }
+
+    @Benchmark
+    public void iterateStringOpenMap(Blackhole blackhole) {
+        stringOpenMap.forEach((key, value) -> blackhole.consume(value));
+    }
+
+    @Benchmark
+    public void iterateStringHashMap(Blackhole blackhole) {
+        stringHashMap.forEach((key, value) -> blackhole.consume(value));
+    }
+}
@@ -0,0 +1,100 @@
+package sitecore.sherpa.benchmarks.streams;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import sitecore.sherpa.benchmarks.BenchmarkData;
+import sitecore.sherpa.streams.Filtering;
+import sitecore.sherpa.streams.batch.BatchExecutor;
+
+/**
+ * Benchmarks for {@link BatchExecutor}.
+ * 
+ * Each operation serves {@code callers} concurrent requests of
+ * {@code requestSize} integers, each caller on its own virtual thread.
+ * {@code perCall} runs {@code Filtering.getEven} once per request, while
+ * {@code batched} hands the requests to a batch executor grouping up to
+ * {@code maxBatchSize} elements.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class BatchExecutorBenchmark {
+
+    @Param({ "1000" })
+    private int callers;
+
+    @Param({ "8", "64" })
+    private int requestSize;
+
+    @Param({ "4096" })
+    private int maxBatchSize;
+
+    private List<List<Integer>> requests;
+    private ExecutorService threads;
+    private BatchExecutor<Integer, Integer> executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Integer> numbers = BenchmarkData.integers(callers * requestSize);
+        requests = new ArrayList<>(callers);
+        for (int c = 0; c < callers; c++) {
+            requests.add(numbers.subList(c * requestSize, (c + 1) * requestSize));
+        }
+        threads = Executors.newVirtualThreadPerTaskExecutor();
+        executor = BatchExecutor.<Integer>filtering(Filtering::getEven)
+                .maxBatchSize(maxBatchSize)
+                .maxWait(Duration.ofMillis(1))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.close();
+        threads.close();
+    }
+
+    @Benchmark
+    public void perCall(Blackhole blackhole) {
+        serve(blackhole, Filtering::getEven);
+    }
+
+    @Benchmark
+    public void batched(Blackhole blackhole) {
+        serve(blackhole, executor::execute);
+    }
+
+    private void serve(Blackhole blackhole, Function<List<Integer>, List<Integer>> handler) {
+        List<CompletableFuture<List<Integer>>> results = new ArrayList<>(callers);
+        for (List<Integer> request : requests) {
+            results.add(CompletableFuture.supplyAsync(() -> handler.apply(request), threads));
+        }
+        for (CompletableFuture<List<Integer>> result : results) {
+            blackhole.consume(result.join());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package sitecore.sherpa.benchmarks.streams;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sitecore.sherpa.benchmarks.BenchmarkData;
+import sitecore.sherpa.streams.Filtering;
+import sitecore.sherpa.streams.bitmap.FilterIndex;
+import sitecore.sherpa.streams.bitmap.PositionBitmap;
+
+/**
+ * Benchmarks for {@link FilterIndex}, on a query combining a first letter, a
+ * substring and a last letter.
+ * 
+ * {@code chainedLists} feeds the list of each {@code Filtering} step into the
+ * next. {@code bitmapsCold} clears the cache of the index first, so it scans
+ * the words once per filter and combines the bitmaps; {@code bitmapsCached}
+ * is the same query repeated, where only the {@code and} operations and the
+ * final materialization remain.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class BitmapFilteringBenchmark {
+
+    @Param({ "1000", "100000", "10000000" })
+    private int size;
+
+    private List<String> words;
+    private FilterIndex<String> index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        words = BenchmarkData.words(size);
+        index = new FilterIndex<>(words);
+    }
+
+    @Benchmark
+    public List<String> chainedLists() {
+        List<String> startsWithA = Filtering.filterByFirstLetter(words, "a");
+        List<String> containsAn = Filtering.filterBySubstring(startsWithA, "an");
+        return Filtering.filterByLastLetter(containsAn, "e");
+    }
+
+    @Benchmark
+    public List<String> bitmapsCold() {
+        index.clearCache();
+        return query();
+    }
+
+    @Benchmark
+    public List<String> bitmapsCached() {
+        return query();
+    }
+
+    private List<String> query() {
+        PositionBitmap matches = Filtering.filterByFirstLetter(index, "a")
+                .and(Filtering.filterBySubstring(index, "an"))
+                .and(Filtering.filterByLastLetter(index, "e"));
+        return index.materialize(matches);
+    }
+}
@@ -0,0 +1,84 @@
+package sitecore.sherpa.benchmarks.streams;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sitecore.sherpa.benchmarks.BenchmarkData;
+import sitecore.sherpa.streams.ExecutionPolicy;
+import sitecore.sherpa.streams.Filtering;
+
+/**
+ * Baseline benchmarks for the single pattern methods of {@link Filtering}.
+ * 
+ * Each method is measured under every {@link ExecutionPolicy}, so that we can
+ * see at which input size going parallel starts to pay off, and whether the
+ * adaptive policy picks the faster of the two.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class FilteringBenchmark {
+
+    @Param({ "10", "1000", "100000", "10000000" })
+    private int size;
+
+    @Param({ "SEQUENTIAL", "PARALLEL", "ADAPTIVE" })
+    private ExecutionPolicy.Mode mode;
+
+    private ExecutionPolicy policy;
+    private List<Integer> numbers;
+    private List<String> words;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        policy = Policies.of(mode);
+        numbers = BenchmarkData.integers(size);
+        words = BenchmarkData.words(size);
+    }
+
+    @Benchmark
+    public List<Integer> getEven() {
+        return Filtering.getEven(numbers, policy);
+    }
+
+    @Benchmark
+    public List<Integer> getOdd() {
+        return Filtering.getOdd(numbers, policy);
+    }
+
+    @Benchmark
+    public List<String> filterByFirstLetter() {
+        return Filtering.filterByFirstLetter(words, "a", policy);
+    }
+
+    @Benchmark
+    public List<String> filterByLastLetter() {
+        return Filtering.filterByLastLetter(words, "e", policy);
+    }
+
+    @Benchmark
+    public List<String> filterBySubstring() {
+        return Filtering.filterBySubstring(words, "an", policy);
+    }
+
+    @Benchmark
+    public List<String> filterByLongSubstring() {
+        return Filtering.filterBySubstring(words, "qrstuvwx", policy);
+    }
+}
@@ -0,0 +1,69 @@
+package sitecore.sherpa.benchmarks.streams;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sitecore.sherpa.benchmarks.BenchmarkData;
+import sitecore.sherpa.streams.Filtering;
+import sitecore.sherpa.streams.metrics.HelperMetrics;
+
+/**
+ * Benchmarks the cost of {@link HelperMetrics} on instrumented helpers, with
+ * the instrumentation off and on. Small inputs show the fixed cost per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class HelperMetricsBenchmark {
+
+    @Param({ "10", "1000", "100000" })
+    private int size;
+
+    @Param({ "false", "true" })
+    private boolean enabled;
+
+    private List<Integer> integers;
+    private List<String> words;
+    private final List<String> sink = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        integers = BenchmarkData.integers(size);
+        words = BenchmarkData.words(size);
+        HelperMetrics.setEnabled(enabled);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HelperMetrics.setEnabled(false);
+    }
+
+    @Benchmark
+    public List<Integer> getEven() {
+        return Filtering.getEven(integers);
+    }
+
+    @Benchmark
+    public int filterByFirstLetterIntoSink() {
+        sink.clear();
+        return Filtering.filterByFirstLetter(words, "a", sink);
+    }
+}
@@ -0,0 +1,82 @@
+package sitecore.sherpa.benchmarks.streams;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sitecore.sherpa.streams.aggregation.LatencyHistogram;
+
+/**
+ * Benchmarks for {@link LatencyHistogram}.
+ * 
+ * {@code record} and {@code recordContended} measure one sample, alone and
+ * with 4 threads sharing the histogram. {@code p99Histogram} and
+ * {@code p99Sorted} compare a p99 query on a histogram of {@code size}
+ * samples with sorting the raw samples, which is what computing a
+ * percentile costs without a sketch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class LatencyHistogramBenchmark {
+
+    @Param({ "1000", "100000", "10000000" })
+    private int size;
+
+    private double[] samples;
+    private LatencyHistogram histogram;
+    private LatencyHistogram recording;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        samples = new double[size];
+        histogram = new LatencyHistogram();
+        for (int i = 0; i < size; i++) {
+            samples[i] = Math.exp(random.nextDouble() * 8);
+            histogram.record(samples[i]);
+        }
+        recording = new LatencyHistogram();
+    }
+
+    @Benchmark
+    public void record() {
+        recording.record(samples[ThreadLocalRandom.current().nextInt(size)]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordContended() {
+        recording.record(samples[ThreadLocalRandom.current().nextInt(size)]);
+    }
+
+    @Benchmark
+    public double p99Histogram() {
+        return histogram.valueAtQuantile(0.99);
+    }
+
+    @Benchmark
+    public double p99Sorted() {
+        double[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(0.99 * sorted.length) - 1];
+    }
+}
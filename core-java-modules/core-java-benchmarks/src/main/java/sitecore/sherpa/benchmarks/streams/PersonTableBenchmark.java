@@ -0,0 +1,66 @@
+package sitecore.sherpa.benchmarks.streams;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sitecore.sherpa.benchmarks.BenchmarkData;
+import sitecore.sherpa.streams.Projection;
+import sitecore.sherpa.streams.helpers.Person;
+import sitecore.sherpa.streams.helpers.PersonTable;
+
+/**
+ * Compares scanning the ages of a {@code List<Person>} with scanning the age
+ * column of a {@link PersonTable}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class PersonTableBenchmark {
+
+    @Param({ "10", "1000", "100000", "10000000" })
+    private int size;
+
+    private List<Person> people;
+    private PersonTable table;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        people = BenchmarkData.people(size);
+        table = PersonTable.from(people);
+    }
+
+    @Benchmark
+    public long sumAgesOfObjects() {
+        long sum = 0;
+        for (Person person : people) {
+            sum += person.getAge();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long sumAgesOfColumn() {
+        return table.ageStream().asLongStream().sum();
+    }
+
+    @Benchmark
+    public List<Integer> getAgesOfTable() {
+        return Projection.getAges(table);
+    }
+}
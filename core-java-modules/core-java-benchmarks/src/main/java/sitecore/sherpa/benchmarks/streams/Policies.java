@@ -0,0 +1,20 @@
+package sitecore.sherpa.benchmarks.streams;
+
+import sitecore.sherpa.streams.ExecutionPolicy;
+
+/**
+ * Maps the {@code mode} parameter of the benchmarks to a policy on the common
+ * pool.
+ */
+final class Policies {
+    private Policies() {
+    }
+
+    static ExecutionPolicy of(ExecutionPolicy.Mode mode) {
+        return switch (mode) {
+            case SEQUENTIAL -> ExecutionPolicy.sequential();
+            case PARALLEL -> ExecutionPolicy.parallel();
+            case ADAPTIVE -> ExecutionPolicy.adaptive();
+        };
+    }
+}
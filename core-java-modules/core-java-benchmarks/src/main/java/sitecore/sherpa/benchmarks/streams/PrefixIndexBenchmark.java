@@ -0,0 +1,91 @@
+package sitecore.sherpa.benchmarks.streams;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sitecore.sherpa.benchmarks.BenchmarkData;
+import sitecore.sherpa.streams.Filtering;
+import sitecore.sherpa.streams.index.PrefixIndex;
+import sitecore.sherpa.streams.index.SuffixIndex;
+
+/**
+ * Benchmarks for {@link PrefixIndex} and {@link SuffixIndex} against the
+ * scans of {@code Filtering}.
+ * 
+ * The letter filters return every match in list order, so the index still
+ * visits and sorts the matches. The completion benchmarks ask for the first
+ * ten strings, in lexicographic order, with a three-letter prefix, as an
+ * autocomplete would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class PrefixIndexBenchmark {
+    private static final String COMPLETION_PREFIX = "and";
+    private static final int COMPLETIONS = 10;
+
+    @Param({ "1000", "100000", "5000000" })
+    private int size;
+
+    private List<String> words;
+    private PrefixIndex prefixes;
+    private SuffixIndex suffixes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        words = BenchmarkData.words(size);
+        prefixes = new PrefixIndex(words);
+        suffixes = new SuffixIndex(words);
+    }
+
+    @Benchmark
+    public List<String> firstLetterScan() {
+        return Filtering.filterByFirstLetter(words, "a");
+    }
+
+    @Benchmark
+    public List<String> firstLetterIndex() {
+        return Filtering.filterByFirstLetter(prefixes, "a");
+    }
+
+    @Benchmark
+    public List<String> lastLetterScan() {
+        return Filtering.filterByLastLetter(words, "e");
+    }
+
+    @Benchmark
+    public List<String> lastLetterIndex() {
+        return Filtering.filterByLastLetter(suffixes, "e");
+    }
+
+    @Benchmark
+    public List<String> completionsScan() {
+        return words.stream()
+                .filter(word -> word.startsWith(COMPLETION_PREFIX))
+                .sorted()
+                .limit(COMPLETIONS)
+                .toList();
+    }
+
+    @Benchmark
+    public List<String> completionsIndex() {
+        List<String> matches = prefixes.withPrefix(COMPLETION_PREFIX);
+        return List.copyOf(matches.subList(0, Math.min(COMPLETIONS, matches.size())));
+    }
+}
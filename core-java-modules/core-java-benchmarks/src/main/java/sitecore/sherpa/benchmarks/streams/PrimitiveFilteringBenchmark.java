@@ -0,0 +1,53 @@
+package sitecore.sherpa.benchmarks.streams;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sitecore.sherpa.benchmarks.BenchmarkData;
+import sitecore.sherpa.streams.Filtering;
+import sitecore.sherpa.streams.helpers.IntList;
+
+/**
+ * Benchmarks for the primitive {@code int[]} overloads of {@link Filtering},
+ * to compare with the boxed ones of {@link FilteringBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class PrimitiveFilteringBenchmark {
+
+    @Param({ "10", "1000", "100000", "10000000" })
+    private int size;
+
+    private int[] numbers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        numbers = BenchmarkData.primitiveIntegers(size);
+    }
+
+    @Benchmark
+    public IntList getEven() {
+        return Filtering.getEven(numbers);
+    }
+
+    @Benchmark
+    public IntList getOdd() {
+        return Filtering.getOdd(numbers);
+    }
+}
@@ -0,0 +1,65 @@
+package sitecore.sherpa.benchmarks.streams;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sitecore.sherpa.benchmarks.BenchmarkData;
+import sitecore.sherpa.streams.ExecutionPolicy;
+import sitecore.sherpa.streams.Projection;
+import sitecore.sherpa.streams.helpers.Person;
+
+/**
+ * Baseline benchmarks for every public method of {@link Projection}, measured
+ * under every {@link ExecutionPolicy}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class ProjectionBenchmark {
+
+    @Param({ "10", "1000", "100000", "10000000" })
+    private int size;
+
+    @Param({ "SEQUENTIAL", "PARALLEL", "ADAPTIVE" })
+    private ExecutionPolicy.Mode mode;
+
+    private ExecutionPolicy policy;
+    private List<Person> people;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        policy = Policies.of(mode);
+        people = BenchmarkData.people(size);
+    }
+
+    @Benchmark
+    public List<String> getIds() {
+        return Projection.getIds(people, policy);
+    }
+
+    @Benchmark
+    public List<String> getNames() {
+        return Projection.getNames(people, policy);
+    }
+
+    @Benchmark
+    public List<Integer> getAges() {
+        return Projection.getAges(people, policy);
+    }
+}
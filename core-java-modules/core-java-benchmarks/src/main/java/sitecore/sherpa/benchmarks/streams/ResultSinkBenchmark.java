@@ -0,0 +1,105 @@
+package sitecore.sherpa.benchmarks.streams;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sitecore.sherpa.benchmarks.BenchmarkData;
+import sitecore.sherpa.streams.Filtering;
+import sitecore.sherpa.streams.Projection;
+import sitecore.sherpa.streams.helpers.Person;
+
+/**
+ * Benchmarks for the sink overloads of {@link Filtering} and
+ * {@link Projection}, against the overloads returning a new list.
+ * 
+ * The {@code ...Sink} benchmarks clear and refill the same list or array on
+ * every call, as a loop handling one message at a time would, so their
+ * {@code gc.alloc.rate.norm} shows what the returned lists cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class ResultSinkBenchmark {
+
+    @Param({ "10", "1000", "100000" })
+    private int size;
+
+    private List<Integer> numbers;
+    private int[] primitiveNumbers;
+    private List<String> words;
+    private List<Person> people;
+    private List<Integer> integerSink;
+    private List<String> stringSink;
+    private int[] out;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        numbers = BenchmarkData.integers(size);
+        primitiveNumbers = BenchmarkData.primitiveIntegers(size);
+        words = BenchmarkData.words(size);
+        people = BenchmarkData.people(size);
+        integerSink = new ArrayList<>(size);
+        stringSink = new ArrayList<>(size);
+        out = new int[size];
+    }
+
+    @Benchmark
+    public List<Integer> getEvenList() {
+        return Filtering.getEven(numbers);
+    }
+
+    @Benchmark
+    public int getEvenSink() {
+        integerSink.clear();
+        return Filtering.getEven(numbers, integerSink);
+    }
+
+    @Benchmark
+    public int getEvenArraySink() {
+        return Filtering.getEven(primitiveNumbers, out);
+    }
+
+    @Benchmark
+    public List<String> filterBySubstringList() {
+        return Filtering.filterBySubstring(words, "ab");
+    }
+
+    @Benchmark
+    public int filterBySubstringSink() {
+        stringSink.clear();
+        return Filtering.filterBySubstring(words, "ab", stringSink);
+    }
+
+    @Benchmark
+    public List<String> getNamesList() {
+        return Projection.getNames(people);
+    }
+
+    @Benchmark
+    public int getNamesSink() {
+        stringSink.clear();
+        return Projection.getNames(people, stringSink);
+    }
+
+    @Benchmark
+    public int getAgesArraySink() {
+        return Projection.getAges(people, out);
+    }
+}
@@ -0,0 +1,103 @@
+package sitecore.sherpa.benchmarks.streams;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sitecore.sherpa.benchmarks.BenchmarkData;
+import sitecore.sherpa.streams.aggregation.LatencyAggregator;
+import sitecore.sherpa.streams.aggregation.LatencyReport;
+import sitecore.sherpa.streams.helpers.Service;
+
+/**
+ * Benchmarks answering the latency challenge for every service area.
+ * 
+ * {@code streamPerArea} follows the sample solutions: one stream over the
+ * services per area, reading latencies from a {@code Map<String, Double>}.
+ * {@code aggregate} builds a {@link LatencyReport} in one pass over the
+ * {@code double[7]} latencies, which also holds the minimum, average and
+ * percentiles of every area.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class ServiceLatencyBenchmark {
+
+    /**
+     * A service as declared in the challenge.
+     */
+    record MapService(String serviceArea, Map<String, Double> weeklyLatency) {
+    }
+
+    @Param({ "10", "1000", "100000" })
+    private int size;
+
+    private List<Service> services;
+    private List<MapService> mapServices;
+    private String[] areas;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        services = BenchmarkData.services(size);
+        areas = BenchmarkData.serviceAreas();
+        mapServices = new ArrayList<>(size);
+        for (Service service : services) {
+            Map<String, Double> latencies = new HashMap<>();
+            for (DayOfWeek day : DayOfWeek.values()) {
+                double latency = service.getLatency(day);
+                if (!Double.isNaN(latency)) {
+                    latencies.put(day.name(), latency);
+                }
+            }
+            mapServices.add(new MapService(service.getServiceArea(), latencies));
+        }
+    }
+
+    @Benchmark
+    public double[] streamPerArea() {
+        double[] maxima = new double[areas.length];
+        for (int i = 0; i < areas.length; i++) {
+            String area = areas[i];
+            maxima[i] = mapServices.stream()
+                    .filter(s -> s.serviceArea().equalsIgnoreCase(area))
+                    .flatMap(s -> s.weeklyLatency().values().stream())
+                    .max(Double::compareTo)
+                    .orElse(0.0);
+        }
+        return maxima;
+    }
+
+    @Benchmark
+    public double[] aggregate() {
+        LatencyReport report = LatencyAggregator.aggregate(services);
+        double[] maxima = new double[areas.length];
+        for (int i = 0; i < areas.length; i++) {
+            maxima[i] = report.maxLatency(areas[i]);
+        }
+        return maxima;
+    }
+
+    @Benchmark
+    public double maxLatencyOneArea() {
+        return LatencyAggregator.maxLatency(services, areas[0]);
+    }
+}
@@ -0,0 +1,77 @@
+package sitecore.sherpa.benchmarks.streams;
+
+import java.time.DayOfWeek;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sitecore.sherpa.benchmarks.BenchmarkData;
+import sitecore.sherpa.streams.aggregation.LatencyAggregator;
+import sitecore.sherpa.streams.aggregation.ServiceRegistry;
+import sitecore.sherpa.streams.helpers.Service;
+
+/**
+ * Benchmarks for area queries on a {@link ServiceRegistry} against scanning
+ * the service list on every query.
+ * 
+ * {@code queryAfterUpdate} changes one latency before querying the area of
+ * the changed service, the worst case where the cached statistics of that
+ * area have to be recomputed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class ServiceRegistryBenchmark {
+
+    @Param({ "1000", "100000" })
+    private int size;
+
+    private List<Service> services;
+    private String[] areas;
+    private ServiceRegistry registry;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        services = BenchmarkData.services(size);
+        areas = BenchmarkData.serviceAreas();
+        registry = new ServiceRegistry(services);
+    }
+
+    private String randomArea() {
+        return areas[ThreadLocalRandom.current().nextInt(areas.length)];
+    }
+
+    @Benchmark
+    public double queryScan() {
+        return LatencyAggregator.maxLatency(services, randomArea());
+    }
+
+    @Benchmark
+    public double queryRegistry() {
+        return registry.maxLatency(randomArea());
+    }
+
+    @Benchmark
+    public double queryAfterUpdate() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Service service = services.get(random.nextInt(size));
+        registry.updateLatency(service.getServiceName(), DayOfWeek.MONDAY, 10 + random.nextDouble() * 100);
+        return registry.maxLatency(service.getServiceArea());
+    }
+}
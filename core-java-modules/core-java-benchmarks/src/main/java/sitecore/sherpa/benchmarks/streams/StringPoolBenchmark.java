@@ -0,0 +1,97 @@
+package sitecore.sherpa.benchmarks.streams;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sitecore.sherpa.benchmarks.BenchmarkData;
+import sitecore.sherpa.streams.Filtering;
+import sitecore.sherpa.streams.helpers.Person;
+import sitecore.sherpa.streams.intern.ArenaStringPool;
+import sitecore.sherpa.streams.intern.StringPool;
+
+/**
+ * Benchmarks for {@link StringPool}, on names that are decoded into a new
+ * copy per record, as when people are loaded from a file.
+ * 
+ * The filter benchmarks look for one name among the copies, with a stream
+ * calling {@code equals} and with {@code Filtering.filterByValue}, and among
+ * the same names interned, where every match is the pooled instance. The
+ * intern benchmarks measure the cost of pooling the names of a load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class StringPoolBenchmark {
+    private static final String NAME = "Laura";
+
+    @Param({ "1000", "100000", "1000000" })
+    private int size;
+
+    private List<String> copies;
+    private List<String> interned;
+    private StringPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        copies = new ArrayList<>(size);
+        for (Person person : BenchmarkData.people(size)) {
+            copies.add(new String(person.getName()));
+        }
+        pool = StringPool.weak();
+        interned = new ArrayList<>(size);
+        for (String name : copies) {
+            interned.add(pool.intern(name));
+        }
+    }
+
+    @Benchmark
+    public List<String> copiesStreamEquals() {
+        return copies.stream().filter(NAME::equals).toList();
+    }
+
+    @Benchmark
+    public List<String> copiesFilterByValue() {
+        return Filtering.filterByValue(copies, NAME, pool);
+    }
+
+    @Benchmark
+    public List<String> internedFilterByValue() {
+        return Filtering.filterByValue(interned, NAME, pool);
+    }
+
+    @Benchmark
+    public int internWeak() {
+        StringPool weak = StringPool.weak();
+        for (String name : copies) {
+            weak.intern(name);
+        }
+        return weak.size();
+    }
+
+    @Benchmark
+    public int internArena() {
+        try (ArenaStringPool arena = StringPool.arena()) {
+            for (String name : copies) {
+                arena.intern(name);
+            }
+            return arena.size();
+        }
+    }
+}
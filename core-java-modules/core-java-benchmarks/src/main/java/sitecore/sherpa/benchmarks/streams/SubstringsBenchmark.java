@@ -0,0 +1,78 @@
+package sitecore.sherpa.benchmarks.streams;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sitecore.sherpa.benchmarks.BenchmarkData;
+import sitecore.sherpa.streams.ExecutionPolicy;
+import sitecore.sherpa.streams.Filtering;
+import sitecore.sherpa.streams.matching.AhoCorasickMatcher;
+
+/**
+ * Baseline benchmarks for the multi pattern methods of {@link Filtering}, for a
+ * short and a long list of keywords. The {@code Precompiled} variants reuse a
+ * matcher built once, outside of the measured code.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class SubstringsBenchmark {
+
+    @Param({ "10", "1000", "100000", "10000000" })
+    private int size;
+
+    @Param({ "8", "256" })
+    private int keywordCount;
+
+    @Param({ "SEQUENTIAL", "PARALLEL", "ADAPTIVE" })
+    private ExecutionPolicy.Mode mode;
+
+    private ExecutionPolicy policy;
+    private List<String> words;
+    private List<String> keywords;
+    private AhoCorasickMatcher matcher;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        policy = Policies.of(mode);
+        words = BenchmarkData.words(size);
+        keywords = BenchmarkData.keywords(keywordCount, 3);
+        matcher = AhoCorasickMatcher.compile(keywords);
+    }
+
+    @Benchmark
+    public List<String> filterByAnySubString() {
+        return Filtering.filterByAnySubString(words, keywords, policy);
+    }
+
+    @Benchmark
+    public List<String> filterByAnySubStringPrecompiled() {
+        return Filtering.filterByAnySubString(words, matcher, policy);
+    }
+
+    @Benchmark
+    public List<String> filterByAllSubStrings() {
+        return Filtering.filterByAllSubStrings(words, keywords, policy);
+    }
+
+    @Benchmark
+    public List<String> filterByAllSubStringsPrecompiled() {
+        return Filtering.filterByAllSubStrings(words, matcher, policy);
+    }
+}
@@ -0,0 +1,87 @@
+package sitecore.sherpa.benchmarks.streams;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sitecore.sherpa.benchmarks.BenchmarkData;
+import sitecore.sherpa.streams.Filtering;
+import sitecore.sherpa.streams.helpers.IntList;
+import sitecore.sherpa.streams.helpers.PersonTable;
+import sitecore.sherpa.streams.simd.IntColumnFilters;
+
+/**
+ * Benchmarks for the SIMD filters of {@link IntColumnFilters}, through
+ * {@code Filtering.getEven(int[])} and {@code PersonTable.filterByAgeRange}.
+ * 
+ * The forks add the {@code jdk.incubator.vector} module, except for the
+ * {@code ...Scalar} benchmarks, which run the same methods without it and so
+ * measure the scalar fallback. The {@code ...Stream} benchmarks are the
+ * {@code IntStream} pipelines the filters replace.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g", "--add-modules=jdk.incubator.vector" })
+public class VectorFilteringBenchmark {
+
+    @Param({ "1000", "100000", "10000000" })
+    private int size;
+
+    private int[] numbers;
+    private PersonTable people;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        numbers = BenchmarkData.primitiveIntegers(size);
+        people = PersonTable.from(BenchmarkData.people(size));
+    }
+
+    @Benchmark
+    public IntList getEvenStream() {
+        return Filtering.getEven(IntStream.of(numbers));
+    }
+
+    @Benchmark
+    public IntList getEven() {
+        return Filtering.getEven(numbers);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+    public IntList getEvenScalar() {
+        return Filtering.getEven(numbers);
+    }
+
+    @Benchmark
+    public IntList ageRangeStream() {
+        return IntStream.range(0, people.size())
+                .filter(row -> people.ageAt(row) >= 18 && people.ageAt(row) <= 65)
+                .collect(IntList::new, IntList::add, IntList::addAll);
+    }
+
+    @Benchmark
+    public IntList ageRange() {
+        return people.filterByAgeRange(18, 65);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+    public IntList ageRangeScalar() {
+        return people.filterByAgeRange(18, 65);
+    }
+}
@@ -0,0 +1,239 @@
+package sitecore.sherpa.collections;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A map that also indexes its keys by value, so that
+ * {@link #containsValue(Object)} and {@link #keysOf(Object)} run in constant
+ * time instead of scanning every entry like {@code HashMap.containsValue}.
+ * 
+ * Values do not have to be unique: the inverse index maps each value to the
+ * set of keys holding it. Every update keeps both directions in sync,
+ * including removals through the views and {@code setValue} on their entries.
+ * Like {@code HashMap}, the map accepts a {@code null} key and {@code null}
+ * values.
+ * 
+ * As with a {@code HashMap} key, a value must not change its
+ * {@code hashCode} while it is in the map.
+ * 
+ * This class is not thread-safe.
+ * 
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public class BidirectionalMap<K, V> extends AbstractMap<K, V> {
+    private final HashMap<K, V> forward;
+    private final HashMap<V, Set<K>> inverse;
+    private EntrySet entrySet;
+
+    /**
+     * Creates an empty map.
+     */
+    public BidirectionalMap() {
+        forward = new HashMap<>();
+        inverse = new HashMap<>();
+    }
+
+    /**
+     * Creates a map holding the same entries as another map.
+     * 
+     * @param map the map whose entries should be copied
+     */
+    public BidirectionalMap(Map<? extends K, ? extends V> map) {
+        forward = new HashMap<>(Math.max(16, (int) (map.size() / 0.75f) + 1));
+        inverse = new HashMap<>(Math.max(16, (int) (map.size() / 0.75f) + 1));
+        // Not through the overridable putAll, which could see a subclass
+        // before its own constructor has run. The keys of a map are distinct,
+        // so no entry replaces another.
+        forward.putAll(map);
+        forward.forEach(this::index);
+    }
+
+    @Override
+    public V get(Object key) {
+        return forward.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return forward.containsKey(key);
+    }
+
+    /**
+     * Checks whether any key has the specified value, using the inverse index.
+     * 
+     * @param value the value, may be {@code null}
+     * @return {@code true} if at least one key has the value
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        return inverse.containsKey(value);
+    }
+
+    /**
+     * Returns the keys that have the specified value.
+     * 
+     * @param value the value, may be {@code null}
+     * @return an unmodifiable view of the keys holding the value, empty if
+     *         there are none
+     */
+    public Set<K> keysOf(Object value) {
+        Set<K> keys = inverse.get(value);
+        return keys == null ? Collections.emptySet() : Collections.unmodifiableSet(keys);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        boolean present = forward.containsKey(key);
+        V previous = forward.put(key, value);
+        if (present) {
+            if (Objects.equals(previous, value)) {
+                return previous;
+            }
+            unindex(key, previous);
+        }
+        index(key, value);
+        return previous;
+    }
+
+    @Override
+    public V remove(Object key) {
+        if (!forward.containsKey(key)) {
+            return null;
+        }
+        V removed = forward.remove(key);
+        unindex(key, removed);
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        forward.clear();
+        inverse.clear();
+    }
+
+    @Override
+    public int size() {
+        return forward.size();
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        EntrySet set = entrySet;
+        return set != null ? set : (entrySet = new EntrySet());
+    }
+
+    private void index(K key, V value) {
+        inverse.computeIfAbsent(value, v -> new HashSet<>(2)).add(key);
+    }
+
+    private void unindex(Object key, V value) {
+        Set<K> keys = inverse.get(value);
+        keys.remove(key);
+        if (keys.isEmpty()) {
+            inverse.remove(value);
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            Iterator<Map.Entry<K, V>> entries = forward.entrySet().iterator();
+            return new Iterator<>() {
+                private Map.Entry<K, V> last;
+
+                @Override
+                public boolean hasNext() {
+                    return entries.hasNext();
+                }
+
+                @Override
+                public Map.Entry<K, V> next() {
+                    last = entries.next();
+                    return new IndexedEntry(last);
+                }
+
+                @Override
+                public void remove() {
+                    entries.remove();
+                    unindex(last.getKey(), last.getValue());
+                }
+            };
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Map.Entry<?, ?> entry && forward.entrySet().contains(entry);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (contains(o)) {
+                BidirectionalMap.this.remove(((Map.Entry<?, ?>) o).getKey());
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public int size() {
+            return forward.size();
+        }
+
+        @Override
+        public void clear() {
+            BidirectionalMap.this.clear();
+        }
+    }
+
+    private final class IndexedEntry implements Map.Entry<K, V> {
+        private final Map.Entry<K, V> entry;
+
+        IndexedEntry(Map.Entry<K, V> entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public K getKey() {
+            return entry.getKey();
+        }
+
+        @Override
+        public V getValue() {
+            return entry.getValue();
+        }
+
+        @Override
+        public V setValue(V value) {
+            V previous = entry.setValue(value);
+            if (!Objects.equals(previous, value)) {
+                unindex(entry.getKey(), previous);
+                inverse.computeIfAbsent(value, v -> new HashSet<>(2)).add(entry.getKey());
+            }
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return entry.equals(o);
+        }
+
+        @Override
+        public int hashCode() {
+            return entry.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return entry.toString();
+        }
+    }
+}
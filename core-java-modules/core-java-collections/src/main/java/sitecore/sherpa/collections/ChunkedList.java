@@ -0,0 +1,312 @@
+package sitecore.sherpa.collections;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+/**
+ * A list that stores its elements in fixed-size chunks instead of one backing
+ * array (a "tiered vector").
+ * 
+ * {@code ArrayList} shifts every following element on a middle insert or
+ * removal, and copies its whole backing array each time it grows. Here every
+ * chunk but the last is full, and each chunk is a ring buffer, so:
+ * <ul>
+ * <li>{@code get} and {@code set} are still O(1): the index gives the chunk
+ * and the position inside it;</li>
+ * <li>a middle insert or removal shifts at most half a chunk, then moves one
+ * element across each following chunk boundary in O(1), which is O(√n) when
+ * the chunk size is close to √n;</li>
+ * <li>growing allocates one new chunk and never copies elements.</li>
+ * </ul>
+ * 
+ * The chunk size is fixed when the list is created. It should be a power of
+ * two close to the square root of the expected size, which is what
+ * {@link #ChunkedList(int)} picks.
+ * 
+ * This class is not thread-safe.
+ * 
+ * @param <E> the type of the elements
+ */
+public class ChunkedList<E> extends AbstractList<E> implements RandomAccess {
+    private static final int DEFAULT_CHUNK_SIZE = 1024;
+    private static final int MIN_CHUNK_SIZE = 16;
+    private static final int MAX_CHUNK_SIZE = 1 << 16;
+
+    private final int shift;
+    private final int mask;
+    private Object[][] chunks;
+    // Position of the first element of each chunk in its ring buffer
+    private int[] heads;
+    private int chunkCount;
+    private int size;
+    // An emptied chunk kept around, so adding and removing at a chunk
+    // boundary does not allocate every time
+    private Object[] spare;
+
+    /**
+     * Creates an empty list with chunks of 1024 elements, suited to lists of
+     * up to a few million elements.
+     */
+    public ChunkedList() {
+        this(DEFAULT_CHUNK_SIZE * DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates an empty list with a chunk size suited to the expected size.
+     * 
+     * @param expectedSize the number of elements the list should hold
+     */
+    public ChunkedList(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Illegal expected size: " + expectedSize);
+        }
+        int chunkSize = MIN_CHUNK_SIZE;
+        while (chunkSize < MAX_CHUNK_SIZE && (long) chunkSize * chunkSize < expectedSize) {
+            chunkSize <<= 1;
+        }
+        shift = Integer.numberOfTrailingZeros(chunkSize);
+        mask = chunkSize - 1;
+        chunks = new Object[4][];
+        heads = new int[4];
+    }
+
+    /**
+     * Creates a list holding the elements of a collection, in the order of its
+     * iterator.
+     * 
+     * @param elements the elements to copy
+     */
+    public ChunkedList(Collection<? extends E> elements) {
+        this(elements.size());
+        // Not through the overridable addAll, which could see a subclass
+        // before its own constructor has run
+        for (E element : elements) {
+            append(element);
+        }
+    }
+
+    @Override
+    public E get(int index) {
+        Objects.checkIndex(index, size);
+        return elementAt(index >>> shift, index & mask);
+    }
+
+    @Override
+    public E set(int index, E element) {
+        Objects.checkIndex(index, size);
+        int chunk = index >>> shift;
+        E previous = elementAt(chunk, index & mask);
+        chunks[chunk][(heads[chunk] + (index & mask)) & mask] = element;
+        return previous;
+    }
+
+    @Override
+    public boolean add(E element) {
+        append(element);
+        return true;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        Objects.checkIndex(index, size + 1);
+        if (index == size) {
+            add(element);
+            return;
+        }
+        if (size == chunkCount << shift) {
+            addChunk();
+        }
+        int chunk = index >>> shift;
+        int last = chunkCount - 1;
+        // Make room in the target chunk by moving the last element of every
+        // chunk from there on to the front of the next one
+        for (int j = last; j > chunk; j--) {
+            int tail = (heads[j - 1] + mask) & mask;
+            heads[j] = (heads[j] - 1) & mask;
+            chunks[j][heads[j]] = chunks[j - 1][tail];
+            chunks[j - 1][tail] = null;
+        }
+        int length = chunk == last ? size - (last << shift) : mask;
+        insertInChunk(chunk, length, index & mask, element);
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public E remove(int index) {
+        Objects.checkIndex(index, size);
+        int chunk = index >>> shift;
+        int last = chunkCount - 1;
+        int length = chunk == last ? size - (last << shift) : mask + 1;
+        E removed = removeFromChunk(chunk, length, index & mask);
+        // Fill the hole by moving the first element of every following chunk
+        // to the back of the previous one
+        for (int j = chunk + 1; j <= last; j++) {
+            int tail = (heads[j - 1] + mask) & mask;
+            chunks[j - 1][tail] = chunks[j][heads[j]];
+            chunks[j][heads[j]] = null;
+            heads[j] = (heads[j] + 1) & mask;
+        }
+        size--;
+        modCount++;
+        if (size == last << shift) {
+            removeLastChunk();
+        }
+        return removed;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            Object[] data = chunks[chunk];
+            int head = heads[chunk];
+            int length = chunkLength(chunk);
+            for (int i = 0; i < length; i++) {
+                if (Objects.equals(o, data[(head + i) & mask])) {
+                    return (chunk << shift) + i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        for (int chunk = chunkCount - 1; chunk >= 0; chunk--) {
+            Object[] data = chunks[chunk];
+            int head = heads[chunk];
+            for (int i = chunkLength(chunk) - 1; i >= 0; i--) {
+                if (Objects.equals(o, data[(head + i) & mask])) {
+                    return (chunk << shift) + i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        int expectedModCount = modCount;
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            int length = chunkLength(chunk);
+            for (int i = 0; i < length; i++) {
+                action.accept(elementAt(chunk, i));
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(chunks, 0, chunkCount, null);
+        Arrays.fill(heads, 0, chunkCount, 0);
+        chunkCount = 0;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Returns the number of elements each chunk holds.
+     * 
+     * @return the chunk size of the list
+     */
+    public int chunkSize() {
+        return mask + 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private E elementAt(int chunk, int offset) {
+        return (E) chunks[chunk][(heads[chunk] + offset) & mask];
+    }
+
+    private int chunkLength(int chunk) {
+        return chunk == chunkCount - 1 ? size - (chunk << shift) : mask + 1;
+    }
+
+    // Inserts into a chunk that has room, shifting the shorter side
+    private void insertInChunk(int chunk, int length, int offset, E element) {
+        Object[] data = chunks[chunk];
+        int head = heads[chunk];
+        if (offset < length - offset) {
+            head = (head - 1) & mask;
+            for (int i = 0; i < offset; i++) {
+                data[(head + i) & mask] = data[(head + i + 1) & mask];
+            }
+            heads[chunk] = head;
+        } else {
+            for (int i = length; i > offset; i--) {
+                data[(head + i) & mask] = data[(head + i - 1) & mask];
+            }
+        }
+        data[(head + offset) & mask] = element;
+    }
+
+    // Removes from a chunk, shifting the shorter side and leaving the free
+    // slot at its back
+    private E removeFromChunk(int chunk, int length, int offset) {
+        E removed = elementAt(chunk, offset);
+        Object[] data = chunks[chunk];
+        int head = heads[chunk];
+        if (offset < length - 1 - offset) {
+            for (int i = offset; i > 0; i--) {
+                data[(head + i) & mask] = data[(head + i - 1) & mask];
+            }
+            data[head] = null;
+            heads[chunk] = (head + 1) & mask;
+        } else {
+            for (int i = offset; i < length - 1; i++) {
+                data[(head + i) & mask] = data[(head + i + 1) & mask];
+            }
+            data[(head + length - 1) & mask] = null;
+        }
+        return removed;
+    }
+
+    private void append(E element) {
+        if (size == chunkCount << shift) {
+            addChunk();
+        }
+        int last = chunkCount - 1;
+        chunks[last][(heads[last] + (size & mask)) & mask] = element;
+        size++;
+        modCount++;
+    }
+
+    private void addChunk() {
+        if (chunkCount == chunks.length) {
+            // Only the chunk references are copied, never the elements
+            chunks = Arrays.copyOf(chunks, chunkCount << 1);
+            heads = Arrays.copyOf(heads, chunkCount << 1);
+        }
+        Object[] chunk = spare != null ? spare : new Object[mask + 1];
+        spare = null;
+        chunks[chunkCount] = chunk;
+        heads[chunkCount] = 0;
+        chunkCount++;
+    }
+
+    private void removeLastChunk() {
+        chunkCount--;
+        spare = chunks[chunkCount];
+        chunks[chunkCount] = null;
+        heads[chunkCount] = 0;
+    }
+}
@@ -0,0 +1,51 @@
+package sitecore.sherpa.collections;
+
+import java.util.List;
+
+public class ChunkedListExamples {
+    public static void main(String[] args) {
+        // Create a String type chunked list
+        List<String> languages = new ChunkedList<>();
+
+        // Add elements to the chunked list
+        languages.add("Java");
+        languages.add("C#");
+        languages.add("Python");
+        languages.add("Groovy");
+
+        System.out.println(languages);
+
+        // Get the element from the chunked list
+        String language = languages.get(1);
+        System.out.println("Element at index 1: " + language);
+
+        // Change the element of the chunked list
+        languages.set(1, "Kotlin");
+        languages.set(2, "Scala");
+
+        System.out.println("Modified ChunkedList: " + languages);
+
+        // Remove an element from the chunked list
+        String removed = languages.remove(3);
+        System.out.println(removed);
+
+        // Get the index of Kotlin
+        int firstOccurence = languages.indexOf("Kotlin");
+        System.out.println(firstOccurence);
+
+        languages.add("Kotlin");
+
+        // Get the last index of Kotlin
+        int lastOccurrence = languages.lastIndexOf("Kotlin");
+        System.out.println(lastOccurrence);
+
+        // Insert in the middle of a large list: only one chunk is shifted
+        List<Integer> numbers = new ChunkedList<>(1_000_000);
+        for (int i = 0; i < 1_000_000; i++) {
+            numbers.add(i);
+        }
+        numbers.add(500_000, -1);
+        System.out.println("Element at index 500000: " + numbers.get(500_000));
+        System.out.println("Element at index 500001: " + numbers.get(500_001));
+    }
+}
@@ -0,0 +1,61 @@
+package sitecore.sherpa.collections;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class ConcurrentMapExamples {
+    public static void main(String[] args) throws InterruptedException {
+        StripedHashMap<String, String> map = new StripedHashMap<>();
+
+        map.put("1", "1");
+        map.put("2", "2");
+        map.put("3", "3");
+        // Null keys and values are rejected, like in ConcurrentHashMap
+
+        String value = map.get("3");
+        System.out.println("Key: 3, Value: " + value);
+
+        value = map.getOrDefault("5", "Default Value");
+        System.out.println("Key: 5, Value: " + value);
+
+        boolean keyExists = map.containsKey("1");
+        boolean valueExists = map.containsValue("5");
+        System.out.println("keyExists: " + keyExists + ", valueExists: " + valueExists);
+
+        System.out.println("Map Size: " + map.size());
+
+        Map<String, String> map1 = new StripedHashMap<>();
+        map1.putAll(map);
+        System.out.println("Map1 mappings: " + map1);
+
+        Set<String> keySet = map.keySet();
+        System.out.println("Map keys: " + keySet);
+
+        Collection<String> values = map.values();
+        System.out.println("Map values: " + values);
+
+        // Several threads counting words in the same map
+        StripedHashMap<String, Integer> counts = new StripedHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int task = 0; task < 4; task++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    counts.merge("word" + (i % 10), 1, Integer::sum);
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        System.out.println("Word counts: " + counts);
+
+        Integer total = counts.reduce(1, (word, count) -> count, Integer::sum);
+        System.out.println("Total words: " + total);
+
+        map.clear();
+        System.out.println("Map is empty: " + map.isEmpty());
+    }
+}
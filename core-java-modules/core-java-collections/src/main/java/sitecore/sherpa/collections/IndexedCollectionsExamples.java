@@ -0,0 +1,50 @@
+package sitecore.sherpa.collections;
+
+import java.util.List;
+import java.util.Map;
+
+public class IndexedCollectionsExamples {
+    public static void main(String[] args) {
+        // Deduplicate words: indexOf is a hash lookup, not a scan
+        String[] words = { "Java", "Kotlin", "Java", "Scala", "Kotlin", "Groovy" };
+        List<String> unique = new IndexedList<>();
+        for (String word : words) {
+            if (unique.indexOf(word) < 0) {
+                unique.add(word);
+            }
+        }
+        System.out.println("Unique words: " + unique);
+
+        IndexedList<String> languages = new IndexedList<>(List.of(words));
+        System.out.println("First Kotlin: " + languages.indexOf("Kotlin"));
+        System.out.println("Last Kotlin: " + languages.lastIndexOf("Kotlin"));
+        System.out.println("Java count: " + languages.frequency("Java"));
+
+        // Inserting in the middle moves the positions, the index is rebuilt
+        // on the next lookup
+        languages.add(0, "C#");
+        System.out.println("First Kotlin after insert: " + languages.indexOf("Kotlin"));
+
+        BidirectionalMap<String, String> map = new BidirectionalMap<>();
+        map.put("1", "1");
+        map.put("2", "2");
+        map.put("3", "3");
+        map.put("4", null); // Null value
+        map.put(null, "5"); // Null key
+        map.put("6", "5");
+
+        boolean valueExists = map.containsValue("5");
+        System.out.println("valueExists: " + valueExists);
+        System.out.println("Keys with value 5: " + map.keysOf("5"));
+
+        map.remove(null);
+        System.out.println("Keys with value 5 after removing null key: " + map.keysOf("5"));
+
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            if ("2".equals(entry.getValue())) {
+                entry.setValue("5");
+            }
+        }
+        System.out.println("Keys with value 5 after setValue: " + map.keysOf("5"));
+    }
+}
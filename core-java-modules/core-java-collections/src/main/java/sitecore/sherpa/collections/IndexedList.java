@@ -0,0 +1,293 @@
+package sitecore.sherpa.collections;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * A list that keeps a hash index from each element to its positions, so that
+ * {@link #indexOf(Object)}, {@link #lastIndexOf(Object)} and
+ * {@link #contains(Object)} run in constant time instead of scanning the list.
+ * 
+ * Every operation keeps the index up to date. Inserting or removing anywhere
+ * but at the end moves every following element, so instead of rewriting their
+ * positions the list records the shift, and the positions of an element catch
+ * up with the recorded shifts the next time that element is looked up or
+ * changed. After 32 shifts the list drops the index and the next lookup
+ * rebuilds it in one pass, which bounds the catch-up work of a lookup. A loop
+ * that appends and looks up, like a deduplication step, never rebuilds the
+ * index, and one that also edits the middle rebuilds it once every 32 edits.
+ * 
+ * As with a {@code HashMap} key, an element must not change its
+ * {@code hashCode} while it is in the list.
+ * 
+ * This class is not thread-safe.
+ * 
+ * @param <E> the type of the elements
+ */
+public class IndexedList<E> extends AbstractList<E> implements RandomAccess {
+    private static final int MAX_PENDING_SHIFTS = 32;
+
+    private final ArrayList<E> elements;
+    private final Map<Object, Positions> index;
+    private boolean stale;
+    // Positions from shiftFrom[i] on moved by shiftBy[i], oldest first
+    private final int[] shiftFrom = new int[MAX_PENDING_SHIFTS];
+    private final int[] shiftBy = new int[MAX_PENDING_SHIFTS];
+    private int shifts;
+
+    /**
+     * Creates an empty list.
+     */
+    public IndexedList() {
+        this(10);
+    }
+
+    /**
+     * Creates an empty list sized to hold {@code initialCapacity} elements
+     * without resizing.
+     * 
+     * @param initialCapacity the number of elements the list should hold
+     */
+    public IndexedList(int initialCapacity) {
+        elements = new ArrayList<>(initialCapacity);
+        index = new HashMap<>(Math.max(16, (int) (initialCapacity / 0.75f) + 1));
+    }
+
+    /**
+     * Creates a list holding the elements of a collection, in the order of its
+     * iterator.
+     * 
+     * @param elements the elements to copy
+     */
+    public IndexedList(Collection<? extends E> elements) {
+        this(elements.size());
+        // Not through the overridable addAll, which could see a subclass
+        // before its own constructor has run
+        for (E element : elements) {
+            append(element);
+        }
+    }
+
+    @Override
+    public E get(int index) {
+        return elements.get(index);
+    }
+
+    @Override
+    public E set(int index, E element) {
+        E previous = elements.set(index, element);
+        if (!stale && !Objects.equals(previous, element)) {
+            unindex(previous, index);
+            positionsOf(element).insert(index);
+        }
+        return previous;
+    }
+
+    @Override
+    public boolean add(E element) {
+        append(element);
+        return true;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        if (index == elements.size()) {
+            add(element);
+            return;
+        }
+        elements.add(index, element);
+        if (!stale) {
+            shift(index, 1);
+        }
+        if (!stale) {
+            positionsOf(element).insert(index);
+        }
+        modCount++;
+    }
+
+    @Override
+    public E remove(int index) {
+        int last = elements.size() - 1;
+        E removed = elements.remove(index);
+        if (!stale) {
+            unindex(removed, index);
+            if (index != last) {
+                shift(index, -1);
+            }
+        }
+        modCount++;
+        return removed;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        int size = elements.size();
+        if (!stale) {
+            for (int i = fromIndex; i < toIndex; i++) {
+                unindex(elements.get(i), i);
+            }
+        }
+        elements.subList(fromIndex, toIndex).clear();
+        if (!stale && toIndex < size) {
+            shift(fromIndex, fromIndex - toIndex);
+        }
+        modCount++;
+    }
+
+    @Override
+    public void clear() {
+        elements.clear();
+        index.clear();
+        stale = false;
+        shifts = 0;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return elements.size();
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        Positions positions = indexed().get(o);
+        return positions == null ? -1 : current(positions).first();
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        Positions positions = indexed().get(o);
+        return positions == null ? -1 : current(positions).last();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexed().containsKey(o);
+    }
+
+    /**
+     * Returns how many times an element is in the list.
+     * 
+     * @param o the element to count
+     * @return the number of positions holding the element
+     */
+    public int frequency(Object o) {
+        Positions positions = indexed().get(o);
+        return positions == null ? 0 : positions.count;
+    }
+
+    private Map<Object, Positions> indexed() {
+        if (stale) {
+            index.clear();
+            shifts = 0;
+            for (int i = 0; i < elements.size(); i++) {
+                positionsOf(elements.get(i)).insert(i);
+            }
+            stale = false;
+        }
+        return index;
+    }
+
+    private void markStale() {
+        if (!stale) {
+            stale = true;
+            index.clear();
+            shifts = 0;
+        }
+    }
+
+    // Records that the positions from a given one on moved, or drops the
+    // index once too many shifts are waiting to be applied
+    private void shift(int from, int by) {
+        if (shifts == MAX_PENDING_SHIFTS) {
+            markStale();
+            return;
+        }
+        shiftFrom[shifts] = from;
+        shiftBy[shifts] = by;
+        shifts++;
+    }
+
+    private Positions current(Positions positions) {
+        while (positions.applied < shifts) {
+            positions.shift(shiftFrom[positions.applied], shiftBy[positions.applied]);
+            positions.applied++;
+        }
+        return positions;
+    }
+
+    private void append(E element) {
+        elements.add(element);
+        if (!stale) {
+            positionsOf(element).insert(elements.size() - 1);
+        }
+        modCount++;
+    }
+
+    private Positions positionsOf(Object element) {
+        return current(index.computeIfAbsent(element, key -> new Positions(shifts)));
+    }
+
+    private void unindex(Object element, int position) {
+        Positions positions = current(index.get(element));
+        positions.delete(position);
+        if (positions.count == 0) {
+            index.remove(element);
+        }
+    }
+
+    /**
+     * The sorted positions of one element. Most elements of a deduplicated
+     * list appear once, so the array starts with a single slot.
+     */
+    private static final class Positions {
+        private int[] at = new int[1];
+        private int count;
+        // The number of recorded shifts already applied to the positions
+        private int applied;
+
+        Positions(int applied) {
+            this.applied = applied;
+        }
+
+        int first() {
+            return at[0];
+        }
+
+        int last() {
+            return at[count - 1];
+        }
+
+        void insert(int position) {
+            if (count == at.length) {
+                at = Arrays.copyOf(at, count << 1);
+            }
+            // Appends are the common case and need no search
+            int slot = count == 0 || at[count - 1] < position
+                    ? count
+                    : -Arrays.binarySearch(at, 0, count, position) - 1;
+            System.arraycopy(at, slot, at, slot + 1, count - slot);
+            at[slot] = position;
+            count++;
+        }
+
+        void delete(int position) {
+            int slot = at[count - 1] == position ? count - 1 : Arrays.binarySearch(at, 0, count, position);
+            System.arraycopy(at, slot + 1, at, slot, count - slot - 1);
+            count--;
+        }
+
+        void shift(int from, int by) {
+            int slot = Arrays.binarySearch(at, 0, count, from);
+            for (int i = slot < 0 ? -slot - 1 : slot; i < count; i++) {
+                at[i] += by;
+            }
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package sitecore.sherpa.collections;
+
+import java.util.Arrays;
+
+/**
+ * A map from {@code int} keys to {@code int} values that stores both in plain
+ * arrays.
+ * 
+ * {@code HashMap<Integer, Integer>} boxes every key and value and allocates a
+ * node per entry. This map uses open addressing with linear probing instead:
+ * an entry is just a slot in a key array and the matching slot in a value
+ * array, so an entry costs 8 bytes divided by the load factor. Removal shifts
+ * the following entries back instead of leaving tombstones, so lookups stay
+ * fast after many removals.
+ * 
+ * Because there is no {@code null} to signal a missing entry, lookups of a
+ * missing key return a configurable "no entry" value (0 by default). Use
+ * {@link #containsKey(int)} when that value is also a valid one.
+ * 
+ * This class is not thread-safe.
+ */
+public class IntIntOpenHashMap {
+    // Slots holding FREE are empty; the key FREE itself is stored on the side
+    private static final int FREE = 0;
+
+    private final float loadFactor;
+    private final int noEntryValue;
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int resizeAt;
+    private int size;
+    private boolean hasFreeKey;
+    private int freeKeyValue;
+
+    /**
+     * Functional interface receiving the entries of the map.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        /**
+         * Receives one entry.
+         * 
+         * @param key   the key of the entry
+         * @param value the value of the entry
+         */
+        void accept(int key, int value);
+    }
+
+    /**
+     * Creates an empty map that returns 0 for missing keys.
+     */
+    public IntIntOpenHashMap() {
+        this(16, OpenHashing.DEFAULT_LOAD_FACTOR, 0);
+    }
+
+    /**
+     * Creates an empty map sized to hold {@code expectedSize} entries without
+     * resizing.
+     * 
+     * @param expectedSize the number of entries the map should hold
+     * @param loadFactor   the highest ratio of used slots, between 0 and 1
+     * @param noEntryValue the value returned for missing keys
+     */
+    public IntIntOpenHashMap(int expectedSize, float loadFactor, int noEntryValue) {
+        this.loadFactor = loadFactor;
+        this.noEntryValue = noEntryValue;
+        allocate(OpenHashing.capacityFor(expectedSize, loadFactor));
+    }
+
+    /**
+     * Associates a value with a key, replacing any previous value.
+     * 
+     * @param key   the key
+     * @param value the value
+     * @return the previous value of the key, or the "no entry" value
+     */
+    public int put(int key, int value) {
+        if (key == FREE) {
+            int previous = hasFreeKey ? freeKeyValue : noEntryValue;
+            if (!hasFreeKey) {
+                hasFreeKey = true;
+                size++;
+            }
+            freeKeyValue = value;
+            return previous;
+        }
+        int slot = OpenHashing.mix(key) & mask;
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                int previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size >= resizeAt) {
+            OpenHashing.checkCanGrow(keys.length);
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeAt) {
+            rehash(OpenHashing.nextCapacity(keys.length));
+        }
+        return noEntryValue;
+    }
+
+    /**
+     * Returns the value of a key.
+     * 
+     * @param key the key
+     * @return the value of the key, or the "no entry" value
+     */
+    public int get(int key) {
+        return getOrDefault(key, noEntryValue);
+    }
+
+    /**
+     * Returns the value of a key, or a default value if the key is missing.
+     * 
+     * @param key          the key
+     * @param defaultValue the value to return for a missing key
+     * @return the value of the key, or the default value
+     */
+    public int getOrDefault(int key, int defaultValue) {
+        if (key == FREE) {
+            return hasFreeKey ? freeKeyValue : defaultValue;
+        }
+        int slot = OpenHashing.mix(key) & mask;
+        int current;
+        while ((current = keys[slot]) != FREE) {
+            if (current == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Checks whether a key is in the map.
+     * 
+     * @param key the key
+     * @return {@code true} if the map holds the key
+     */
+    public boolean containsKey(int key) {
+        if (key == FREE) {
+            return hasFreeKey;
+        }
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * Removes a key from the map.
+     * 
+     * @param key the key
+     * @return the value the key had, or the "no entry" value
+     */
+    public int remove(int key) {
+        if (key == FREE) {
+            if (!hasFreeKey) {
+                return noEntryValue;
+            }
+            hasFreeKey = false;
+            size--;
+            return freeKeyValue;
+        }
+        int slot = indexOf(key);
+        if (slot < 0) {
+            return noEntryValue;
+        }
+        int previous = values[slot];
+        shiftBack(slot);
+        size--;
+        return previous;
+    }
+
+    /**
+     * Returns the number of entries.
+     * 
+     * @return the number of entries of the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the map has no entries.
+     * 
+     * @return {@code true} if the map is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every entry, keeping the capacity of the map.
+     */
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        hasFreeKey = false;
+        size = 0;
+    }
+
+    /**
+     * Passes every entry to the consumer, in no particular order.
+     * 
+     * @param consumer the receiver of the entries
+     */
+    public void forEach(EntryConsumer consumer) {
+        if (hasFreeKey) {
+            consumer.accept(FREE, freeKeyValue);
+        }
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != FREE) {
+                consumer.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    private int indexOf(int key) {
+        int slot = OpenHashing.mix(key) & mask;
+        int current;
+        while ((current = keys[slot]) != FREE) {
+            if (current == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Backward shift deletion: move later entries of the same cluster into the
+    // hole when their home slot allows it, so that no tombstone is needed
+    private void shiftBack(int hole) {
+        int slot = hole;
+        while (true) {
+            slot = (slot + 1) & mask;
+            int key = keys[slot];
+            if (key == FREE) {
+                break;
+            }
+            int home = OpenHashing.mix(key) & mask;
+            // The entry may move only if its home is not between the hole and it
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                keys[hole] = key;
+                values[hole] = values[slot];
+                hole = slot;
+            }
+        }
+        keys[hole] = FREE;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            int key = oldKeys[i];
+            if (key != FREE) {
+                int slot = OpenHashing.mix(key) & mask;
+                while (keys[slot] != FREE) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        resizeAt = OpenHashing.resizeThreshold(capacity, loadFactor);
+    }
+}
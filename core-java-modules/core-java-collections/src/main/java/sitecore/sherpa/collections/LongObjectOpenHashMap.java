@@ -0,0 +1,290 @@
+package sitecore.sherpa.collections;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A map from {@code long} keys to object values, using open addressing with
+ * linear probing.
+ * 
+ * Keys are stored unboxed in a {@code long[]} and values in a parallel
+ * {@code Object[]}, so an entry costs two array slots instead of a
+ * {@code HashMap} node plus a boxed {@code Long}. Values may be {@code null}:
+ * as with {@code HashMap}, {@link #get(long)} then returns {@code null} for
+ * both a missing key and a {@code null} value, and {@link #containsKey(long)}
+ * tells them apart.
+ * 
+ * This class is not thread-safe.
+ * 
+ * @param <V> the type of the values
+ */
+public class LongObjectOpenHashMap<V> {
+    // Slots holding FREE are empty; the key FREE itself is stored on the side
+    private static final long FREE = 0L;
+
+    private final float loadFactor;
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int resizeAt;
+    private int size;
+    private boolean hasFreeKey;
+    private V freeKeyValue;
+
+    /**
+     * Functional interface receiving the entries of the map.
+     * 
+     * @param <V> the type of the values
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        /**
+         * Receives one entry.
+         * 
+         * @param key   the key of the entry
+         * @param value the value of the entry
+         */
+        void accept(long key, V value);
+    }
+
+    /**
+     * Creates an empty map.
+     */
+    public LongObjectOpenHashMap() {
+        this(16, OpenHashing.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Creates an empty map sized to hold {@code expectedSize} entries without
+     * resizing.
+     * 
+     * @param expectedSize the number of entries the map should hold
+     * @param loadFactor   the highest ratio of used slots, between 0 and 1
+     */
+    public LongObjectOpenHashMap(int expectedSize, float loadFactor) {
+        this.loadFactor = loadFactor;
+        allocate(OpenHashing.capacityFor(expectedSize, loadFactor));
+    }
+
+    /**
+     * Associates a value with a key, replacing any previous value.
+     * 
+     * @param key   the key
+     * @param value the value, may be {@code null}
+     * @return the previous value of the key, or {@code null}
+     */
+    public V put(long key, V value) {
+        if (key == FREE) {
+            V previous = freeKeyValue;
+            if (!hasFreeKey) {
+                hasFreeKey = true;
+                size++;
+            }
+            freeKeyValue = value;
+            return previous;
+        }
+        int slot = OpenHashing.mix(key) & mask;
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                V previous = valueAt(slot);
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size >= resizeAt) {
+            OpenHashing.checkCanGrow(keys.length);
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeAt) {
+            rehash(OpenHashing.nextCapacity(keys.length));
+        }
+        return null;
+    }
+
+    /**
+     * Returns the value of a key.
+     * 
+     * @param key the key
+     * @return the value of the key, or {@code null} if it is missing
+     */
+    public V get(long key) {
+        return getOrDefault(key, null);
+    }
+
+    /**
+     * Returns the value of a key, or a default value if the key is missing.
+     * 
+     * @param key          the key
+     * @param defaultValue the value to return for a missing key
+     * @return the value of the key, or the default value
+     */
+    public V getOrDefault(long key, V defaultValue) {
+        if (key == FREE) {
+            return hasFreeKey ? freeKeyValue : defaultValue;
+        }
+        int slot = indexOf(key);
+        return slot < 0 ? defaultValue : valueAt(slot);
+    }
+
+    /**
+     * Checks whether a key is in the map.
+     * 
+     * @param key the key
+     * @return {@code true} if the map holds the key
+     */
+    public boolean containsKey(long key) {
+        return key == FREE ? hasFreeKey : indexOf(key) >= 0;
+    }
+
+    /**
+     * Checks whether any key has the specified value. This scans every slot.
+     * 
+     * @param value the value, may be {@code null}
+     * @return {@code true} if at least one key has the value
+     */
+    public boolean containsValue(Object value) {
+        if (hasFreeKey && Objects.equals(freeKeyValue, value)) {
+            return true;
+        }
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != FREE && Objects.equals(values[slot], value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes a key from the map.
+     * 
+     * @param key the key
+     * @return the value the key had, or {@code null}
+     */
+    public V remove(long key) {
+        if (key == FREE) {
+            V previous = freeKeyValue;
+            if (hasFreeKey) {
+                hasFreeKey = false;
+                freeKeyValue = null;
+                size--;
+            }
+            return previous;
+        }
+        int slot = indexOf(key);
+        if (slot < 0) {
+            return null;
+        }
+        V previous = valueAt(slot);
+        shiftBack(slot);
+        size--;
+        return previous;
+    }
+
+    /**
+     * Returns the number of entries.
+     * 
+     * @return the number of entries of the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the map has no entries.
+     * 
+     * @return {@code true} if the map is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every entry, keeping the capacity of the map.
+     */
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        Arrays.fill(values, null);
+        hasFreeKey = false;
+        freeKeyValue = null;
+        size = 0;
+    }
+
+    /**
+     * Passes every entry to the consumer, in no particular order.
+     * 
+     * @param consumer the receiver of the entries
+     */
+    public void forEach(EntryConsumer<? super V> consumer) {
+        if (hasFreeKey) {
+            consumer.accept(FREE, freeKeyValue);
+        }
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != FREE) {
+                consumer.accept(keys[slot], valueAt(slot));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int slot) {
+        return (V) values[slot];
+    }
+
+    private int indexOf(long key) {
+        int slot = OpenHashing.mix(key) & mask;
+        long current;
+        while ((current = keys[slot]) != FREE) {
+            if (current == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Backward shift deletion, see IntIntOpenHashMap
+    private void shiftBack(int hole) {
+        int slot = hole;
+        while (true) {
+            slot = (slot + 1) & mask;
+            long key = keys[slot];
+            if (key == FREE) {
+                break;
+            }
+            int home = OpenHashing.mix(key) & mask;
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                keys[hole] = key;
+                values[hole] = values[slot];
+                hole = slot;
+            }
+        }
+        keys[hole] = FREE;
+        values[hole] = null;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != FREE) {
+                int slot = OpenHashing.mix(key) & mask;
+                while (keys[slot] != FREE) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeAt = OpenHashing.resizeThreshold(capacity, loadFactor);
+    }
+}
@@ -0,0 +1,48 @@
+package sitecore.sherpa.collections;
+
+public class OpenHashMapExamples {
+    public static void main(String[] args) {
+        StringObjectOpenHashMap<String> map = new StringObjectOpenHashMap<>();
+
+        map.put("1", "1");
+        map.put("2", "2");
+        map.put("3", "3");
+        map.put("4", null); // Null value
+        map.put(null, "5"); // Null key
+
+        String value = map.get("3");
+        System.out.println("Key: 3, Value: " + value);
+
+        value = map.getOrDefault("5", "Default Value");
+        System.out.println("Key: 5, Value: " + value);
+
+        boolean keyExists = map.containsKey(null);
+        boolean valueExists = map.containsValue("5");
+        System.out.println("keyExists: " + keyExists + ", valueExists: " + valueExists);
+
+        System.out.println("Map Size: " + map.size());
+
+        StringObjectOpenHashMap<String> map1 = new StringObjectOpenHashMap<>();
+        map1.putAll(map);
+        System.out.println("Map1 mappings: " + map1);
+
+        String nullKeyValue = map1.remove(null);
+        System.out.println("Map1 null key value: " + nullKeyValue);
+        System.out.println("Map1 after removing null key: " + map1);
+
+        map.clear();
+        System.out.println("Map is empty: " + map.isEmpty());
+
+        // Primitive keys and values, without boxing
+        IntIntOpenHashMap counts = new IntIntOpenHashMap();
+        for (int number : new int[] { 3, 1, 3, 0, 3, 1 }) {
+            counts.put(number, counts.getOrDefault(number, 0) + 1);
+        }
+        counts.forEach((key, count) -> System.out.println("Number: " + key + ", Count: " + count));
+
+        LongObjectOpenHashMap<String> users = new LongObjectOpenHashMap<>();
+        users.put(10_000_000_001L, "Alice");
+        users.put(10_000_000_002L, "Bob");
+        System.out.println("User 10000000002: " + users.get(10_000_000_002L));
+    }
+}
@@ -0,0 +1,78 @@
+package sitecore.sherpa.collections;
+
+/**
+ * Helpers shared by the open addressing maps.
+ */
+final class OpenHashing {
+    static final float DEFAULT_LOAD_FACTOR = 0.75f;
+    static final int MIN_CAPACITY = 4;
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private OpenHashing() {
+    }
+
+    /**
+     * Spreads the bits of a hash, so that keys that only differ in their high
+     * bits (such as sequential ids shifted left) do not end up in the same
+     * cluster of slots.
+     */
+    static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    static int mix(long hash) {
+        return mix((int) (hash ^ (hash >>> 32)));
+    }
+
+    /**
+     * Returns the power of two table size that holds {@code expectedSize} keys
+     * without exceeding the load factor.
+     */
+    static int capacityFor(int expectedSize, float loadFactor) {
+        if (loadFactor <= 0 || loadFactor >= 1 || Float.isNaN(loadFactor)) {
+            throw new IllegalArgumentException("Illegal load factor: " + loadFactor);
+        }
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Illegal expected size: " + expectedSize);
+        }
+        long needed = (long) Math.ceil(expectedSize / (double) loadFactor);
+        if (needed > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Expected size too large: " + expectedSize);
+        }
+        int capacity = MIN_CAPACITY;
+        while (capacity < needed) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Checks that a table of {@code capacity} slots can still grow. The maps
+     * call this before writing a key that will make them grow, so that a full
+     * map is left unchanged instead of holding a key it cannot make room for.
+     * 
+     * @throws IllegalStateException if the table already has the largest
+     *                               capacity
+     */
+    static void checkCanGrow(int capacity) {
+        if (capacity >= MAX_CAPACITY) {
+            throw new IllegalStateException("Map is full");
+        }
+    }
+
+    /**
+     * Returns the table size that follows {@code capacity} when the map grows.
+     * 
+     * @throws IllegalStateException if the table already has the largest
+     *                               capacity
+     */
+    static int nextCapacity(int capacity) {
+        checkCanGrow(capacity);
+        return capacity << 1;
+    }
+
+    static int resizeThreshold(int capacity, float loadFactor) {
+        return Math.min(capacity - 1, (int) (capacity * loadFactor));
+    }
+}
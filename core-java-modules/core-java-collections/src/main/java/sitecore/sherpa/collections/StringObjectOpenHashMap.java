@@ -0,0 +1,304 @@
+package sitecore.sherpa.collections;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * A map from {@code String} keys to object values, using open addressing with
+ * linear probing.
+ * 
+ * Keys and values are stored in two parallel arrays, so an entry costs two
+ * array slots instead of a {@code HashMap} node. Like {@code HashMap} (see
+ * {@link HashMapExamples}), the map accepts a {@code null} key, which is kept
+ * outside of the arrays, and {@code null} values, which {@link #containsKey}
+ * tells apart from missing keys.
+ * 
+ * This class is not thread-safe.
+ * 
+ * @param <V> the type of the values
+ */
+public class StringObjectOpenHashMap<V> {
+    private final float loadFactor;
+    // A null slot is empty; the null key itself is stored on the side
+    private String[] keys;
+    private Object[] values;
+    private int mask;
+    private int resizeAt;
+    private int size;
+    private boolean hasNullKey;
+    private V nullKeyValue;
+
+    /**
+     * Creates an empty map.
+     */
+    public StringObjectOpenHashMap() {
+        this(16, OpenHashing.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Creates an empty map sized to hold {@code expectedSize} entries without
+     * resizing.
+     * 
+     * @param expectedSize the number of entries the map should hold
+     * @param loadFactor   the highest ratio of used slots, between 0 and 1
+     */
+    public StringObjectOpenHashMap(int expectedSize, float loadFactor) {
+        this.loadFactor = loadFactor;
+        allocate(OpenHashing.capacityFor(expectedSize, loadFactor));
+    }
+
+    /**
+     * Associates a value with a key, replacing any previous value.
+     * 
+     * @param key   the key, may be {@code null}
+     * @param value the value, may be {@code null}
+     * @return the previous value of the key, or {@code null}
+     */
+    public V put(String key, V value) {
+        if (key == null) {
+            V previous = nullKeyValue;
+            if (!hasNullKey) {
+                hasNullKey = true;
+                size++;
+            }
+            nullKeyValue = value;
+            return previous;
+        }
+        int slot = OpenHashing.mix(key.hashCode()) & mask;
+        String current;
+        while ((current = keys[slot]) != null) {
+            if (current == key || current.equals(key)) {
+                V previous = valueAt(slot);
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size >= resizeAt) {
+            OpenHashing.checkCanGrow(keys.length);
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeAt) {
+            rehash(OpenHashing.nextCapacity(keys.length));
+        }
+        return null;
+    }
+
+    /**
+     * Copies every entry of another map into this one.
+     * 
+     * @param other the map whose entries should be copied
+     */
+    public void putAll(StringObjectOpenHashMap<? extends V> other) {
+        other.forEach(this::put);
+    }
+
+    /**
+     * Copies every entry of a {@code java.util.Map} into this one.
+     * 
+     * @param other the map whose entries should be copied
+     */
+    public void putAll(Map<String, ? extends V> other) {
+        other.forEach(this::put);
+    }
+
+    /**
+     * Returns the value of a key.
+     * 
+     * @param key the key, may be {@code null}
+     * @return the value of the key, or {@code null} if it is missing
+     */
+    public V get(String key) {
+        return getOrDefault(key, null);
+    }
+
+    /**
+     * Returns the value of a key, or a default value if the key is missing.
+     * 
+     * @param key          the key, may be {@code null}
+     * @param defaultValue the value to return for a missing key
+     * @return the value of the key, or the default value
+     */
+    public V getOrDefault(String key, V defaultValue) {
+        if (key == null) {
+            return hasNullKey ? nullKeyValue : defaultValue;
+        }
+        int slot = indexOf(key);
+        return slot < 0 ? defaultValue : valueAt(slot);
+    }
+
+    /**
+     * Checks whether a key is in the map.
+     * 
+     * @param key the key, may be {@code null}
+     * @return {@code true} if the map holds the key
+     */
+    public boolean containsKey(String key) {
+        return key == null ? hasNullKey : indexOf(key) >= 0;
+    }
+
+    /**
+     * Checks whether any key has the specified value. This scans every slot.
+     * 
+     * @param value the value, may be {@code null}
+     * @return {@code true} if at least one key has the value
+     */
+    public boolean containsValue(Object value) {
+        if (hasNullKey && Objects.equals(nullKeyValue, value)) {
+            return true;
+        }
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != null && Objects.equals(values[slot], value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes a key from the map.
+     * 
+     * @param key the key, may be {@code null}
+     * @return the value the key had, or {@code null}
+     */
+    public V remove(String key) {
+        if (key == null) {
+            V previous = nullKeyValue;
+            if (hasNullKey) {
+                hasNullKey = false;
+                nullKeyValue = null;
+                size--;
+            }
+            return previous;
+        }
+        int slot = indexOf(key);
+        if (slot < 0) {
+            return null;
+        }
+        V previous = valueAt(slot);
+        shiftBack(slot);
+        size--;
+        return previous;
+    }
+
+    /**
+     * Returns the number of entries.
+     * 
+     * @return the number of entries of the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the map has no entries.
+     * 
+     * @return {@code true} if the map is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every entry, keeping the capacity of the map.
+     */
+    public void clear() {
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        hasNullKey = false;
+        nullKeyValue = null;
+        size = 0;
+    }
+
+    /**
+     * Passes every entry to the consumer, in no particular order.
+     * 
+     * @param consumer the receiver of the entries
+     */
+    public void forEach(BiConsumer<? super String, ? super V> consumer) {
+        if (hasNullKey) {
+            consumer.accept(null, nullKeyValue);
+        }
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != null) {
+                consumer.accept(keys[slot], valueAt(slot));
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        forEach((key, value) -> {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(key).append('=').append(value);
+        });
+        return builder.append('}').toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int slot) {
+        return (V) values[slot];
+    }
+
+    private int indexOf(String key) {
+        int slot = OpenHashing.mix(key.hashCode()) & mask;
+        String current;
+        while ((current = keys[slot]) != null) {
+            if (current == key || current.equals(key)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Backward shift deletion, see IntIntOpenHashMap
+    private void shiftBack(int hole) {
+        int slot = hole;
+        while (true) {
+            slot = (slot + 1) & mask;
+            String key = keys[slot];
+            if (key == null) {
+                break;
+            }
+            int home = OpenHashing.mix(key.hashCode()) & mask;
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                keys[hole] = key;
+                values[hole] = values[slot];
+                hole = slot;
+            }
+        }
+        keys[hole] = null;
+        values[hole] = null;
+    }
+
+    private void rehash(int capacity) {
+        String[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            String key = oldKeys[i];
+            if (key != null) {
+                int slot = OpenHashing.mix(key.hashCode()) & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new String[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeAt = OpenHashing.resizeThreshold(capacity, loadFactor);
+    }
+}
@@ -0,0 +1,597 @@
+package sitecore.sherpa.collections;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * A thread-safe map that splits its entries over a fixed number of segments,
+ * each a plain {@code HashMap} guarded by its own lock.
+ * 
+ * {@code Collections.synchronizedMap} serializes every access on one lock, so
+ * threads sharing the map wait for each other even when they touch different
+ * keys. Here a key only locks the segment it hashes to, and lookups take the
+ * read side of that lock, so readers never wait for each other and writers
+ * only wait for operations on the same segment.
+ * 
+ * Like {@code ConcurrentHashMap}, the map rejects {@code null} keys and
+ * values, because {@code null} is how {@link #get(Object)} and the atomic
+ * {@code ConcurrentMap} methods report a missing key. The views and their
+ * iterators are weakly consistent: they reflect the map at some point at or
+ * since their creation and never throw
+ * {@code ConcurrentModificationException}.
+ * 
+ * The bulk operations {@link #forEach(long, BiConsumer)} and
+ * {@link #reduce(long, BiFunction, BiFunction)} copy each segment under its
+ * read lock and run the callbacks on the copy, so a slow callback never holds
+ * a lock.
+ * 
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public class StripedHashMap<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V> {
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+    private static final int MAX_SEGMENTS = 1 << 16;
+
+    private final Segment<K, V>[] segments;
+    private final int segmentShift;
+    private EntrySet entrySet;
+
+    /**
+     * Creates an empty map with 16 segments.
+     */
+    public StripedHashMap() {
+        this(16, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Creates an empty map.
+     * 
+     * @param initialCapacity  the number of entries the map should hold
+     *                         without resizing
+     * @param concurrencyLevel the expected number of threads updating the map
+     *                         at once, rounded up to a power of two segments
+     */
+    public StripedHashMap(int initialCapacity, int concurrencyLevel) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal initial capacity: " + initialCapacity);
+        }
+        if (concurrencyLevel <= 0) {
+            throw new IllegalArgumentException("Illegal concurrency level: " + concurrencyLevel);
+        }
+        int count = 1;
+        int bits = 0;
+        while (count < Math.min(concurrencyLevel, MAX_SEGMENTS)) {
+            count <<= 1;
+            bits++;
+        }
+        segments = newSegments(count);
+        segmentShift = 32 - bits;
+        int perSegment = Math.max(1, (initialCapacity + count - 1) / count);
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(perSegment);
+        }
+    }
+
+    /**
+     * Creates a map holding the same entries as another map.
+     * 
+     * @param map the map whose entries should be copied
+     */
+    public StripedHashMap(Map<? extends K, ? extends V> map) {
+        this(map.size(), DEFAULT_CONCURRENCY_LEVEL);
+        // Not through the overridable putAll, which could see a subclass
+        // before its own constructor has run
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            putInSegment(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public V get(Object key) {
+        Segment<K, V> segment = segmentFor(key);
+        long stamp = segment.lock.readLock();
+        try {
+            return segment.map.get(key);
+        } finally {
+            segment.lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        V value = get(key);
+        return value == null ? defaultValue : value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Checks whether any key has the specified value. This scans every
+     * segment, locking one at a time.
+     * 
+     * @param value the value
+     * @return {@code true} if at least one key has the value
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        Objects.requireNonNull(value);
+        for (Segment<K, V> segment : segments) {
+            long stamp = segment.lock.readLock();
+            try {
+                if (segment.map.containsValue(value)) {
+                    return true;
+                }
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return putInSegment(key, value);
+    }
+
+    /**
+     * Copies every entry of another map into this one. Each entry is put
+     * separately, so other threads may see some entries before the others.
+     * 
+     * @param map the map whose entries should be copied
+     */
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        map.forEach(this::put);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        Objects.requireNonNull(value);
+        Segment<K, V> segment = segmentFor(key);
+        long stamp = segment.lock.writeLock();
+        try {
+            return segment.map.putIfAbsent(key, value);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public V remove(Object key) {
+        Segment<K, V> segment = segmentFor(key);
+        long stamp = segment.lock.writeLock();
+        try {
+            return segment.map.remove(key);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        if (value == null) {
+            return false;
+        }
+        Segment<K, V> segment = segmentFor(key);
+        long stamp = segment.lock.writeLock();
+        try {
+            return segment.map.remove(key, value);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public V replace(K key, V value) {
+        Objects.requireNonNull(value);
+        Segment<K, V> segment = segmentFor(key);
+        long stamp = segment.lock.writeLock();
+        try {
+            return segment.map.replace(key, value);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        Objects.requireNonNull(oldValue);
+        Objects.requireNonNull(newValue);
+        Segment<K, V> segment = segmentFor(key);
+        long stamp = segment.lock.writeLock();
+        try {
+            return segment.map.replace(key, oldValue, newValue);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the value of a key, computing and storing it first if the key is
+     * missing. The function runs without any lock held, so it may read or
+     * update this map. When threads race on the same missing key, each may
+     * run the function, but only the first result is stored and returned.
+     * 
+     * @param key             the key
+     * @param mappingFunction the function computing a missing value
+     * @return the current value of the key, or {@code null} if the function
+     *         returned {@code null}
+     */
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        V computed = mappingFunction.apply(key);
+        if (computed == null) {
+            return null;
+        }
+        V current = putIfAbsent(key, computed);
+        return current != null ? current : computed;
+    }
+
+    /**
+     * Replaces the value of a present key with a computed one. The function
+     * runs without any lock held, so it may read or update this map. If the
+     * value changes while the function runs, the function runs again with the
+     * new value.
+     * 
+     * @param key               the key
+     * @param remappingFunction the function computing the new value, or
+     *                          {@code null} to remove the key
+     * @return the new value of the key, or {@code null} if there is none
+     */
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        while (true) {
+            V value = get(key);
+            if (value == null) {
+                return null;
+            }
+            V computed = remappingFunction.apply(key, value);
+            if (replaceIfUnchanged(key, value, computed)) {
+                return computed;
+            }
+        }
+    }
+
+    /**
+     * Computes the value of a key from its current value. The function runs
+     * without any lock held, so it may read or update this map. If the value
+     * changes while the function runs, the function runs again with the new
+     * value.
+     * 
+     * @param key               the key
+     * @param remappingFunction the function computing the new value, or
+     *                          {@code null} to remove the key
+     * @return the new value of the key, or {@code null} if there is none
+     */
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        while (true) {
+            V value = get(key);
+            V computed = remappingFunction.apply(key, value);
+            if (replaceIfUnchanged(key, value, computed)) {
+                return computed;
+            }
+        }
+    }
+
+    /**
+     * Stores a value for a missing key, or merges it with the current one. The
+     * function runs without any lock held, so it may read or update this map.
+     * If the value changes while the function runs, the function runs again
+     * with the new value.
+     * 
+     * @param key               the key
+     * @param value             the value to store or merge
+     * @param remappingFunction the function merging the current and the new
+     *                          value, or returning {@code null} to remove the
+     *                          key
+     * @return the new value of the key, or {@code null} if there is none
+     */
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(value);
+        Objects.requireNonNull(remappingFunction);
+        while (true) {
+            V current = get(key);
+            V merged = current == null ? value : remappingFunction.apply(current, value);
+            if (replaceIfUnchanged(key, current, merged)) {
+                return merged;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of entries. The segments are counted one at a time,
+     * so under concurrent updates the result is only an estimate.
+     * 
+     * @return the number of entries of the map
+     */
+    @Override
+    public int size() {
+        long size = 0;
+        for (Segment<K, V> segment : segments) {
+            long stamp = segment.lock.readLock();
+            try {
+                size += segment.map.size();
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (Segment<K, V> segment : segments) {
+            long stamp = segment.lock.readLock();
+            try {
+                if (!segment.map.isEmpty()) {
+                    return false;
+                }
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes every entry. The segments are cleared one at a time, so entries
+     * put concurrently may survive.
+     */
+    @Override
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            long stamp = segment.lock.writeLock();
+            try {
+                segment.map.clear();
+            } finally {
+                segment.lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        forEach(Long.MAX_VALUE, action);
+    }
+
+    /**
+     * Passes every entry to the action, in parallel when the map holds at
+     * least {@code parallelismThreshold} entries. No lock is held while the
+     * action runs.
+     * 
+     * @param parallelismThreshold the number of entries from which the
+     *                             segments are processed in parallel
+     * @param action               the receiver of the entries
+     */
+    public void forEach(long parallelismThreshold, BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        segmentIndexes(parallelismThreshold).forEach(i -> {
+            for (Map.Entry<K, V> entry : segments[i].snapshot()) {
+                action.accept(entry.getKey(), entry.getValue());
+            }
+        });
+    }
+
+    /**
+     * Transforms every entry and combines the non-{@code null} results, in
+     * parallel when the map holds at least {@code parallelismThreshold}
+     * entries. No lock is held while the functions run.
+     * 
+     * @param <U>                  the type of the result
+     * @param parallelismThreshold the number of entries from which the
+     *                             segments are processed in parallel
+     * @param transformer          the function transforming an entry, or
+     *                             returning {@code null} to skip it
+     * @param reducer              the associative function combining two
+     *                             results
+     * @return the combined result, or {@code null} if there is none
+     */
+    public <U> U reduce(long parallelismThreshold, BiFunction<? super K, ? super V, ? extends U> transformer,
+                    BiFunction<? super U, ? super U, ? extends U> reducer) {
+        Objects.requireNonNull(transformer);
+        Objects.requireNonNull(reducer);
+        return segmentIndexes(parallelismThreshold)
+                .mapToObj(i -> {
+                    U result = null;
+                    for (Map.Entry<K, V> entry : segments[i].snapshot()) {
+                        U value = transformer.apply(entry.getKey(), entry.getValue());
+                        if (value != null) {
+                            result = result == null ? value : reducer.apply(result, value);
+                        }
+                    }
+                    return result;
+                })
+                .filter(Objects::nonNull)
+                .reduce((left, right) -> reducer.apply(left, right))
+                .orElse(null);
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        EntrySet set = entrySet;
+        return set != null ? set : (entrySet = new EntrySet());
+    }
+
+    private IntStream segmentIndexes(long parallelismThreshold) {
+        IntStream indexes = IntStream.range(0, segments.length);
+        return size() >= parallelismThreshold ? indexes.parallel() : indexes;
+    }
+
+    // Stores a computed value, or removes the key when it is null, unless the
+    // key no longer has the value the computation started from
+    private boolean replaceIfUnchanged(K key, V expected, V computed) {
+        Segment<K, V> segment = segmentFor(key);
+        long stamp = segment.lock.writeLock();
+        try {
+            if (segment.map.get(key) != expected) {
+                return false;
+            }
+            if (computed == null) {
+                segment.map.remove(key);
+            } else {
+                segment.map.put(key, computed);
+            }
+            return true;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Segment<K, V>[] newSegments(int count) {
+        return (Segment<K, V>[]) new Segment<?, ?>[count];
+    }
+
+    private V putInSegment(K key, V value) {
+        Objects.requireNonNull(value);
+        Segment<K, V> segment = segmentFor(key);
+        long stamp = segment.lock.writeLock();
+        try {
+            return segment.map.put(key, value);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    private Segment<K, V> segmentFor(Object key) {
+        // The high bits pick the segment, HashMap uses the low ones for its bins
+        return segments[(OpenHashing.mix(key.hashCode()) >>> segmentShift) & (segments.length - 1)];
+    }
+
+    private static final class Segment<K, V> {
+        final StampedLock lock = new StampedLock();
+        final HashMap<K, V> map;
+
+        Segment(int initialCapacity) {
+            map = new HashMap<>(Math.max(2, (int) (initialCapacity / 0.75f) + 1));
+        }
+
+        List<Map.Entry<K, V>> snapshot() {
+            long stamp = lock.readLock();
+            try {
+                List<Map.Entry<K, V>> entries = new ArrayList<>(map.size());
+                for (Map.Entry<K, V> entry : map.entrySet()) {
+                    entries.add(new AbstractMap.SimpleImmutableEntry<>(entry));
+                }
+                return entries;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry<?, ?> entry) || entry.getKey() == null) {
+                return false;
+            }
+            V value = get(entry.getKey());
+            return value != null && value.equals(entry.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return o instanceof Map.Entry<?, ?> entry && entry.getKey() != null
+                    && StripedHashMap.this.remove(entry.getKey(), entry.getValue());
+        }
+
+        @Override
+        public int size() {
+            return StripedHashMap.this.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return StripedHashMap.this.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            StripedHashMap.this.clear();
+        }
+    }
+
+    /**
+     * Walks a snapshot of one segment at a time. Writing through an entry or
+     * removing through the iterator updates the map.
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+        private int nextSegment;
+        private Iterator<Map.Entry<K, V>> current = List.<Map.Entry<K, V>>of().iterator();
+        private Map.Entry<K, V> last;
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext() && nextSegment < segments.length) {
+                current = segments[nextSegment++].snapshot().iterator();
+            }
+            return current.hasNext();
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<K, V> entry = current.next();
+            last = entry;
+            return new WriteThroughEntry(entry.getKey(), entry.getValue());
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+            StripedHashMap.this.remove(last.getKey());
+            last = null;
+        }
+    }
+
+    private final class WriteThroughEntry extends AbstractMap.SimpleEntry<K, V> {
+        private static final long serialVersionUID = 1L;
+
+        WriteThroughEntry(K key, V value) {
+            super(key, value);
+        }
+
+        @Override
+        public V setValue(V value) {
+            Objects.requireNonNull(value);
+            put(getKey(), value);
+            return super.setValue(value);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package sitecore.sherpa.collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ChunkedListTests {
+
+    @Test
+    @DisplayName("Test that inserts and removes at chunk boundaries match an ArrayList")
+    public void add_whenAtChunkBoundaries_matchesArrayList() {
+        ChunkedList<Integer> list = new ChunkedList<>(0);
+        List<Integer> oracle = new ArrayList<>();
+        int chunk = list.chunkSize();
+        for (int i = 0; i < 3 * chunk; i++) {
+            list.add(i);
+            oracle.add(i);
+        }
+
+        int[] indexes = { 0, chunk - 1, chunk, chunk + 1, 2 * chunk - 1, 2 * chunk, oracle.size() };
+        for (int index : indexes) {
+            list.add(index, -index);
+            oracle.add(index, -index);
+            assertEquals(oracle, list);
+        }
+        for (int index : indexes) {
+            int last = Math.min(index, oracle.size() - 1);
+            assertEquals(oracle.remove(last), list.remove(last));
+            assertEquals(oracle, list);
+        }
+    }
+
+    @Test
+    @DisplayName("Test that removing whole chunks and refilling them matches an ArrayList")
+    public void remove_whenChunksEmpty_matchesArrayList() {
+        ChunkedList<Integer> list = new ChunkedList<>(0);
+        List<Integer> oracle = new ArrayList<>();
+        int chunk = list.chunkSize();
+        for (int i = 0; i < 4 * chunk; i++) {
+            list.add(i);
+            oracle.add(i);
+        }
+
+        list.subList(chunk, 3 * chunk).clear();
+        oracle.subList(chunk, 3 * chunk).clear();
+        assertEquals(oracle, list);
+
+        for (int i = 0; i < 2 * chunk; i++) {
+            list.add(chunk, i);
+            oracle.add(chunk, i);
+        }
+        assertEquals(oracle, list);
+        assertEquals(oracle.indexOf(chunk - 1), list.indexOf(chunk - 1));
+        assertEquals(oracle.lastIndexOf(0), list.lastIndexOf(0));
+    }
+
+    @Test
+    @DisplayName("Test that random edits match an ArrayList")
+    public void add_whenMixedWithRemoves_matchesArrayList() {
+        Random random = new Random(3);
+        ChunkedList<Integer> list = new ChunkedList<>(0);
+        List<Integer> oracle = new ArrayList<>();
+
+        for (int i = 0; i < 5_000; i++) {
+            int operation = random.nextInt(4);
+            if (operation == 0 && !oracle.isEmpty()) {
+                int index = random.nextInt(oracle.size());
+                assertEquals(oracle.remove(index), list.remove(index));
+            } else if (operation == 1 && !oracle.isEmpty()) {
+                int index = random.nextInt(oracle.size());
+                assertEquals(oracle.set(index, i), list.set(index, i));
+            } else {
+                int index = random.nextInt(oracle.size() + 1);
+                oracle.add(index, i);
+                list.add(index, i);
+            }
+        }
+
+        assertEquals(oracle.size(), list.size());
+        assertEquals(oracle, list);
+    }
+
+    @Test
+    @DisplayName("Test that removing through the iterator matches an ArrayList")
+    public void iterator_whenRemovingEveryOther_matchesArrayList() {
+        ChunkedList<Integer> list = new ChunkedList<>(0);
+        List<Integer> oracle = new ArrayList<>();
+        for (int i = 0; i < 5 * list.chunkSize(); i++) {
+            list.add(i);
+            oracle.add(i);
+        }
+
+        Iterator<Integer> iterator = list.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+        oracle.removeIf(i -> i % 2 == 0);
+
+        assertEquals(oracle, list);
+    }
+
+    @Test
+    @DisplayName("Test that indexes outside the list are rejected")
+    public void get_whenIndexOutOfBounds_throwsIndexOutOfBoundsException() {
+        ChunkedList<Integer> list = new ChunkedList<>(0);
+        list.add(1);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.add(2, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.remove(-1));
+    }
+}
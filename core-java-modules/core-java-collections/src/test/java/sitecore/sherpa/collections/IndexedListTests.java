@@ -0,0 +1,112 @@
+package sitecore.sherpa.collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class IndexedListTests {
+
+    @Test
+    @DisplayName("Test that lookups after inserts and removes in the middle find the moved elements")
+    public void indexOf_whenEditedInTheMiddle_findsShiftedPositions() {
+        IndexedList<String> list = new IndexedList<>(List.of("a", "b", "c", "b", "d"));
+        assertEquals(1, list.indexOf("b"));
+
+        list.add(1, "x");
+        assertEquals(List.of("a", "x", "b", "c", "b", "d"), list);
+        assertEquals(2, list.indexOf("b"));
+        assertEquals(4, list.lastIndexOf("b"));
+        assertEquals(1, list.indexOf("x"));
+
+        list.remove(2);
+        assertEquals(3, list.indexOf("b"));
+        assertEquals(4, list.indexOf("d"));
+
+        list.add(0, "b");
+        list.set(4, "c");
+        assertEquals(0, list.indexOf("b"));
+        assertEquals(0, list.lastIndexOf("b"));
+        assertEquals(4, list.lastIndexOf("c"));
+        assertEquals(2, list.frequency("c"));
+        assertEquals(-1, list.indexOf("y"));
+    }
+
+    @Test
+    @DisplayName("Test that removing a range keeps the positions of the following elements")
+    public void removeRange_whenInTheMiddle_shiftsFollowingElements() {
+        IndexedList<Integer> list = new IndexedList<>();
+        for (int i = 0; i < 20; i++) {
+            list.add(i % 5);
+        }
+        assertEquals(19, list.lastIndexOf(4));
+
+        list.subList(3, 12).clear();
+
+        assertEquals(11, list.size());
+        assertEquals(8, list.lastIndexOf(2));
+        assertEquals(4, list.indexOf(3));
+        assertEquals(10, list.lastIndexOf(4));
+        assertEquals(2, list.frequency(0));
+        assertFalse(list.contains(5));
+    }
+
+    @Test
+    @DisplayName("Test that lookups interleaved with random edits match an ArrayList")
+    public void indexOf_whenInterleavedWithRandomEdits_matchesArrayList() {
+        Random random = new Random(9);
+        IndexedList<Integer> list = new IndexedList<>();
+        List<Integer> oracle = new ArrayList<>();
+
+        // Enough edits to go past the pending shift limit several times
+        for (int i = 0; i < 3_000; i++) {
+            int operation = random.nextInt(5);
+            int value = random.nextInt(40);
+            if (operation == 0 && !oracle.isEmpty()) {
+                int index = random.nextInt(oracle.size());
+                assertEquals(oracle.remove(index), list.remove(index));
+            } else if (operation == 1 && !oracle.isEmpty()) {
+                int index = random.nextInt(oracle.size());
+                assertEquals(oracle.set(index, value), list.set(index, value));
+            } else if (operation == 2 && oracle.size() > 10) {
+                int from = random.nextInt(oracle.size() - 5);
+                oracle.subList(from, from + 3).clear();
+                list.subList(from, from + 3).clear();
+            } else {
+                int index = random.nextInt(oracle.size() + 1);
+                oracle.add(index, value);
+                list.add(index, value);
+            }
+            int probe = random.nextInt(40);
+            assertEquals(oracle.indexOf(probe), list.indexOf(probe));
+            assertEquals(oracle.lastIndexOf(probe), list.lastIndexOf(probe));
+            assertEquals(Collections.frequency(oracle, probe), list.frequency(probe));
+        }
+
+        assertEquals(oracle, list);
+    }
+
+    @Test
+    @DisplayName("Test that a cleared list indexes new elements from scratch")
+    public void clear_whenShiftsArePending_startsAFreshIndex() {
+        IndexedList<String> list = new IndexedList<>(List.of("a", "b", "c"));
+        list.add(0, "z");
+        list.remove(1);
+
+        list.clear();
+        list.add("c");
+        list.add(0, "a");
+
+        assertEquals(1, list.indexOf("c"));
+        assertEquals(0, list.indexOf("a"));
+        assertTrue(list.contains("c"));
+        assertFalse(list.contains("z"));
+    }
+}
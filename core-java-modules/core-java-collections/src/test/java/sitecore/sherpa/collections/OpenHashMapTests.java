@@ -0,0 +1,145 @@
+package sitecore.sherpa.collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class OpenHashMapTests {
+    // Maps built for 8 entries at the default load factor have 16 slots
+    private static final int EXPECTED_SIZE = 8;
+    private static final int LAST_SLOT = 15;
+
+    @Test
+    @DisplayName("Test that int keys deleted from a cluster wrapping past the end can be found and reinserted")
+    public void remove_whenClusterWrapsAround_keepsOtherKeysReachable() {
+        List<Integer> keys = intKeysHomedAt(LAST_SLOT, 3);
+        keys.addAll(intKeysHomedAt(0, 2));
+        IntIntOpenHashMap map = new IntIntOpenHashMap(EXPECTED_SIZE, OpenHashing.DEFAULT_LOAD_FACTOR, -1);
+        keys.forEach(key -> map.put(key, key * 10));
+
+        assertEquals(keys.get(0) * 10, map.remove(keys.get(0)));
+        assertEquals(keys.get(3) * 10, map.remove(keys.get(3)));
+
+        for (int i = 0; i < keys.size(); i++) {
+            int key = keys.get(i);
+            assertEquals(i == 0 || i == 3 ? -1 : key * 10, map.get(key));
+        }
+        map.put(keys.get(3), 1);
+        map.put(keys.get(0), 2);
+        assertEquals(keys.size(), map.size());
+        assertEquals(2, map.get(keys.get(0)));
+        assertEquals(1, map.get(keys.get(3)));
+        assertEquals(keys.get(4) * 10, map.get(keys.get(4)));
+    }
+
+    @Test
+    @DisplayName("Test that long keys deleted from a cluster wrapping past the end can be found and reinserted")
+    public void remove_whenLongClusterWrapsAround_keepsOtherKeysReachable() {
+        List<Integer> keys = intKeysHomedAt(LAST_SLOT, 4);
+        LongObjectOpenHashMap<String> map = new LongObjectOpenHashMap<>(EXPECTED_SIZE,
+                OpenHashing.DEFAULT_LOAD_FACTOR);
+        // Small non-negative longs mix like the int of the same value
+        keys.forEach(key -> map.put(key, "v" + key));
+
+        map.remove(keys.get(1));
+
+        assertNull(map.get(keys.get(1)));
+        assertEquals("v" + keys.get(2), map.get(keys.get(2)));
+        assertEquals("v" + keys.get(3), map.get(keys.get(3)));
+        map.put(keys.get(1), "again");
+        assertEquals("again", map.get(keys.get(1)));
+        assertEquals(keys.size(), map.size());
+    }
+
+    @Test
+    @DisplayName("Test that string keys deleted from a cluster wrapping past the end can be found and reinserted")
+    public void remove_whenStringClusterWrapsAround_keepsOtherKeysReachable() {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; keys.size() < 4; i++) {
+            String key = "key" + i;
+            if ((OpenHashing.mix(key.hashCode()) & LAST_SLOT) == LAST_SLOT) {
+                keys.add(key);
+            }
+        }
+        StringObjectOpenHashMap<Integer> map = new StringObjectOpenHashMap<>(EXPECTED_SIZE,
+                OpenHashing.DEFAULT_LOAD_FACTOR);
+        for (int i = 0; i < keys.size(); i++) {
+            map.put(keys.get(i), i);
+        }
+
+        assertEquals(0, map.remove(keys.get(0)));
+
+        assertFalse(map.containsKey(keys.get(0)));
+        for (int i = 1; i < keys.size(); i++) {
+            assertEquals(i, map.get(keys.get(i)));
+        }
+        map.put(keys.get(0), 7);
+        assertEquals(7, map.get(keys.get(0)));
+        assertEquals(keys.size(), map.size());
+    }
+
+    @Test
+    @DisplayName("Test that random puts and removes agree with a HashMap")
+    public void put_whenMixedWithRemoves_matchesHashMap() {
+        Random random = new Random(5);
+        IntIntOpenHashMap map = new IntIntOpenHashMap(4, 0.9f, -1);
+        StringObjectOpenHashMap<Integer> strings = new StringObjectOpenHashMap<>(4, 0.9f);
+        Map<Integer, Integer> oracle = new HashMap<>();
+
+        for (int i = 0; i < 20_000; i++) {
+            // A small key range keeps the table dense and the clusters long
+            int key = random.nextInt(64) - 8;
+            if (random.nextInt(3) == 0) {
+                Integer expected = oracle.remove(key);
+                assertEquals(expected == null ? -1 : expected, map.remove(key));
+                assertEquals(expected, strings.remove(key == 0 ? null : "k" + key));
+            } else {
+                oracle.put(key, i);
+                map.put(key, i);
+                strings.put(key == 0 ? null : "k" + key, i);
+            }
+        }
+
+        assertEquals(oracle.size(), map.size());
+        assertEquals(oracle.size(), strings.size());
+        for (int key = -8; key < 56; key++) {
+            assertEquals(oracle.containsKey(key), map.containsKey(key));
+            assertEquals(oracle.get(key), strings.get(key == 0 ? null : "k" + key));
+        }
+    }
+
+    @Test
+    @DisplayName("Test that growing past the largest capacity fails instead of overflowing")
+    public void nextCapacity_whenAtMaximum_throwsIllegalStateException() {
+        assertEquals(OpenHashing.MAX_CAPACITY, OpenHashing.nextCapacity(OpenHashing.MAX_CAPACITY >> 1));
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> OpenHashing.nextCapacity(OpenHashing.MAX_CAPACITY));
+        assertEquals("Map is full", error.getMessage());
+        assertTrue(OpenHashing.nextCapacity(16) > 16);
+
+        // Checked before the key that would need the growth is written
+        assertThrows(IllegalStateException.class, () -> OpenHashing.checkCanGrow(OpenHashing.MAX_CAPACITY));
+        OpenHashing.checkCanGrow(OpenHashing.MAX_CAPACITY >> 1);
+    }
+
+    private static List<Integer> intKeysHomedAt(int slot, int count) {
+        List<Integer> keys = new ArrayList<>();
+        for (int key = 1; keys.size() < count; key++) {
+            if ((OpenHashing.mix(key) & LAST_SLOT) == slot) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+}
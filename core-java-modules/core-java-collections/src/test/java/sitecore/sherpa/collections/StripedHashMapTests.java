@@ -0,0 +1,106 @@
+package sitecore.sherpa.collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class StripedHashMapTests {
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Test
+    @DisplayName("Test that computing functions can read the map without deadlocking")
+    public void compute_whenFunctionReadsMap_doesNotDeadlock() {
+        // One segment, so every key shares the same lock
+        StripedHashMap<String, Integer> map = new StripedHashMap<>(16, 1);
+        map.put("a", 1);
+
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            assertEquals(2, map.computeIfAbsent("b", k -> map.getOrDefault("a", 0) + 1));
+            assertEquals(4, map.computeIfPresent("b", (k, v) -> v + map.get("b")));
+            assertEquals(5, map.compute("a", (k, v) -> v + map.get("b")));
+            assertEquals(10, map.merge("a", 1, (v, one) -> v + map.get("a")));
+        });
+    }
+
+    @Test
+    @DisplayName("Test that computing functions can update other keys of the map")
+    public void compute_whenFunctionUpdatesMap_storesBothValues() {
+        StripedHashMap<String, Integer> map = new StripedHashMap<>(16, 1);
+
+        assertTimeoutPreemptively(TIMEOUT, () -> map.computeIfAbsent("total", k -> {
+            map.put("parts", 3);
+            return 30;
+        }));
+
+        assertEquals(30, map.get("total"));
+        assertEquals(3, map.get("parts"));
+    }
+
+    @Test
+    @DisplayName("Test that a null result removes the key")
+    public void compute_whenFunctionReturnsNull_removesKey() {
+        StripedHashMap<String, Integer> map = new StripedHashMap<>();
+        map.put("a", 1);
+        map.put("b", 2);
+
+        assertNull(map.compute("a", (k, v) -> null));
+        assertNull(map.computeIfPresent("b", (k, v) -> null));
+        assertNull(map.computeIfAbsent("c", k -> null));
+        assertEquals(4, map.merge("d", 4, (v, w) -> null));
+        assertNull(map.merge("d", 4, (v, w) -> null));
+
+        assertFalse(map.containsKey("a"));
+        assertFalse(map.containsKey("b"));
+        assertFalse(map.containsKey("c"));
+        assertFalse(map.containsKey("d"));
+    }
+
+    @Test
+    @DisplayName("Test that concurrent compute and merge calls lose no update")
+    public void compute_whenCalledConcurrently_appliesEveryUpdate() throws Exception {
+        StripedHashMap<Integer, Integer> map = new StripedHashMap<>(16, 4);
+        int threads = 8;
+        int rounds = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < rounds; i++) {
+                        int key = i % 32;
+                        map.compute(key, (k, v) -> v == null ? 1 : v + 1);
+                        map.merge(-1 - key, 1, Integer::sum);
+                        map.computeIfAbsent(1_000 + key, k -> k);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        int total = 0;
+        int merged = 0;
+        for (int key = 0; key < 32; key++) {
+            total += map.get(key);
+            merged += map.get(-1 - key);
+        }
+        assertEquals(threads * rounds, total);
+        assertEquals(threads * rounds, merged);
+        assertEquals(96, map.size());
+        assertEquals(1_031, map.get(1_031));
+    }
+}
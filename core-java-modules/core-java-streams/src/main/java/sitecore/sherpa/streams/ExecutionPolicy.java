@@ -0,0 +1,316 @@
+package sitecore.sherpa.streams;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Decides whether the helpers of {@link Filtering} and {@link Projection} run
+ * sequentially or in parallel, and on which {@link ForkJoinPool}.
+ * 
+ * Parallel streams only pay off once the work is big enough to amortize the
+ * cost of splitting it and handing it to other threads. The adaptive policy
+ * compares the estimated work of a call (its input size times the relative cost
+ * of its per-element operation) with a threshold calibrated for its pool: for
+ * the common pool by {@link #calibrate()}, or the first time the common
+ * adaptive policy is used, and for any other pool when its policy is created.
+ * Applications should call {@link #calibrate()} at startup, so that no request
+ * pays for the calibration. The calibration can be skipped by setting the
+ * {@value #THRESHOLD_PROPERTY} system property to a non-negative whole number;
+ * any other value is ignored.
+ */
+public final class ExecutionPolicy {
+    /** System property that overrides the calibrated parallel threshold. */
+    public static final String THRESHOLD_PROPERTY = "sitecore.sherpa.streams.parallelThreshold";
+
+    private static final int CALIBRATION_SAMPLE_SIZE = 1 << 16;
+    private static final int CALIBRATION_ROUNDS = 20;
+    private static final long MIN_THRESHOLD = 1_000;
+    private static final long MAX_THRESHOLD = 10_000_000;
+
+    private static final ExecutionPolicy SEQUENTIAL = new ExecutionPolicy(Mode.SEQUENTIAL, null);
+    private static final ExecutionPolicy PARALLEL = new ExecutionPolicy(Mode.PARALLEL, null);
+    private static final ExecutionPolicy ADAPTIVE = new ExecutionPolicy(Mode.ADAPTIVE, null);
+
+    // Weak keys, so that a calibrated pool can still be collected. The lock is
+    // only held to look up or register a calibration, never while it runs.
+    private static final Map<ForkJoinPool, CompletableFuture<Long>> POOL_THRESHOLDS = new WeakHashMap<>();
+
+    /**
+     * The ways a policy can run a stream pipeline.
+     */
+    public enum Mode {
+        /** Always run on the calling thread. */
+        SEQUENTIAL,
+        /** Always run as a parallel stream. */
+        PARALLEL,
+        /** Run as a parallel stream only when the work exceeds the threshold. */
+        ADAPTIVE
+    }
+
+    private final Mode mode;
+    private final ForkJoinPool pool;
+    // Calibrated for the pool of an adaptive policy, 0 for the common pool,
+    // whose threshold is calibrated on first use
+    private final long threshold;
+
+    private ExecutionPolicy(Mode mode, ForkJoinPool pool) {
+        this(mode, pool, 0);
+    }
+
+    private ExecutionPolicy(Mode mode, ForkJoinPool pool, long threshold) {
+        this.mode = mode;
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Returns a policy that always runs on the calling thread.
+     * 
+     * @return the sequential policy
+     */
+    public static ExecutionPolicy sequential() {
+        return SEQUENTIAL;
+    }
+
+    /**
+     * Returns a policy that always runs as a parallel stream on the common pool.
+     * 
+     * @return the parallel policy
+     */
+    public static ExecutionPolicy parallel() {
+        return PARALLEL;
+    }
+
+    /**
+     * Returns a policy that always runs as a parallel stream on the specified
+     * pool.
+     * 
+     * @param pool the pool that runs the parallel streams
+     * @return a parallel policy bound to the pool
+     */
+    public static ExecutionPolicy parallel(ForkJoinPool pool) {
+        return new ExecutionPolicy(Mode.PARALLEL, pool);
+    }
+
+    /**
+     * Returns a policy that runs in parallel on the common pool only when the
+     * work is big enough.
+     * 
+     * @return the adaptive policy
+     */
+    public static ExecutionPolicy adaptive() {
+        return ADAPTIVE;
+    }
+
+    /**
+     * Returns a policy that runs in parallel on the specified pool only when the
+     * work is big enough. The threshold is calibrated against the pool itself
+     * the first time a policy is created for it, so the policy should be created
+     * at startup and reused.
+     * 
+     * @param pool the pool that runs the parallel streams
+     * @return an adaptive policy bound to the pool
+     */
+    public static ExecutionPolicy adaptive(ForkJoinPool pool) {
+        if (pool == ForkJoinPool.commonPool()) {
+            return ADAPTIVE;
+        }
+        CompletableFuture<Long> threshold;
+        boolean calibrating = false;
+        synchronized (POOL_THRESHOLDS) {
+            threshold = POOL_THRESHOLDS.get(pool);
+            if (threshold == null) {
+                threshold = new CompletableFuture<>();
+                POOL_THRESHOLDS.put(pool, threshold);
+                calibrating = true;
+            }
+        }
+        if (calibrating) {
+            try {
+                threshold.complete(measureThreshold(pool));
+            } catch (RuntimeException | Error e) {
+                // Let a later call try again, for instance once the pool accepts tasks
+                synchronized (POOL_THRESHOLDS) {
+                    POOL_THRESHOLDS.remove(pool, threshold);
+                }
+                threshold.completeExceptionally(e);
+                throw e;
+            }
+        }
+        // Other callers for the same pool wait here, outside the lock; a pool
+        // worker that waits lets the pool compensate with a spare thread
+        return new ExecutionPolicy(Mode.ADAPTIVE, pool, threshold.join());
+    }
+
+    /**
+     * Calibrates the parallel threshold of the common pool, if it has not been
+     * yet. Calling this at startup keeps the calibration, a few dozen
+     * milliseconds of work, out of the first adaptive call.
+     * 
+     * @return the parallel threshold of the common pool
+     */
+    public static long calibrate() {
+        return Calibration.THRESHOLD;
+    }
+
+    /**
+     * Returns the mode of the policy.
+     * 
+     * @return the mode of the policy
+     */
+    public Mode mode() {
+        return mode;
+    }
+
+    /**
+     * Returns the amount of work, in units of the cheapest per-element
+     * operation, above which the adaptive policy goes parallel on the common
+     * pool, if it had unlimited parallelism.
+     * 
+     * @return the calibrated (or configured) parallel threshold
+     */
+    public static long parallelThreshold() {
+        return Calibration.THRESHOLD;
+    }
+
+    /**
+     * Returns the amount of work above which this policy goes parallel on its
+     * pool, if it had unlimited parallelism.
+     * 
+     * @return the calibrated (or configured) threshold of the policy's pool
+     */
+    public long threshold() {
+        return threshold != 0 ? threshold : parallelThreshold();
+    }
+
+    /**
+     * Decides whether a pipeline over {@code size} elements, whose per-element
+     * operation is {@code cost} times as expensive as the cheapest one, should
+     * run in parallel.
+     * 
+     * @param size the number of elements of the input
+     * @param cost the relative cost of processing one element, at least 1
+     * @return {@code true} if the pipeline should run in parallel
+     */
+    public boolean isParallel(int size, int cost) {
+        return switch (mode) {
+            case SEQUENTIAL -> false;
+            case PARALLEL -> true;
+            case ADAPTIVE -> {
+                int parallelism = pool().getParallelism();
+                // With p threads, going parallel saves (1 - 1/p) of the work,
+                // which has to outweigh the fixed cost of forking
+                yield parallelism > 1
+                        && (double) size * cost * (parallelism - 1) / parallelism > threshold();
+            }
+        };
+    }
+
+    /**
+     * Runs a stream pipeline over the source, sequentially or in parallel
+     * according to the policy.
+     * 
+     * @param <T>      the type of the source elements
+     * @param <R>      the type of the result
+     * @param source   the elements to stream
+     * @param cost     the relative cost of processing one element, at least 1
+     * @param pipeline the operations to apply to the stream
+     * @return the result of the pipeline
+     */
+    public <T, R> R apply(Collection<T> source, int cost, Function<Stream<T>, R> pipeline) {
+        if (!isParallel(source.size(), cost)) {
+            return pipeline.apply(source.stream());
+        }
+        if (pool == null || pool == ForkJoinPool.commonPool()) {
+            return pipeline.apply(source.parallelStream());
+        }
+        // A parallel stream forks its tasks into the pool of the thread that
+        // runs its terminal operation
+        return pool.submit(() -> pipeline.apply(source.parallelStream())).join();
+    }
+
+    private ForkJoinPool pool() {
+        return pool == null ? ForkJoinPool.commonPool() : pool;
+    }
+
+    @Override
+    public String toString() {
+        return pool == null ? mode.name() : mode + "[" + pool.getParallelism() + " threads]";
+    }
+
+    // Measures how many of the cheapest per-element operations cost as much as
+    // forking a parallel stream on the pool. This lives in the outer class on
+    // purpose: the lambdas of a parallel stream run on pool threads, and if
+    // they belonged to the class being initialized those threads would wait on
+    // its initializer.
+    private static long measureThreshold(ForkJoinPool pool) {
+        long configured = configuredThreshold();
+        if (configured >= 0) {
+            return configured;
+        }
+
+        List<Integer> sample = new ArrayList<>(CALIBRATION_SAMPLE_SIZE);
+        for (int i = 0; i < CALIBRATION_SAMPLE_SIZE; i++) {
+            sample.add(i);
+        }
+        List<Integer> tiny = sample.subList(0, 2 * pool.getParallelism());
+        boolean common = pool == ForkJoinPool.commonPool();
+
+        // Keep the fastest round of each, which is the least disturbed by the
+        // JIT and the garbage collector
+        long sequential = Long.MAX_VALUE;
+        long forking = Long.MAX_VALUE;
+        for (int round = 0; round < CALIBRATION_ROUNDS; round++) {
+            long start = System.nanoTime();
+            evens(sample.stream());
+            sequential = Math.min(sequential, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            if (common) {
+                evens(tiny.parallelStream());
+            } else {
+                // Includes the hand-off to the pool that apply() pays too
+                pool.submit(() -> evens(tiny.parallelStream())).join();
+            }
+            forking = Math.min(forking, System.nanoTime() - start);
+        }
+
+        double perElement = Math.max(sequential, 1) / (double) CALIBRATION_SAMPLE_SIZE;
+        long threshold = (long) (forking / perElement);
+        return Math.max(MIN_THRESHOLD, Math.min(MAX_THRESHOLD, threshold));
+    }
+
+    // Returns the threshold set by the system property, or -1 if it is unset or
+    // not a non-negative whole number. This also runs in the initializer of
+    // Calibration, which must not throw: a failed initializer would leave every
+    // later call with a NoClassDefFoundError.
+    private static long configuredThreshold() {
+        String configured = System.getProperty(THRESHOLD_PROPERTY);
+        if (configured == null) {
+            return -1;
+        }
+        try {
+            return Math.max(-1, Long.parseLong(configured.trim()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static List<Integer> evens(Stream<Integer> numbers) {
+        return numbers.filter(n -> n % 2 == 0).collect(Collectors.toList());
+    }
+
+    // Loaded the first time the threshold is needed, so that the calibration
+    // only runs in applications that actually use the adaptive policy
+    private static final class Calibration {
+        static final long THRESHOLD = measureThreshold(ForkJoinPool.commonPool());
+    }
+}
@@ -1,9 +1,64 @@
 package sitecore.sherpa.streams;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import sitecore.sherpa.streams.bitmap.FilterIndex;
+import sitecore.sherpa.streams.bitmap.PositionBitmap;
+import sitecore.sherpa.streams.helpers.IntList;
+import sitecore.sherpa.streams.index.PrefixIndex;
+import sitecore.sherpa.streams.index.SuffixIndex;
+import sitecore.sherpa.streams.intern.StringPool;
+import sitecore.sherpa.streams.matching.AhoCorasickMatcher;
+import sitecore.sherpa.streams.matching.CompiledFilter;
+import sitecore.sherpa.streams.metrics.HelperMetrics;
+import sitecore.sherpa.streams.metrics.MethodMetrics;
+import sitecore.sherpa.streams.simd.IntColumnFilters;
+
+/**
+ * Filters lists and arrays of numbers and strings.
+ * 
+ * The overloads that take a caller-provided sink, such as a reused list or
+ * array, run sequentially, without a stream or an intermediate list, so a
+ * reused sink makes repeated calls allocation-free. The exceptions are the
+ * overloads that compile their substrings on every call, and
+ * {@code filterByAllSubStrings}, whose matcher allocates a small bit set for
+ * every string it checks.
+ */
 public class Filtering {
+    // Relative per-element cost of each kind of predicate, used by adaptive
+    // execution policies to estimate when going parallel pays off
+    private static final int PARITY_COST = 1;
+    private static final int AFFIX_COST = 2;
+    private static final int SUBSTRING_COST = 8;
+    private static final int SCAN_COST = 8;
+
+    // Cache key of a filter in a FilterIndex. Predicates such as method
+    // references are new objects on every call, so they cannot be the key.
+    private record FilterKey(String kind, Object pattern) {
+    }
+
+    // Call metrics of the list and array helpers, recorded while
+    // HelperMetrics is enabled
+    private static final MethodMetrics GET_EVEN_METRICS = HelperMetrics.forMethod("Filtering.getEven");
+    private static final MethodMetrics GET_ODD_METRICS = HelperMetrics.forMethod("Filtering.getOdd");
+    private static final MethodMetrics RANGE_METRICS = HelperMetrics.forMethod("Filtering.filterByRange");
+    private static final MethodMetrics FIRST_LETTER_METRICS =
+            HelperMetrics.forMethod("Filtering.filterByFirstLetter");
+    private static final MethodMetrics LAST_LETTER_METRICS =
+            HelperMetrics.forMethod("Filtering.filterByLastLetter");
+    private static final MethodMetrics SUBSTRING_METRICS =
+            HelperMetrics.forMethod("Filtering.filterBySubstring");
+    private static final MethodMetrics VALUE_METRICS = HelperMetrics.forMethod("Filtering.filterByValue");
+    private static final MethodMetrics ANY_SUBSTRING_METRICS =
+            HelperMetrics.forMethod("Filtering.filterByAnySubString");
+    private static final MethodMetrics ALL_SUBSTRINGS_METRICS =
+            HelperMetrics.forMethod("Filtering.filterByAllSubStrings");
 
     /**
      * Filters the input list of integers and returns a new list containing only
@@ -13,9 +68,49 @@ public class Filtering {
      * @return a new list containing only the even numbers from the input list
      */
     public static List<Integer> getEven(List<Integer> numbers) {
-        return numbers.stream()
+        return getEven(numbers, ExecutionPolicy.sequential());
+    }
+
+    /**
+     * Filters the input list of integers and returns a new list containing only
+     * even numbers. The pipeline runs sequentially or in parallel according to
+     * the policy.
+     * 
+     * @param numbers the list of integers to be filtered
+     * @param policy  the policy that decides how the pipeline runs
+     * @return a new list containing only the even numbers from the input list
+     */
+    public static List<Integer> getEven(List<Integer> numbers, ExecutionPolicy policy) {
+        long start = HelperMetrics.start();
+        List<Integer> result = policy.apply(numbers, PARITY_COST, stream -> stream
                 .filter(n -> n % 2 == 0)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+        GET_EVEN_METRICS.record(start, numbers.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Filters the input list of integers and appends the even numbers to a
+     * caller-provided sink, such as a reused list.
+     * 
+     * @param numbers the list of integers to be filtered
+     * @param sink    the list that the even numbers are appended to
+     * @return the number of even numbers appended to the sink
+     */
+    public static int getEven(List<Integer> numbers, List<? super Integer> sink) {
+        return filterInto(numbers, n -> n % 2 == 0, sink, GET_EVEN_METRICS);
+    }
+
+    /**
+     * Finds the positions of the even numbers of an index, as a bitmap that can
+     * be combined with other filters before it is materialized. The index is
+     * scanned once; later calls reuse its cached bitmap.
+     * 
+     * @param numbers the index of integers to be filtered
+     * @return the positions of the even numbers
+     */
+    public static PositionBitmap getEven(FilterIndex<Integer> numbers) {
+        return numbers.matching(new FilterKey("even", null), n -> n % 2 == 0);
     }
 
     /**
@@ -26,9 +121,225 @@ public class Filtering {
      * @return a new list containing only the odd numbers from the input list
      */
     public static List<Integer> getOdd(List<Integer> numbers) {
-        return numbers.stream()
+        return getOdd(numbers, ExecutionPolicy.sequential());
+    }
+
+    /**
+     * Filters the input list of integers and returns a new list containing only odd
+     * numbers. The pipeline runs sequentially or in parallel according to the
+     * policy.
+     * 
+     * @param numbers the list of integers to be filtered
+     * @param policy  the policy that decides how the pipeline runs
+     * @return a new list containing only the odd numbers from the input list
+     */
+    public static List<Integer> getOdd(List<Integer> numbers, ExecutionPolicy policy) {
+        long start = HelperMetrics.start();
+        List<Integer> result = policy.apply(numbers, PARITY_COST, stream -> stream
                 .filter(n -> n % 2 != 0)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+        GET_ODD_METRICS.record(start, numbers.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Filters the input list of integers and appends the odd numbers to a
+     * caller-provided sink, such as a reused list.
+     * 
+     * @param numbers the list of integers to be filtered
+     * @param sink    the list that the odd numbers are appended to
+     * @return the number of odd numbers appended to the sink
+     */
+    public static int getOdd(List<Integer> numbers, List<? super Integer> sink) {
+        return filterInto(numbers, n -> n % 2 != 0, sink, GET_ODD_METRICS);
+    }
+
+    /**
+     * Finds the positions of the odd numbers of an index, as a bitmap that can
+     * be combined with other filters before it is materialized. The index is
+     * scanned once; later calls reuse its cached bitmap.
+     * 
+     * @param numbers the index of integers to be filtered
+     * @return the positions of the odd numbers
+     */
+    public static PositionBitmap getOdd(FilterIndex<Integer> numbers) {
+        return numbers.matching(new FilterKey("odd", null), n -> n % 2 != 0);
+    }
+
+    /**
+     * Filters the input array of integers and returns a new list containing only
+     * even numbers, without boxing any of them. The array is scanned with SIMD
+     * instructions when the JVM allows it (see {@link IntColumnFilters}).
+     * 
+     * @param numbers the array of integers to be filtered
+     * @return a new list containing only the even numbers from the input array
+     */
+    public static IntList getEven(int[] numbers) {
+        return filterByParity(numbers, 0);
+    }
+
+    /**
+     * Filters the input array of integers and writes the even numbers to the
+     * start of a caller-provided array, without boxing or allocating. The
+     * array is scanned with SIMD instructions when the JVM allows it, in which
+     * case elements after the returned count may be overwritten.
+     * 
+     * @param numbers the array of integers to be filtered
+     * @param out     the array that the even numbers are written to, at least
+     *                as long as the input
+     * @return the number of even numbers written to the array
+     * @throws IndexOutOfBoundsException if the array is shorter than the input
+     */
+    public static int getEven(int[] numbers, int[] out) {
+        return filterByParity(numbers, 0, out);
+    }
+
+    /**
+     * Filters the input array of integers and appends the even numbers to a
+     * caller-provided list, such as a reused one, without boxing any of them.
+     * 
+     * @param numbers the array of integers to be filtered
+     * @param sink    the list that the even numbers are appended to
+     * @return the number of even numbers appended to the list
+     */
+    public static int getEven(int[] numbers, IntList sink) {
+        return filterByParity(numbers, 0, sink);
+    }
+
+    /**
+     * Filters the input stream of integers and returns a new list containing only
+     * even numbers, without boxing any of them.
+     * 
+     * @param numbers the stream of integers to be filtered
+     * @return a new list containing only the even numbers from the input stream
+     */
+    public static IntList getEven(IntStream numbers) {
+        return numbers.filter(n -> n % 2 == 0)
+                .collect(IntList::new, IntList::add, IntList::addAll);
+    }
+
+    /**
+     * Filters the input stream of integers and appends the even numbers to a
+     * caller-provided list, such as a reused one, without boxing any of them.
+     * A parallel stream is appended in encounter order.
+     * 
+     * @param numbers the stream of integers to be filtered
+     * @param sink    the list that the even numbers are appended to
+     * @return the number of even numbers appended to the list
+     */
+    public static int getEven(IntStream numbers, IntList sink) {
+        int before = sink.size();
+        numbers.filter(n -> n % 2 == 0).forEachOrdered(sink::add);
+        return sink.size() - before;
+    }
+
+    /**
+     * Filters the input array of integers and returns a new list containing only
+     * odd numbers, without boxing any of them. The array is scanned with SIMD
+     * instructions when the JVM allows it (see {@link IntColumnFilters}).
+     * 
+     * @param numbers the array of integers to be filtered
+     * @return a new list containing only the odd numbers from the input array
+     */
+    public static IntList getOdd(int[] numbers) {
+        return filterByParity(numbers, 1);
+    }
+
+    /**
+     * Filters the input array of integers and writes the odd numbers to the
+     * start of a caller-provided array, without boxing or allocating. The
+     * array is scanned with SIMD instructions when the JVM allows it, in which
+     * case elements after the returned count may be overwritten.
+     * 
+     * @param numbers the array of integers to be filtered
+     * @param out     the array that the odd numbers are written to, at least
+     *                as long as the input
+     * @return the number of odd numbers written to the array
+     * @throws IndexOutOfBoundsException if the array is shorter than the input
+     */
+    public static int getOdd(int[] numbers, int[] out) {
+        return filterByParity(numbers, 1, out);
+    }
+
+    /**
+     * Filters the input array of integers and appends the odd numbers to a
+     * caller-provided list, such as a reused one, without boxing any of them.
+     * 
+     * @param numbers the array of integers to be filtered
+     * @param sink    the list that the odd numbers are appended to
+     * @return the number of odd numbers appended to the list
+     */
+    public static int getOdd(int[] numbers, IntList sink) {
+        return filterByParity(numbers, 1, sink);
+    }
+
+    /**
+     * Filters the input stream of integers and returns a new list containing only
+     * odd numbers, without boxing any of them.
+     * 
+     * @param numbers the stream of integers to be filtered
+     * @return a new list containing only the odd numbers from the input stream
+     */
+    public static IntList getOdd(IntStream numbers) {
+        return numbers.filter(n -> n % 2 != 0)
+                .collect(IntList::new, IntList::add, IntList::addAll);
+    }
+
+    /**
+     * Filters the input stream of integers and appends the odd numbers to a
+     * caller-provided list, such as a reused one, without boxing any of them.
+     * A parallel stream is appended in encounter order.
+     * 
+     * @param numbers the stream of integers to be filtered
+     * @param sink    the list that the odd numbers are appended to
+     * @return the number of odd numbers appended to the list
+     */
+    public static int getOdd(IntStream numbers, IntList sink) {
+        int before = sink.size();
+        numbers.filter(n -> n % 2 != 0).forEachOrdered(sink::add);
+        return sink.size() - before;
+    }
+
+    /**
+     * Filters the input array of integers and returns a new list containing only
+     * the numbers within a range, such as the ages of a column. The array is
+     * scanned with SIMD instructions when the JVM allows it (see
+     * {@link IntColumnFilters}).
+     * 
+     * @param numbers the array of integers to be filtered
+     * @param min     the lowest accepted number, inclusive
+     * @param max     the highest accepted number, inclusive
+     * @return a new list containing only the numbers from the input array that
+     *         lie within the range
+     */
+    public static IntList filterByRange(int[] numbers, int min, int max) {
+        long start = HelperMetrics.start();
+        int[] result = new int[IntColumnFilters.countInRange(numbers, min, max)];
+        int count = IntColumnFilters.inRange(numbers, min, max, result);
+        RANGE_METRICS.record(start, numbers.length, count);
+        return IntList.wrap(result, count);
+    }
+
+    /**
+     * Filters the input array of integers and writes the numbers within a range
+     * to the start of a caller-provided array, without boxing or allocating. The
+     * array is scanned with SIMD instructions when the JVM allows it, in which
+     * case elements after the returned count may be overwritten.
+     * 
+     * @param numbers the array of integers to be filtered
+     * @param min     the lowest accepted number, inclusive
+     * @param max     the highest accepted number, inclusive
+     * @param out     the array that the numbers are written to, at least as
+     *                long as the input
+     * @return the number of numbers written to the array
+     * @throws IndexOutOfBoundsException if the array is shorter than the input
+     */
+    public static int filterByRange(int[] numbers, int min, int max, int[] out) {
+        Objects.checkFromIndexSize(0, numbers.length, out.length);
+        long start = HelperMetrics.start();
+        int count = IntColumnFilters.inRange(numbers, min, max, out);
+        RANGE_METRICS.record(start, numbers.length, count);
+        return count;
     }
 
     /**
@@ -41,9 +352,71 @@ public class Filtering {
      *         with the specified letter
      */
     public static List<String> filterByFirstLetter(List<String> strings, String letter) {
-        return strings.stream()
-                .filter(s -> s.startsWith(letter))
-                .collect(Collectors.toList());
+        return filterByFirstLetter(strings, letter, ExecutionPolicy.sequential());
+    }
+
+    /**
+     * Filters the input list of strings and returns a new list containing only
+     * strings that start with a specified letter. The pipeline runs sequentially
+     * or in parallel according to the policy.
+     * 
+     * @param strings the list of strings to be filtered
+     * @param letter  the letter that each string should start with
+     * @param policy  the policy that decides how the pipeline runs
+     * @return a new list containing only the strings from the input list that start
+     *         with the specified letter
+     */
+    public static List<String> filterByFirstLetter(List<String> strings, String letter,
+            ExecutionPolicy policy) {
+        long start = HelperMetrics.start();
+        List<String> result = policy.apply(strings, AFFIX_COST, stream -> stream
+                .filter(CompiledFilter.startsWith(letter))
+                .collect(Collectors.toList()));
+        FIRST_LETTER_METRICS.record(start, strings.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Filters the input list of strings and appends the strings that start with
+     * the specified letter to a caller-provided sink, such as a reused list.
+     * 
+     * @param strings the list of strings to be filtered
+     * @param letter  the letter that each string should start with
+     * @param sink    the list that the matching strings are appended to
+     * @return the number of strings appended to the sink
+     */
+    public static int filterByFirstLetter(List<String> strings, String letter, List<? super String> sink) {
+        return filterInto(strings, CompiledFilter.startsWith(letter), sink, FIRST_LETTER_METRICS);
+    }
+
+    /**
+     * Finds the positions of the strings of an index that start with a specified
+     * letter, as a bitmap that can be combined with other filters before it is
+     * materialized.
+     * The index is scanned once per pattern; later calls reuse its cached
+     * bitmap.
+     * 
+     * @param strings the index of strings to be filtered
+     * @param letter  the letter that each string should start with
+     * @return the positions of the strings that start with the specified letter
+     */
+    public static PositionBitmap filterByFirstLetter(FilterIndex<String> strings, String letter) {
+        return strings.matching(new FilterKey("startsWith", letter), CompiledFilter.startsWith(letter));
+    }
+
+    /**
+     * Filters an indexed list of strings and returns a new list containing only
+     * strings that start with a specified letter, or any longer prefix. The
+     * matches are found by binary search in the index instead of a scan, and
+     * those of a single letter come back in list order without a sort.
+     * 
+     * @param strings the prefix index of the strings to be filtered
+     * @param letter  the letter that each string should start with
+     * @return a new list containing only the strings that start with the
+     *         specified letter, in the order of the indexed list
+     */
+    public static List<String> filterByFirstLetter(PrefixIndex strings, String letter) {
+        return strings.filterByPrefix(letter);
     }
 
     /**
@@ -56,9 +429,71 @@ public class Filtering {
      *         with the specified letter
      */
     public static List<String> filterByLastLetter(List<String> strings, String letter) {
-        return strings.stream()
-                .filter(s -> s.endsWith(letter))
-                .collect(Collectors.toList());
+        return filterByLastLetter(strings, letter, ExecutionPolicy.sequential());
+    }
+
+    /**
+     * Filters the input list of strings and returns a new list containing only
+     * strings that end with the specified letter. The pipeline runs sequentially
+     * or in parallel according to the policy.
+     * 
+     * @param strings the list of strings to be filtered
+     * @param letter  the letter of each string should end with
+     * @param policy  the policy that decides how the pipeline runs
+     * @return a new list containing only the strings from the input list that end
+     *         with the specified letter
+     */
+    public static List<String> filterByLastLetter(List<String> strings, String letter,
+            ExecutionPolicy policy) {
+        long start = HelperMetrics.start();
+        List<String> result = policy.apply(strings, AFFIX_COST, stream -> stream
+                .filter(CompiledFilter.endsWith(letter))
+                .collect(Collectors.toList()));
+        LAST_LETTER_METRICS.record(start, strings.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Filters the input list of strings and appends the strings that end with
+     * the specified letter to a caller-provided sink, such as a reused list.
+     * 
+     * @param strings the list of strings to be filtered
+     * @param letter  the letter of each string should end with
+     * @param sink    the list that the matching strings are appended to
+     * @return the number of strings appended to the sink
+     */
+    public static int filterByLastLetter(List<String> strings, String letter, List<? super String> sink) {
+        return filterInto(strings, CompiledFilter.endsWith(letter), sink, LAST_LETTER_METRICS);
+    }
+
+    /**
+     * Finds the positions of the strings of an index that end with a specified
+     * letter, as a bitmap that can be combined with other filters before it is
+     * materialized.
+     * The index is scanned once per pattern; later calls reuse its cached
+     * bitmap.
+     * 
+     * @param strings the index of strings to be filtered
+     * @param letter  the letter that each string should end with
+     * @return the positions of the strings that end with the specified letter
+     */
+    public static PositionBitmap filterByLastLetter(FilterIndex<String> strings, String letter) {
+        return strings.matching(new FilterKey("endsWith", letter), CompiledFilter.endsWith(letter));
+    }
+
+    /**
+     * Filters an indexed list of strings and returns a new list containing only
+     * strings that end with a specified letter, or any longer suffix. The
+     * matches are found by binary search in the index instead of a scan, and
+     * those of a single letter come back in list order without a sort.
+     * 
+     * @param strings the suffix index of the strings to be filtered
+     * @param letter  the letter that each string should end with
+     * @return a new list containing only the strings that end with the
+     *         specified letter, in the order of the indexed list
+     */
+    public static List<String> filterByLastLetter(SuffixIndex strings, String letter) {
+        return strings.filterBySuffix(letter);
     }
 
     /**
@@ -71,9 +506,81 @@ public class Filtering {
      *         contain the specified substring
      */
     public static List<String> filterBySubstring(List<String> strings, String substring) {
-        return strings.stream()
-                .filter(s -> s.contains(substring))
-                .collect(Collectors.toList());
+        return filterBySubstring(strings, substring, ExecutionPolicy.sequential());
+    }
+
+    /**
+     * Filters the input list of strings and returns a new list containing only
+     * strings that contain the specified substring. The pipeline runs
+     * sequentially or in parallel according to the policy.
+     * 
+     * @param strings   the list of strings to be filtered
+     * @param substring the substring that each string should contain
+     * @param policy    the policy that decides how the pipeline runs
+     * @return a new list containing only the strings from the input list that
+     *         contain the specified substring
+     */
+    public static List<String> filterBySubstring(List<String> strings, String substring,
+            ExecutionPolicy policy) {
+        long start = HelperMetrics.start();
+        List<String> result = policy.apply(strings, SUBSTRING_COST, stream -> stream
+                .filter(CompiledFilter.contains(substring))
+                .collect(Collectors.toList()));
+        SUBSTRING_METRICS.record(start, strings.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Filters the input list of strings and appends the strings that contain
+     * the specified substring to a caller-provided sink, such as a reused list.
+     * 
+     * @param strings   the list of strings to be filtered
+     * @param substring the substring that each string should contain
+     * @param sink      the list that the matching strings are appended to
+     * @return the number of strings appended to the sink
+     */
+    public static int filterBySubstring(List<String> strings, String substring, List<? super String> sink) {
+        return filterInto(strings, CompiledFilter.contains(substring), sink, SUBSTRING_METRICS);
+    }
+
+    /**
+     * Finds the positions of the strings of an index that contain a specified
+     * substring, as a bitmap that can be combined with other filters before it
+     * is materialized.
+     * The index is scanned once per pattern; later calls reuse its cached
+     * bitmap.
+     * 
+     * @param strings   the index of strings to be filtered
+     * @param substring the substring that each string should contain
+     * @return the positions of the strings that contain the specified substring
+     */
+    public static PositionBitmap filterBySubstring(FilterIndex<String> strings, String substring) {
+        return strings.matching(new FilterKey("contains", substring), CompiledFilter.contains(substring));
+    }
+
+    /**
+     * Filters the input list of strings and returns a new list containing only
+     * strings equal to a value. The value is looked up in the pool the strings
+     * were taken from, without adding it, so that equal pooled strings are
+     * found by reference; other strings are rejected by their cached hash code
+     * before any character is compared. Strings that did not go through the
+     * pool, or a value the pool does not hold, are still matched by
+     * {@code equals}, so a closed or cleared pool gives the same result.
+     * 
+     * @param strings the list of strings to be filtered
+     * @param value   the value that each string should be equal to
+     * @param pool    the pool the strings were interned into
+     * @return a new list containing only the strings from the input list that
+     *         are equal to the value
+     */
+    public static List<String> filterByValue(List<String> strings, String value, StringPool pool) {
+        String pooled = pool.find(value);
+        String target = pooled != null ? pooled : value;
+        int hash = target.hashCode();
+        List<String> result = new ArrayList<>();
+        filterInto(strings, string -> string == target
+                || string != null && string.hashCode() == hash && string.equals(target), result, VALUE_METRICS);
+        return result;
     }
 
     /**
@@ -86,9 +593,109 @@ public class Filtering {
      *         contain any of the specified substrings
      */
     public static List<String> filterByAnySubString(List<String> strings, List<String> substrings) {
-        return strings.stream()
-                .filter(s -> substrings.stream().anyMatch(s::contains))
-                .collect(Collectors.toList());
+        return filterByAnySubString(strings, AhoCorasickMatcher.compile(substrings));
+    }
+
+    /**
+     * Filters the input list of strings and returns a new list containing only
+     * strings that contain any of the specified substrings. The pipeline runs
+     * sequentially or in parallel according to the policy.
+     * 
+     * @param strings    the list of strings to be filtered
+     * @param substrings the substrings that each string should contain any of them
+     * @param policy     the policy that decides how the pipeline runs
+     * @return a new list containing only the strings from the input list that
+     *         contain any of the specified substrings
+     */
+    public static List<String> filterByAnySubString(List<String> strings, List<String> substrings,
+            ExecutionPolicy policy) {
+        return filterByAnySubString(strings, AhoCorasickMatcher.compile(substrings), policy);
+    }
+
+    /**
+     * Filters the input list of strings and appends the strings that contain
+     * any of the specified substrings to a caller-provided sink, such as a
+     * reused list. The substrings are compiled on every call; pass a
+     * precompiled matcher to avoid that.
+     * 
+     * @param strings    the list of strings to be filtered
+     * @param substrings the substrings that each string should contain any of them
+     * @param sink       the list that the matching strings are appended to
+     * @return the number of strings appended to the sink
+     */
+    public static int filterByAnySubString(List<String> strings, List<String> substrings,
+            List<? super String> sink) {
+        return filterByAnySubString(strings, AhoCorasickMatcher.compile(substrings), sink);
+    }
+
+    /**
+     * Filters the input list of strings and returns a new list containing only
+     * strings that contain any of the substrings of a precompiled matcher. Each
+     * string is scanned once, regardless of the number of substrings.
+     * 
+     * @param strings the list of strings to be filtered
+     * @param matcher the compiled substrings that each string should contain any
+     *                of them
+     * @return a new list containing only the strings from the input list that
+     *         contain any of the matcher's substrings
+     */
+    public static List<String> filterByAnySubString(List<String> strings, AhoCorasickMatcher matcher) {
+        return filterByAnySubString(strings, matcher, ExecutionPolicy.sequential());
+    }
+
+    /**
+     * Filters the input list of strings and returns a new list containing only
+     * strings that contain any of the substrings of a precompiled matcher. Each
+     * string is scanned once, regardless of the number of substrings. The
+     * pipeline runs sequentially or in parallel according to the policy.
+     * 
+     * @param strings the list of strings to be filtered
+     * @param matcher the compiled substrings that each string should contain any
+     *                of them
+     * @param policy  the policy that decides how the pipeline runs
+     * @return a new list containing only the strings from the input list that
+     *         contain any of the matcher's substrings
+     */
+    public static List<String> filterByAnySubString(List<String> strings, AhoCorasickMatcher matcher,
+            ExecutionPolicy policy) {
+        long start = HelperMetrics.start();
+        List<String> result = policy.apply(strings, SCAN_COST, stream -> stream
+                .filter(matcher::containsAny)
+                .collect(Collectors.toList()));
+        ANY_SUBSTRING_METRICS.record(start, strings.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Filters the input list of strings and appends the strings that contain
+     * any of the substrings of a precompiled matcher to a caller-provided sink,
+     * such as a reused list.
+     * 
+     * @param strings the list of strings to be filtered
+     * @param matcher the compiled substrings that each string should contain any
+     *                of them
+     * @param sink    the list that the matching strings are appended to
+     * @return the number of strings appended to the sink
+     */
+    public static int filterByAnySubString(List<String> strings, AhoCorasickMatcher matcher,
+            List<? super String> sink) {
+        return filterInto(strings, matcher::containsAny, sink, ANY_SUBSTRING_METRICS);
+    }
+
+    /**
+     * Finds the positions of the strings of an index that contain any of the
+     * substrings of a precompiled matcher, as a bitmap that can be combined with
+     * other filters before it is materialized.
+     * The index is scanned once per pattern; later calls reuse its cached
+     * bitmap.
+     * 
+     * @param strings the index of strings to be filtered
+     * @param matcher the compiled substrings that each string should contain any
+     *                of them
+     * @return the positions of the strings that contain any of the matcher's substrings
+     */
+    public static PositionBitmap filterByAnySubString(FilterIndex<String> strings, AhoCorasickMatcher matcher) {
+        return strings.matching(new FilterKey("containsAny", matcher), matcher::containsAny);
     }
 
     /**
@@ -101,8 +708,174 @@ public class Filtering {
      *          contain all of the specified substrings
      */
     public static List<String> filterByAllSubStrings(List<String> strings, List<String> substrings) {
-        return strings.stream()
-                .filter(s -> substrings.stream().allMatch(s::contains))
-                .collect(Collectors.toList());
+        return filterByAllSubStrings(strings, AhoCorasickMatcher.compile(substrings));
+    }
+
+    /**
+     * Filters the input list of strings and returns a new list containing only
+     * strings that contain all of the specified substrings. The pipeline runs
+     * sequentially or in parallel according to the policy.
+     * 
+     * @param strings    the list of strings to be filtered
+     * @param substrings the substrings that each string should contain all of them
+     * @param policy     the policy that decides how the pipeline runs
+     * @return a new list containing only the strings from the input list that
+     *         contain all of the specified substrings
+     */
+    public static List<String> filterByAllSubStrings(List<String> strings, List<String> substrings,
+            ExecutionPolicy policy) {
+        return filterByAllSubStrings(strings, AhoCorasickMatcher.compile(substrings), policy);
+    }
+
+    /**
+     * Filters the input list of strings and appends the strings that contain
+     * all of the specified substrings to a caller-provided sink, such as a
+     * reused list. The substrings are compiled on every call; pass a
+     * precompiled matcher to avoid that.
+     * 
+     * @param strings    the list of strings to be filtered
+     * @param substrings the substrings that each string should contain all of them
+     * @param sink       the list that the matching strings are appended to
+     * @return the number of strings appended to the sink
+     */
+    public static int filterByAllSubStrings(List<String> strings, List<String> substrings,
+            List<? super String> sink) {
+        return filterByAllSubStrings(strings, AhoCorasickMatcher.compile(substrings), sink);
+    }
+
+    /**
+     * Filters the input list of strings and returns a new list containing only
+     * strings that contain all of the substrings of a precompiled matcher. Each
+     * string is scanned at most once, regardless of the number of substrings.
+     * 
+     * @param strings the list of strings to be filtered
+     * @param matcher the compiled substrings that each string should contain all
+     *                of them
+     * @return a new list containing only the strings from the input list that
+     *         contain all of the matcher's substrings
+     */
+    public static List<String> filterByAllSubStrings(List<String> strings, AhoCorasickMatcher matcher) {
+        return filterByAllSubStrings(strings, matcher, ExecutionPolicy.sequential());
+    }
+
+    /**
+     * Filters the input list of strings and returns a new list containing only
+     * strings that contain all of the substrings of a precompiled matcher. Each
+     * string is scanned at most once, regardless of the number of substrings.
+     * The pipeline runs sequentially or in parallel according to the policy.
+     * 
+     * @param strings the list of strings to be filtered
+     * @param matcher the compiled substrings that each string should contain all
+     *                of them
+     * @param policy  the policy that decides how the pipeline runs
+     * @return a new list containing only the strings from the input list that
+     *         contain all of the matcher's substrings
+     */
+    public static List<String> filterByAllSubStrings(List<String> strings, AhoCorasickMatcher matcher,
+            ExecutionPolicy policy) {
+        long start = HelperMetrics.start();
+        List<String> result = policy.apply(strings, SCAN_COST, stream -> stream
+                .filter(matcher::containsAll)
+                .collect(Collectors.toList()));
+        ALL_SUBSTRINGS_METRICS.record(start, strings.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Filters the input list of strings and appends the strings that contain
+     * all of the substrings of a precompiled matcher to a caller-provided sink,
+     * such as a reused list.
+     * 
+     * @param strings the list of strings to be filtered
+     * @param matcher the compiled substrings that each string should contain all
+     *                of them
+     * @param sink    the list that the matching strings are appended to
+     * @return the number of strings appended to the sink
+     */
+    public static int filterByAllSubStrings(List<String> strings, AhoCorasickMatcher matcher,
+            List<? super String> sink) {
+        return filterInto(strings, matcher::containsAll, sink, ALL_SUBSTRINGS_METRICS);
+    }
+
+    /**
+     * Finds the positions of the strings of an index that contain all of the
+     * substrings of a precompiled matcher, as a bitmap that can be combined with
+     * other filters before it is materialized.
+     * The index is scanned once per pattern; later calls reuse its cached
+     * bitmap.
+     * 
+     * @param strings the index of strings to be filtered
+     * @param matcher the compiled substrings that each string should contain all
+     *                of them
+     * @return the positions of the strings that contain all of the matcher's substrings
+     */
+    public static PositionBitmap filterByAllSubStrings(FilterIndex<String> strings, AhoCorasickMatcher matcher) {
+        return strings.matching(new FilterKey("containsAll", matcher), matcher::containsAll);
+    }
+
+    // Counts the matches first so that the result is allocated exactly once,
+    // with the right size. Both passes are vectorized when the JVM allows it.
+    private static IntList filterByParity(int[] numbers, int parity) {
+        long start = HelperMetrics.start();
+        int count = parity == 0 ? IntColumnFilters.countEven(numbers) : IntColumnFilters.countOdd(numbers);
+        int[] result = new int[count];
+        if (parity == 0) {
+            IntColumnFilters.even(numbers, result);
+        } else {
+            IntColumnFilters.odd(numbers, result);
+        }
+        parityMetrics(parity).record(start, numbers.length, count);
+        return IntList.wrap(result, count);
+    }
+
+    private static int filterByParity(int[] numbers, int parity, int[] out) {
+        Objects.checkFromIndexSize(0, numbers.length, out.length);
+        long start = HelperMetrics.start();
+        int count = parity == 0 ? IntColumnFilters.even(numbers, out) : IntColumnFilters.odd(numbers, out);
+        parityMetrics(parity).record(start, numbers.length, count);
+        return count;
+    }
+
+    private static int filterByParity(int[] numbers, int parity, IntList sink) {
+        long start = HelperMetrics.start();
+        int count = 0;
+        for (int n : numbers) {
+            if ((n & 1) == parity) {
+                sink.add(n);
+                count++;
+            }
+        }
+        parityMetrics(parity).record(start, numbers.length, count);
+        return count;
+    }
+
+    private static MethodMetrics parityMetrics(int parity) {
+        return parity == 0 ? GET_EVEN_METRICS : GET_ODD_METRICS;
+    }
+
+    // Appends the matches without a stream; random access lists are read by
+    // index so that not even an iterator is allocated
+    private static <T> int filterInto(List<T> elements, Predicate<? super T> predicate, List<? super T> sink,
+            MethodMetrics metrics) {
+        long start = HelperMetrics.start();
+        int count = 0;
+        if (elements instanceof RandomAccess) {
+            for (int i = 0, size = elements.size(); i < size; i++) {
+                T element = elements.get(i);
+                if (predicate.test(element)) {
+                    sink.add(element);
+                    count++;
+                }
+            }
+        } else {
+            for (T element : elements) {
+                if (predicate.test(element)) {
+                    sink.add(element);
+                    count++;
+                }
+            }
+        }
+        metrics.record(start, elements.size(), count);
+        return count;
     }
 }
\ No newline at end of file
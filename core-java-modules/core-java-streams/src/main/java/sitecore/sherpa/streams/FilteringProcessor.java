@@ -0,0 +1,184 @@
+package sitecore.sherpa.streams;
+
+import java.util.concurrent.Flow;
+import java.util.function.Predicate;
+
+/**
+ * A {@link Flow.Processor} that forwards only the items matching a predicate,
+ * with back-pressure.
+ * 
+ * The processor never buffers: every item its subscriber requests is requested
+ * from the publisher, and every item that the predicate drops is replaced by a
+ * new request of one item. The number of items in flight therefore never
+ * exceeds the demand of the subscriber, however selective the filter is.
+ * 
+ * A processor can be subscribed to one publisher and have one subscriber.
+ * 
+ * @param <T> the type of the items
+ */
+public class FilteringProcessor<T> implements Flow.Processor<T, T> {
+    private final Predicate<? super T> predicate;
+
+    // Guarded by this, until both ends are connected
+    private Flow.Subscriber<? super T> subscriber;
+    private Flow.Subscription upstream;
+    private long pendingDemand;
+    private boolean cancelled;
+    private Throwable pendingError;
+    private boolean pendingCompletion;
+    private volatile boolean done;
+
+    /**
+     * Creates a processor that forwards the items matching a predicate.
+     * 
+     * @param predicate the condition that the items should match
+     */
+    public FilteringProcessor(Predicate<? super T> predicate) {
+        this.predicate = predicate;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Throwable error;
+        boolean completed;
+        boolean rejected;
+        synchronized (this) {
+            rejected = this.subscriber != null;
+            if (!rejected) {
+                this.subscriber = subscriber;
+            }
+            error = pendingError;
+            completed = pendingCompletion;
+        }
+        if (rejected) {
+            subscriber.onSubscribe(new Rejected());
+            subscriber.onError(new IllegalStateException("The processor already has a subscriber"));
+            return;
+        }
+        subscriber.onSubscribe(new Downstream());
+        // The publisher may have terminated before anybody subscribed
+        if (error != null) {
+            subscriber.onError(error);
+        } else if (completed) {
+            subscriber.onComplete();
+        }
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        long demand;
+        synchronized (this) {
+            if (upstream != null || cancelled) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+            demand = pendingDemand;
+            pendingDemand = 0;
+        }
+        if (demand > 0) {
+            subscription.request(demand);
+        }
+    }
+
+    @Override
+    public void onNext(T item) {
+        if (done) {
+            return;
+        }
+        boolean matches;
+        try {
+            matches = predicate.test(item);
+        } catch (RuntimeException e) {
+            done = true;
+            upstream.cancel();
+            subscriber.onError(e);
+            return;
+        }
+        if (matches) {
+            subscriber.onNext(item);
+        } else {
+            upstream.request(1);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        Flow.Subscriber<? super T> target;
+        synchronized (this) {
+            if (done) {
+                return;
+            }
+            done = true;
+            target = subscriber;
+            if (target == null) {
+                pendingError = throwable;
+                return;
+            }
+        }
+        target.onError(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        Flow.Subscriber<? super T> target;
+        synchronized (this) {
+            if (done) {
+                return;
+            }
+            done = true;
+            target = subscriber;
+            if (target == null) {
+                pendingCompletion = true;
+                return;
+            }
+        }
+        target.onComplete();
+    }
+
+    private final class Downstream implements Flow.Subscription {
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                onError(new IllegalArgumentException("Non-positive request: " + n));
+                return;
+            }
+            Flow.Subscription target;
+            synchronized (FilteringProcessor.this) {
+                if (cancelled) {
+                    return;
+                }
+                target = upstream;
+                if (target == null) {
+                    long sum = pendingDemand + n;
+                    pendingDemand = sum < 0 ? Long.MAX_VALUE : sum;
+                    return;
+                }
+            }
+            target.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            Flow.Subscription target;
+            synchronized (FilteringProcessor.this) {
+                cancelled = true;
+                target = upstream;
+            }
+            if (target != null) {
+                target.cancel();
+            }
+        }
+    }
+
+    private static final class Rejected implements Flow.Subscription {
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    }
+}
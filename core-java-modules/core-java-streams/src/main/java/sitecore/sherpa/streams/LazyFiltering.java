@@ -0,0 +1,257 @@
+package sitecore.sherpa.streams;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import sitecore.sherpa.streams.matching.AhoCorasickMatcher;
+import sitecore.sherpa.streams.matching.CompiledFilter;
+
+/**
+ * Lazy counterparts of the {@link Filtering} helpers.
+ * 
+ * Where {@link Filtering} takes a whole list and returns a whole list, these
+ * helpers take a source that is read on demand and return a result that is
+ * produced on demand, one element at a time. Only the element being filtered is
+ * held in memory, so they work on inputs of any size, including unbounded ones
+ * such as the lines of a multi-GB file ({@code Files.lines}) or a socket.
+ * 
+ * Push based sources are supported through {@link FilteringProcessor}, which
+ * honours the back-pressure of {@link java.util.concurrent.Flow}.
+ */
+public class LazyFiltering {
+
+    /**
+     * Lazily filters the input stream of integers, keeping only even numbers.
+     * 
+     * @param numbers the stream of integers to be filtered
+     * @return a stream of the even numbers of the input
+     */
+    public static Stream<Integer> getEven(Stream<Integer> numbers) {
+        return numbers.filter(n -> n % 2 == 0);
+    }
+
+    /**
+     * Lazily filters the input stream of integers, keeping only odd numbers.
+     * 
+     * @param numbers the stream of integers to be filtered
+     * @return a stream of the odd numbers of the input
+     */
+    public static Stream<Integer> getOdd(Stream<Integer> numbers) {
+        return numbers.filter(n -> n % 2 != 0);
+    }
+
+    /**
+     * Lazily filters the input stream of strings, keeping only strings that start
+     * with the specified letter.
+     * 
+     * @param strings the stream of strings to be filtered
+     * @param letter  the letter that each string should start with
+     * @return a stream of the strings of the input that start with the letter
+     */
+    public static Stream<String> filterByFirstLetter(Stream<String> strings, String letter) {
+        return strings.filter(CompiledFilter.startsWith(letter));
+    }
+
+    /**
+     * Lazily filters the input stream of strings, keeping only strings that end
+     * with the specified letter.
+     * 
+     * @param strings the stream of strings to be filtered
+     * @param letter  the letter that each string should end with
+     * @return a stream of the strings of the input that end with the letter
+     */
+    public static Stream<String> filterByLastLetter(Stream<String> strings, String letter) {
+        return strings.filter(CompiledFilter.endsWith(letter));
+    }
+
+    /**
+     * Lazily filters the input stream of strings, keeping only strings that
+     * contain the specified substring.
+     * 
+     * @param strings   the stream of strings to be filtered
+     * @param substring the substring that each string should contain
+     * @return a stream of the strings of the input that contain the substring
+     */
+    public static Stream<String> filterBySubstring(Stream<String> strings, String substring) {
+        return strings.filter(CompiledFilter.contains(substring));
+    }
+
+    /**
+     * Lazily filters the input stream of strings, keeping only strings that
+     * contain any of the specified substrings.
+     * 
+     * @param strings    the stream of strings to be filtered
+     * @param substrings the substrings that each string should contain any of them
+     * @return a stream of the strings of the input that contain any of the
+     *         substrings
+     */
+    public static Stream<String> filterByAnySubString(Stream<String> strings, List<String> substrings) {
+        return strings.filter(AhoCorasickMatcher.compile(substrings)::containsAny);
+    }
+
+    /**
+     * Lazily filters the input stream of strings, keeping only strings that
+     * contain all of the specified substrings.
+     * 
+     * @param strings    the stream of strings to be filtered
+     * @param substrings the substrings that each string should contain all of them
+     * @return a stream of the strings of the input that contain all of the
+     *         substrings
+     */
+    public static Stream<String> filterByAllSubStrings(Stream<String> strings, List<String> substrings) {
+        return strings.filter(AhoCorasickMatcher.compile(substrings)::containsAll);
+    }
+
+    /**
+     * Lazily filters an iterator. Each call to {@code hasNext} reads the source
+     * only as far as the next matching element.
+     * 
+     * @param <T>       the type of the elements
+     * @param source    the iterator to be filtered
+     * @param predicate the condition that the elements should match
+     * @return an iterator over the matching elements of the source
+     */
+    public static <T> Iterator<T> filter(Iterator<T> source, Predicate<? super T> predicate) {
+        return new FilteringIterator<>(source, predicate);
+    }
+
+    /**
+     * Lazily filters a spliterator. The result can still be split, so it can
+     * back a parallel stream.
+     * 
+     * @param <T>       the type of the elements
+     * @param source    the spliterator to be filtered
+     * @param predicate the condition that the elements should match
+     * @return a spliterator over the matching elements of the source
+     */
+    public static <T> Spliterator<T> filter(Spliterator<T> source, Predicate<? super T> predicate) {
+        return new FilteringSpliterator<>(source, predicate);
+    }
+
+    /**
+     * Wraps an iterator in a sequential stream, so that it can be passed to the
+     * stream based helpers of this class.
+     * 
+     * @param <T>    the type of the elements
+     * @param source the iterator to read
+     * @return a stream over the remaining elements of the iterator
+     */
+    public static <T> Stream<T> stream(Iterator<T> source) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(source, Spliterator.ORDERED), false);
+    }
+
+    /**
+     * Wraps a spliterator in a sequential stream, so that it can be passed to the
+     * stream based helpers of this class.
+     * 
+     * @param <T>    the type of the elements
+     * @param source the spliterator to read
+     * @return a stream over the remaining elements of the spliterator
+     */
+    public static <T> Stream<T> stream(Spliterator<T> source) {
+        return StreamSupport.stream(source, false);
+    }
+
+    private static final class FilteringIterator<T> implements Iterator<T> {
+        private final Iterator<T> source;
+        private final Predicate<? super T> predicate;
+        private T next;
+        private boolean ready;
+
+        private FilteringIterator(Iterator<T> source, Predicate<? super T> predicate) {
+            this.source = source;
+            this.predicate = predicate;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!ready && source.hasNext()) {
+                T candidate = source.next();
+                if (predicate.test(candidate)) {
+                    next = candidate;
+                    ready = true;
+                }
+            }
+            return ready;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T result = next;
+            next = null;
+            ready = false;
+            return result;
+        }
+    }
+
+    private static final class FilteringSpliterator<T> implements Spliterator<T>, Consumer<T> {
+        private final Spliterator<T> source;
+        private final Predicate<? super T> predicate;
+        private T current;
+
+        private FilteringSpliterator(Spliterator<T> source, Predicate<? super T> predicate) {
+            this.source = source;
+            this.predicate = predicate;
+        }
+
+        @Override
+        public void accept(T element) {
+            current = element;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while (source.tryAdvance(this)) {
+                T element = current;
+                current = null;
+                if (predicate.test(element)) {
+                    action.accept(element);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            source.forEachRemaining(element -> {
+                if (predicate.test(element)) {
+                    action.accept(element);
+                }
+            });
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            Spliterator<T> prefix = source.trySplit();
+            return prefix == null ? null : new FilteringSpliterator<>(prefix, predicate);
+        }
+
+        @Override
+        public long estimateSize() {
+            // An upper bound, filtering can only remove elements
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics() & ~(Spliterator.SIZED | Spliterator.SUBSIZED);
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            return source.getComparator();
+        }
+    }
+}
@@ -1,11 +1,35 @@
 package sitecore.sherpa.streams;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
 
+import sitecore.sherpa.streams.helpers.IntList;
 import sitecore.sherpa.streams.helpers.Person;
+import sitecore.sherpa.streams.helpers.PersonTable;
+import sitecore.sherpa.streams.io.MappedPersonStore;
+import sitecore.sherpa.streams.metrics.HelperMetrics;
+import sitecore.sherpa.streams.metrics.MethodMetrics;
 
+/**
+ * Projects the fields of people held in lists, tables and mapped stores.
+ * 
+ * The overloads that take a caller-provided sink, such as a reused list or
+ * array, run sequentially, without a stream, so a reused sink makes repeated
+ * calls allocation-free.
+ */
 public class Projection {
+    // Relative per-element cost of reading a field, used by adaptive execution
+    // policies to estimate when going parallel pays off
+    private static final int FIELD_COST = 1;
+
+    // Call metrics of the list helpers, recorded while HelperMetrics is enabled
+    private static final MethodMetrics GET_IDS_METRICS = HelperMetrics.forMethod("Projection.getIds");
+    private static final MethodMetrics GET_NAMES_METRICS = HelperMetrics.forMethod("Projection.getNames");
+    private static final MethodMetrics GET_AGES_METRICS = HelperMetrics.forMethod("Projection.getAges");
     
     /**
      * Retrieves a list of IDs from a list of Person objects.
@@ -13,9 +37,34 @@ public class Projection {
      * @return a list of IDs as strings
      */
     public static List<String> getIds(List<Person> people) {
-        return people.stream()
+        return getIds(people, ExecutionPolicy.sequential());
+    }
+
+    /**
+     * Retrieves a list of IDs from a list of Person objects, sequentially or in
+     * parallel according to the policy.
+     * @param people a list of Person objects
+     * @param policy the policy that decides how the projection runs
+     * @return a list of IDs as strings
+     */
+    public static List<String> getIds(List<Person> people, ExecutionPolicy policy) {
+        long start = HelperMetrics.start();
+        List<String> result = policy.apply(people, FIELD_COST, stream -> stream
                     .map(Person::getId)
-                    .collect(Collectors.toList());
+                    .collect(Collectors.toList()));
+        GET_IDS_METRICS.record(start, people.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Appends the IDs of a list of Person objects to a caller-provided sink,
+     * such as a reused list.
+     * @param people a list of Person objects
+     * @param sink the list that the IDs are appended to
+     * @return the number of IDs appended to the sink
+     */
+    public static int getIds(List<Person> people, List<? super String> sink) {
+        return projectInto(people, Person::getId, sink, GET_IDS_METRICS);
     }
 
     /**
@@ -24,9 +73,34 @@ public class Projection {
      * @return a list of names as strings
      */
     public static List<String> getNames(List<Person> people) {
-        return people.stream()
+        return getNames(people, ExecutionPolicy.sequential());
+    }
+
+    /**
+     * Retrieves a list of names from a list of Person objects, sequentially or in
+     * parallel according to the policy.
+     * @param people a list of Person objects
+     * @param policy the policy that decides how the projection runs
+     * @return a list of names as strings
+     */
+    public static List<String> getNames(List<Person> people, ExecutionPolicy policy) {
+        long start = HelperMetrics.start();
+        List<String> result = policy.apply(people, FIELD_COST, stream -> stream
                     .map(Person::getName)
-                    .collect(Collectors.toList());
+                    .collect(Collectors.toList()));
+        GET_NAMES_METRICS.record(start, people.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Appends the names of a list of Person objects to a caller-provided sink,
+     * such as a reused list.
+     * @param people a list of Person objects
+     * @param sink the list that the names are appended to
+     * @return the number of names appended to the sink
+     */
+    public static int getNames(List<Person> people, List<? super String> sink) {
+        return projectInto(people, Person::getName, sink, GET_NAMES_METRICS);
     }
 
     /**
@@ -35,9 +109,290 @@ public class Projection {
      * @return a list of ages as integers
      */
     public static List<Integer> getAges(List<Person> people) {
-        return people.stream()
+        return getAges(people, ExecutionPolicy.sequential());
+    }
+
+    /**
+     * Retrieves a list of ages from a list of Person objects, sequentially or in
+     * parallel according to the policy.
+     * @param people a list of Person objects
+     * @param policy the policy that decides how the projection runs
+     * @return a list of ages as integers
+     */
+    public static List<Integer> getAges(List<Person> people, ExecutionPolicy policy) {
+        long start = HelperMetrics.start();
+        List<Integer> result = policy.apply(people, FIELD_COST, stream -> stream
                     .map(Person::getAge)
-                    .collect(Collectors.toList());
+                    .collect(Collectors.toList()));
+        GET_AGES_METRICS.record(start, people.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Appends the ages of a list of Person objects to a caller-provided sink,
+     * such as a reused list.
+     * @param people a list of Person objects
+     * @param sink the list that the ages are appended to
+     * @return the number of ages appended to the sink
+     */
+    public static int getAges(List<Person> people, List<? super Integer> sink) {
+        return projectInto(people, Person::getAge, sink, GET_AGES_METRICS);
+    }
+
+    /**
+     * Writes the ages of a list of Person objects to the start of a
+     * caller-provided array, without boxing them.
+     * @param people a list of Person objects
+     * @param out the array that the ages are written to, at least as long as
+     * the list
+     * @return the number of ages written, which is the size of the list
+     * @throws IndexOutOfBoundsException if the array is shorter than the list
+     */
+    public static int getAges(List<Person> people, int[] out) {
+        Objects.checkFromIndexSize(0, people.size(), out.length);
+        long start = HelperMetrics.start();
+        int count = 0;
+        for (Person person : people) {
+            out[count++] = person.getAge();
+        }
+        GET_AGES_METRICS.record(start, count, count);
+        return count;
+    }
+
+    /**
+     * Appends the ages of a list of Person objects to a caller-provided list,
+     * such as a reused one, without boxing them.
+     * @param people a list of Person objects
+     * @param sink the list that the ages are appended to
+     * @return the number of ages appended to the list
+     */
+    public static int getAges(List<Person> people, IntList sink) {
+        long start = HelperMetrics.start();
+        sink.ensureCapacity(sink.size() + people.size());
+        for (Person person : people) {
+            sink.add(person.getAge());
+        }
+        GET_AGES_METRICS.record(start, people.size(), people.size());
+        return people.size();
+    }
+
+    /**
+     * Retrieves the IDs of a columnar table of people, as a view over the id
+     * column that does not copy it.
+     * @param people a table of people
+     * @return a read-only list of IDs as strings
+     */
+    public static List<String> getIds(PersonTable people) {
+        return people.ids();
+    }
+
+    /**
+     * Retrieves the names of a columnar table of people, as a view over the name
+     * column that does not copy it.
+     * @param people a table of people
+     * @return a read-only list of names as strings
+     */
+    public static List<String> getNames(PersonTable people) {
+        return people.names();
+    }
+
+    /**
+     * Retrieves the ages of a columnar table of people, as a view over the age
+     * column that does not copy it.
+     * @param people a table of people
+     * @return a read-only list of ages as integers
+     */
+    public static List<Integer> getAges(PersonTable people) {
+        return people.ages();
+    }
+
+    /**
+     * Appends the IDs of a columnar table of people to a caller-provided sink,
+     * such as a reused list.
+     * @param people a table of people
+     * @param sink the list that the IDs are appended to
+     * @return the number of IDs appended to the sink
+     */
+    public static int getIds(PersonTable people, List<? super String> sink) {
+        return projectInto(people.size(), people.ids()::get, sink);
+    }
+
+    /**
+     * Appends the names of a columnar table of people to a caller-provided
+     * sink, such as a reused list.
+     * @param people a table of people
+     * @param sink the list that the names are appended to
+     * @return the number of names appended to the sink
+     */
+    public static int getNames(PersonTable people, List<? super String> sink) {
+        return projectInto(people.size(), people.names()::get, sink);
+    }
+
+    /**
+     * Appends the ages of a columnar table of people to a caller-provided sink,
+     * such as a reused list.
+     * @param people a table of people
+     * @param sink the list that the ages are appended to
+     * @return the number of ages appended to the sink
+     */
+    public static int getAges(PersonTable people, List<? super Integer> sink) {
+        return projectInto(people.size(), people::ageAt, sink);
+    }
+
+    /**
+     * Writes the ages of a columnar table of people to the start of a caller-
+     * provided array, without boxing them.
+     * @param people a table of people
+     * @param out the array that the ages are written to, at least as long as
+     * the table
+     * @return the number of ages written, which is the size of the table
+     * @throws IndexOutOfBoundsException if the array is shorter than the table
+     */
+    public static int getAges(PersonTable people, int[] out) {
+        int size = people.size();
+        Objects.checkFromIndexSize(0, size, out.length);
+        for (int i = 0; i < size; i++) {
+            out[i] = people.ageAt(i);
+        }
+        return size;
+    }
+
+    /**
+     * Appends the ages of a columnar table of people to a caller-provided list,
+     * such as a reused one, without boxing them.
+     * @param people a table of people
+     * @param sink the list that the ages are appended to
+     * @return the number of ages appended to the list
+     */
+    public static int getAges(PersonTable people, IntList sink) {
+        int size = people.size();
+        sink.ensureCapacity(sink.size() + size);
+        for (int i = 0; i < size; i++) {
+            sink.add(people.ageAt(i));
+        }
+        return size;
+    }
+
+    /**
+     * Retrieves the IDs of a memory-mapped person file, as a view that reads
+     * each ID from the mapped bytes when it is accessed.
+     * @param people a memory-mapped store of people
+     * @return a read-only list of IDs as strings
+     */
+    public static List<String> getIds(MappedPersonStore people) {
+        return people.ids();
+    }
+
+    /**
+     * Retrieves the names of a memory-mapped person file, as a view that reads
+     * each name from the mapped bytes when it is accessed.
+     * @param people a memory-mapped store of people
+     * @return a read-only list of names as strings
+     */
+    public static List<String> getNames(MappedPersonStore people) {
+        return people.names();
+    }
+
+    /**
+     * Retrieves the ages of a memory-mapped person file, as a view that reads
+     * each age from the mapped bytes when it is accessed.
+     * @param people a memory-mapped store of people
+     * @return a read-only list of ages as integers
+     */
+    public static List<Integer> getAges(MappedPersonStore people) {
+        return people.ages();
+    }
+
+    /**
+     * Appends the IDs of a memory-mapped person file to a caller-provided sink,
+     * such as a reused list.
+     * @param people a memory-mapped store of people
+     * @param sink the list that the IDs are appended to
+     * @return the number of IDs appended to the sink
+     */
+    public static int getIds(MappedPersonStore people, List<? super String> sink) {
+        return projectInto(people.size(), people::idAt, sink);
+    }
+
+    /**
+     * Appends the names of a memory-mapped person file to a caller-provided
+     * sink, such as a reused list.
+     * @param people a memory-mapped store of people
+     * @param sink the list that the names are appended to
+     * @return the number of names appended to the sink
+     */
+    public static int getNames(MappedPersonStore people, List<? super String> sink) {
+        return projectInto(people.size(), people::nameAt, sink);
+    }
+
+    /**
+     * Appends the ages of a memory-mapped person file to a caller-provided
+     * sink, such as a reused list.
+     * @param people a memory-mapped store of people
+     * @param sink the list that the ages are appended to
+     * @return the number of ages appended to the sink
+     */
+    public static int getAges(MappedPersonStore people, List<? super Integer> sink) {
+        return projectInto(people.size(), people::ageAt, sink);
+    }
+
+    /**
+     * Writes the ages of a memory-mapped person file to the start of a caller-
+     * provided array, without boxing them.
+     * @param people a memory-mapped store of people
+     * @param out the array that the ages are written to, at least as long as
+     * the store
+     * @return the number of ages written, which is the size of the store
+     * @throws IndexOutOfBoundsException if the array is shorter than the store
+     */
+    public static int getAges(MappedPersonStore people, int[] out) {
+        int size = people.size();
+        Objects.checkFromIndexSize(0, size, out.length);
+        for (int i = 0; i < size; i++) {
+            out[i] = people.ageAt(i);
+        }
+        return size;
+    }
+
+    /**
+     * Appends the ages of a memory-mapped person file to a caller-provided
+     * list, such as a reused one, without boxing them.
+     * @param people a memory-mapped store of people
+     * @param sink the list that the ages are appended to
+     * @return the number of ages appended to the list
+     */
+    public static int getAges(MappedPersonStore people, IntList sink) {
+        int size = people.size();
+        sink.ensureCapacity(sink.size() + size);
+        for (int i = 0; i < size; i++) {
+            sink.add(people.ageAt(i));
+        }
+        return size;
+    }
+
+    // Appends one field per person without a stream; the sink is grown once
+    // up front when it is an ArrayList, since the count is known
+    private static <R> int projectInto(List<Person> people, Function<Person, ? extends R> field,
+            List<? super R> sink, MethodMetrics metrics) {
+        long start = HelperMetrics.start();
+        if (sink instanceof ArrayList<?> list) {
+            list.ensureCapacity(list.size() + people.size());
+        }
+        for (Person person : people) {
+            sink.add(field.apply(person));
+        }
+        metrics.record(start, people.size(), people.size());
+        return people.size();
+    }
+
+    private static <R> int projectInto(int size, IntFunction<? extends R> field, List<? super R> sink) {
+        if (sink instanceof ArrayList<?> list) {
+            list.ensureCapacity(list.size() + size);
+        }
+        for (int i = 0; i < size; i++) {
+            sink.add(field.apply(i));
+        }
+        return size;
     }
 
 }
@@ -0,0 +1,98 @@
+package sitecore.sherpa.streams.aggregation;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+import sitecore.sherpa.streams.helpers.Service;
+
+/**
+ * Computes the latency statistics of every service area in a single pass.
+ * 
+ * The challenge solutions filter the services of one area, then stream the
+ * latency map of each one, and start over for the next area. Here each
+ * service is visited once: its area is looked up in a hash map and its seven
+ * daily latencies are added to that area's accumulator.
+ */
+public final class LatencyAggregator {
+    private static final int DAYS = 7;
+
+    private LatencyAggregator() {
+    }
+
+    /**
+     * Computes the statistics of every area of the services.
+     * 
+     * @param services the services to aggregate
+     * @return a report with the statistics of every area
+     */
+    public static LatencyReport aggregate(Iterable<Service> services) {
+        Map<String, LatencyStats.Accumulator> accumulators = new HashMap<>();
+        // Area names repeat, so each spelling is case folded only once
+        Map<String, LatencyStats.Accumulator> bySpelling = new HashMap<>();
+        for (Service service : services) {
+            String area = service.getServiceArea();
+            LatencyStats.Accumulator accumulator = bySpelling.get(area);
+            if (accumulator == null) {
+                accumulator = accumulatorOf(accumulators, area);
+                bySpelling.put(area, accumulator);
+            }
+            accumulator.add(service);
+        }
+        return finish(accumulators);
+    }
+
+    /**
+     * Returns a collector computing the statistics of every area, for streams
+     * of services. The collector can run on parallel streams.
+     * 
+     * @return a collector producing a report
+     */
+    public static Collector<Service, ?, LatencyReport> toReport() {
+        BinaryOperator<Map<String, LatencyStats.Accumulator>> combiner = (left, right) -> {
+            right.forEach((area, accumulator) -> left.merge(area, accumulator, LatencyStats.Accumulator::merge));
+            return left;
+        };
+        Function<Map<String, LatencyStats.Accumulator>, LatencyReport> finisher = LatencyAggregator::finish;
+        return Collector.of(HashMap::new,
+                (accumulators, service) -> accumulatorOf(accumulators, service.getServiceArea()).add(service),
+                combiner, finisher);
+    }
+
+    /**
+     * Finds the highest latency of one area without building a report, for a
+     * one-off question.
+     * 
+     * @param services the services to search
+     * @param area     the area, in any case
+     * @return the highest latency of the area, or 0 if it has none
+     */
+    public static double maxLatency(Iterable<Service> services, String area) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (Service service : services) {
+            if (service.getServiceArea().equalsIgnoreCase(area)) {
+                for (int day = 0; day < DAYS; day++) {
+                    // NaN (no value) never compares greater
+                    double latency = service.getLatency(day);
+                    if (latency > max) {
+                        max = latency;
+                    }
+                }
+            }
+        }
+        return max == Double.NEGATIVE_INFINITY ? 0 : max;
+    }
+
+    private static LatencyStats.Accumulator accumulatorOf(Map<String, LatencyStats.Accumulator> accumulators,
+                    String area) {
+        return accumulators.computeIfAbsent(LatencyReport.fold(area), key -> new LatencyStats.Accumulator(area));
+    }
+
+    private static LatencyReport finish(Map<String, LatencyStats.Accumulator> accumulators) {
+        Map<String, LatencyStats> byArea = new HashMap<>((int) (accumulators.size() / 0.75f) + 1);
+        accumulators.forEach((area, accumulator) -> byArea.put(area, accumulator.finish()));
+        return new LatencyReport(byArea);
+    }
+}
@@ -0,0 +1,78 @@
+package sitecore.sherpa.streams.aggregation;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The latency statistics of every service area, computed in one pass by
+ * {@link LatencyAggregator}.
+ * 
+ * Areas are matched ignoring case, like {@code equalsIgnoreCase} in the
+ * challenge solutions. Reports are immutable and can be shared between
+ * threads, so one report can answer every query until the data changes.
+ */
+public final class LatencyReport {
+    private static final LatencyStats EMPTY = new LatencyStats("", 0, 0, 0, 0, new double[0]);
+
+    private final Map<String, LatencyStats> byArea;
+
+    LatencyReport(Map<String, LatencyStats> byArea) {
+        this.byArea = byArea;
+    }
+
+    /**
+     * Returns the statistics of one area.
+     * 
+     * @param area the area, in any case
+     * @return the statistics of the area, with a count of 0 if it has no
+     *         services
+     */
+    public LatencyStats get(String area) {
+        return byArea.getOrDefault(fold(area), EMPTY);
+    }
+
+    /**
+     * Returns the highest latency of one area, which is the answer to the
+     * challenge.
+     * 
+     * @param area the area, in any case
+     * @return the highest latency of the area, or 0 if it has none
+     */
+    public double maxLatency(String area) {
+        return get(area).max();
+    }
+
+    /**
+     * Checks whether an area has services.
+     * 
+     * @param area the area, in any case
+     * @return {@code true} if at least one service belongs to the area
+     */
+    public boolean contains(String area) {
+        return byArea.containsKey(fold(area));
+    }
+
+    /**
+     * Returns the statistics of every area.
+     * 
+     * @return an unmodifiable collection with one entry per area
+     */
+    public Collection<LatencyStats> areas() {
+        return Collections.unmodifiableCollection(byArea.values());
+    }
+
+    /**
+     * Returns the number of areas.
+     * 
+     * @return the number of areas with at least one service
+     */
+    public int size() {
+        return byArea.size();
+    }
+
+    static String fold(String area) {
+        return area.toLowerCase(Locale.ROOT);
+    }
+}
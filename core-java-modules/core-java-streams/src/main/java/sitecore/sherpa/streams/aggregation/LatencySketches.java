@@ -0,0 +1,181 @@
+package sitecore.sherpa.streams.aggregation;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import sitecore.sherpa.streams.helpers.Service;
+
+/**
+ * A {@link LatencyHistogram} per service and per service area.
+ * 
+ * Every sample goes into the histogram of its service and into the one of
+ * its area, so both kinds of tail latency are answered without merging at
+ * query time. Areas are matched ignoring case, like in {@link LatencyReport}.
+ * Recording is thread-safe and, once a service and its area have been seen,
+ * allocation-free.
+ */
+public final class LatencySketches {
+    private static final int DAYS = 7;
+
+    private final LatencyHistogram template;
+    private final Map<String, LatencyHistogram> byService = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> byArea = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an empty registry whose histograms have the default layout of
+     * {@link LatencyHistogram#LatencyHistogram()}.
+     */
+    public LatencySketches() {
+        this(new LatencyHistogram());
+    }
+
+    /**
+     * Creates an empty registry whose histograms have the layout of a
+     * template.
+     * 
+     * @param template a histogram with the resolution, maximum value and
+     *                 precision to use; its counts are ignored
+     */
+    public LatencySketches(LatencyHistogram template) {
+        this.template = template.emptyCopy();
+    }
+
+    /**
+     * Records one latency sample.
+     * 
+     * @param serviceName the name of the service
+     * @param area        the area of the service, in any case
+     * @param latency     the latency, at least 0
+     */
+    public void record(String serviceName, String area, double latency) {
+        histogram(byService, serviceName).record(latency);
+        histogram(byArea, LatencyReport.fold(area)).record(latency);
+    }
+
+    /**
+     * Records one latency sample of a service.
+     * 
+     * @param service the service
+     * @param latency the latency, at least 0
+     */
+    public void record(Service service, double latency) {
+        record(service.getServiceName(), service.getServiceArea(), latency);
+    }
+
+    /**
+     * Records the daily latencies of a service, skipping days without a
+     * value.
+     * 
+     * @param service the service
+     */
+    public void recordWeek(Service service) {
+        LatencyHistogram serviceHistogram = histogram(byService, service.getServiceName());
+        LatencyHistogram areaHistogram = histogram(byArea, LatencyReport.fold(service.getServiceArea()));
+        for (int day = 0; day < DAYS; day++) {
+            double latency = service.getLatency(day);
+            if (!Double.isNaN(latency)) {
+                serviceHistogram.record(latency);
+                areaHistogram.record(latency);
+            }
+        }
+    }
+
+    /**
+     * Returns the histogram of a service.
+     * 
+     * @param serviceName the name of the service
+     * @return the live histogram of the service, empty if it has no samples
+     */
+    public LatencyHistogram service(String serviceName) {
+        LatencyHistogram histogram = byService.get(serviceName);
+        return histogram != null ? histogram : template.emptyCopy();
+    }
+
+    /**
+     * Returns the histogram of an area.
+     * 
+     * @param area the area, in any case
+     * @return the live histogram of the area, empty if it has no samples
+     */
+    public LatencyHistogram area(String area) {
+        LatencyHistogram histogram = byArea.get(LatencyReport.fold(area));
+        return histogram != null ? histogram : template.emptyCopy();
+    }
+
+    /**
+     * Returns the names of the services with samples.
+     * 
+     * @return an unmodifiable view of the service names
+     */
+    public Set<String> services() {
+        return Collections.unmodifiableSet(byService.keySet());
+    }
+
+    /**
+     * Returns the case-folded names of the areas with samples.
+     * 
+     * @return an unmodifiable view of the area names, in lower case
+     */
+    public Set<String> areas() {
+        return Collections.unmodifiableSet(byArea.keySet());
+    }
+
+    /**
+     * Adds every histogram of another registry to this one, for example the
+     * registry of another thread.
+     * 
+     * @param other a registry whose histograms have the same layout
+     * @throws IllegalArgumentException if the layouts differ, in which case
+     *                                  nothing is merged
+     */
+    public void merge(LatencySketches other) {
+        // Every histogram of a registry is a copy of its template
+        checkLayout(other.template);
+        other.byService.forEach((name, histogram) -> histogram(byService, name).merge(histogram));
+        other.byArea.forEach((area, histogram) -> histogram(byArea, area).merge(histogram));
+    }
+
+    /**
+     * Adds a histogram to the one of a service, for example a histogram read
+     * back with {@link LatencyHistogram#fromByteArray(byte[])} from the
+     * snapshot of another process.
+     * 
+     * @param serviceName the name of the service
+     * @param histogram   a histogram with the layout of this registry
+     * @throws IllegalArgumentException if the layouts differ, in which case
+     *                                  nothing is merged
+     */
+    public void mergeService(String serviceName, LatencyHistogram histogram) {
+        checkLayout(histogram);
+        histogram(byService, serviceName).merge(histogram);
+    }
+
+    /**
+     * Adds a histogram to the one of an area, for example a histogram read back
+     * with {@link LatencyHistogram#fromByteArray(byte[])} from the snapshot of
+     * another process.
+     * 
+     * @param area      the area, in any case
+     * @param histogram a histogram with the layout of this registry
+     * @throws IllegalArgumentException if the layouts differ, in which case
+     *                                  nothing is merged
+     */
+    public void mergeArea(String area, LatencyHistogram histogram) {
+        checkLayout(histogram);
+        histogram(byArea, LatencyReport.fold(area)).merge(histogram);
+    }
+
+    private void checkLayout(LatencyHistogram histogram) {
+        if (!template.sameLayout(histogram)) {
+            throw new IllegalArgumentException("Cannot merge histograms with different layouts");
+        }
+    }
+
+    private LatencyHistogram histogram(Map<String, LatencyHistogram> histograms, String key) {
+        // get first: computeIfAbsent would allocate its lambda on every call
+        LatencyHistogram histogram = histograms.get(key);
+        return histogram != null ? histogram : histograms.computeIfAbsent(key, k -> template.emptyCopy());
+    }
+}
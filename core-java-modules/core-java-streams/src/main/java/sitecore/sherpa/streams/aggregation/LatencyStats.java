@@ -0,0 +1,184 @@
+package sitecore.sherpa.streams.aggregation;
+
+import java.util.Arrays;
+
+import sitecore.sherpa.streams.helpers.Service;
+
+/**
+ * The latency statistics of one service area: count, minimum, maximum,
+ * average and percentiles of every daily latency of its services.
+ * 
+ * The count, extremes and average are computed while the services are
+ * scanned, so their getters only read fields. Percentiles need the values in
+ * order: they are sorted on the first call to {@link #percentile(double)} and
+ * reused afterwards, so a caller that only wants the maximum never pays for
+ * the sort. Instances can be shared between threads.
+ */
+public final class LatencyStats {
+    private final String area;
+    private final int serviceCount;
+    private final double min;
+    private final double max;
+    private final double sum;
+    private final double[] values;
+    private volatile boolean sorted;
+
+    LatencyStats(String area, int serviceCount, double min, double max, double sum, double[] values) {
+        this.area = area;
+        this.serviceCount = serviceCount;
+        this.min = min;
+        this.max = max;
+        this.sum = sum;
+        this.values = values;
+    }
+
+    /**
+     * Returns the name of the area, as spelled by its first service.
+     * 
+     * @return the area name
+     */
+    public String area() {
+        return area;
+    }
+
+    /**
+     * Returns the number of services of the area.
+     * 
+     * @return the number of services
+     */
+    public int serviceCount() {
+        return serviceCount;
+    }
+
+    /**
+     * Returns the number of daily latencies of the area. Days without a value
+     * are not counted.
+     * 
+     * @return the number of latencies
+     */
+    public int count() {
+        return values.length;
+    }
+
+    /**
+     * Returns the lowest latency of the area.
+     * 
+     * @return the lowest latency, or 0 if the area has none
+     */
+    public double min() {
+        return values.length == 0 ? 0 : min;
+    }
+
+    /**
+     * Returns the highest latency of the area.
+     * 
+     * @return the highest latency, or 0 if the area has none
+     */
+    public double max() {
+        return values.length == 0 ? 0 : max;
+    }
+
+    /**
+     * Returns the average latency of the area.
+     * 
+     * @return the average latency, or 0 if the area has none
+     */
+    public double average() {
+        return values.length == 0 ? 0 : sum / values.length;
+    }
+
+    /**
+     * Returns a percentile of the latencies of the area, using the nearest
+     * rank method.
+     * 
+     * @param percentile the percentile, between 0 and 100
+     * @return the smallest latency that at least {@code percentile} percent
+     *         of the latencies do not exceed, or 0 if the area has none
+     */
+    public double percentile(double percentile) {
+        if (!(percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("Illegal percentile: " + percentile);
+        }
+        if (values.length == 0) {
+            return 0;
+        }
+        if (!sorted) {
+            sort();
+        }
+        int rank = (int) Math.ceil(percentile / 100 * values.length);
+        return values[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * Returns the median latency of the area.
+     * 
+     * @return the 50th percentile
+     */
+    public double median() {
+        return percentile(50);
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyStats[area=" + area + ", services=" + serviceCount + ", count=" + count()
+                + ", min=" + min() + ", max=" + max() + ", average=" + average() + "]";
+    }
+
+    private synchronized void sort() {
+        if (!sorted) {
+            Arrays.sort(values);
+            sorted = true;
+        }
+    }
+
+    /**
+     * Collects the latencies of one area while the services are scanned.
+     */
+    static final class Accumulator {
+        private static final int DAYS = 7;
+
+        private final String area;
+        private int serviceCount;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+        private double sum;
+        private double[] values = new double[16];
+        private int size;
+
+        Accumulator(String area) {
+            this.area = area;
+        }
+
+        void add(Service service) {
+            serviceCount++;
+            for (int day = 0; day < DAYS; day++) {
+                double latency = service.getLatency(day);
+                if (!Double.isNaN(latency)) {
+                    add(latency);
+                }
+            }
+        }
+
+        void add(double latency) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = latency;
+            sum += latency;
+            min = Math.min(min, latency);
+            max = Math.max(max, latency);
+        }
+
+        Accumulator merge(Accumulator other) {
+            serviceCount += other.serviceCount;
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+            return this;
+        }
+
+        LatencyStats finish() {
+            return new LatencyStats(area, serviceCount, min, max, sum, Arrays.copyOf(values, size));
+        }
+    }
+}
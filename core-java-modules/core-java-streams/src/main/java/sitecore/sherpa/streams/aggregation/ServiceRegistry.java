@@ -0,0 +1,232 @@
+package sitecore.sherpa.streams.aggregation;
+
+import java.time.DayOfWeek;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import sitecore.sherpa.streams.helpers.Service;
+
+/**
+ * A set of services indexed by name and by case-folded area, with the latency
+ * statistics of every area cached.
+ * 
+ * {@code findAnswer(services, area)} filters every service on each call. The
+ * registry instead keeps the services of each area together, and computes an
+ * area's {@link LatencyStats} the first time it is asked for. A change to a
+ * service only drops the cache of its own area, so a query costs one hash
+ * lookup as long as its area has not changed, and the first query after a
+ * change only scans the services of that area.
+ * 
+ * Queries do not lock: they read the cached statistics of the area. Updates
+ * and the recomputation of a dropped cache are serialized on the registry,
+ * which suits workloads with far more queries than updates.
+ */
+public final class ServiceRegistry {
+    private final Map<String, Service> byName = new ConcurrentHashMap<>();
+    private final Map<String, Area> byArea = new ConcurrentHashMap<>();
+
+    /**
+     * The services of one area and their cached statistics.
+     */
+    private static final class Area {
+        // Guarded by the registry
+        final Map<String, Service> services = new LinkedHashMap<>();
+        volatile View view;
+    }
+
+    private record View(List<Service> services, LatencyStats stats) {
+    }
+
+    /**
+     * Creates an empty registry.
+     */
+    public ServiceRegistry() {
+    }
+
+    /**
+     * Creates a registry holding the specified services.
+     * 
+     * @param services the services to register
+     */
+    public ServiceRegistry(Iterable<Service> services) {
+        for (Service service : services) {
+            register(service);
+        }
+    }
+
+    /**
+     * Adds a service, replacing any service with the same name.
+     * 
+     * @param service the service to register
+     * @return the replaced service, or {@code null}
+     */
+    public synchronized Service register(Service service) {
+        Service previous = byName.put(service.getServiceName(), service);
+        String key = LatencyReport.fold(service.getServiceArea());
+        if (previous != null && !LatencyReport.fold(previous.getServiceArea()).equals(key)) {
+            detach(previous);
+        }
+        // Replacing a service of the same area keeps its position
+        Area area = byArea.computeIfAbsent(key, k -> new Area());
+        area.services.put(service.getServiceName(), service);
+        area.view = null;
+        return previous;
+    }
+
+    /**
+     * Removes a service.
+     * 
+     * @param serviceName the name of the service
+     * @return the removed service, or {@code null} if there was none
+     */
+    public synchronized Service unregister(String serviceName) {
+        Service removed = byName.remove(serviceName);
+        if (removed != null) {
+            detach(removed);
+        }
+        return removed;
+    }
+
+    /**
+     * Changes the latency of one day of a registered service. Only the cache
+     * of the service's area is dropped.
+     * 
+     * @param serviceName the name of the service
+     * @param day         the day of the week
+     * @param latency     the new latency, {@code NaN} to remove it
+     * @return the updated service
+     * @throws IllegalArgumentException if no service has this name
+     */
+    public synchronized Service updateLatency(String serviceName, DayOfWeek day, double latency) {
+        Service current = byName.get(serviceName);
+        if (current == null) {
+            throw new IllegalArgumentException("Unknown service: " + serviceName);
+        }
+        if (Double.compare(current.getLatency(day), latency) == 0) {
+            return current;
+        }
+        Service updated = current.withLatency(day, latency);
+        register(updated);
+        return updated;
+    }
+
+    /**
+     * Returns a service by name.
+     * 
+     * @param serviceName the name of the service
+     * @return the service, or {@code null} if there is none
+     */
+    public Service get(String serviceName) {
+        return byName.get(serviceName);
+    }
+
+    /**
+     * Returns the services of an area.
+     * 
+     * @param area the area, in any case
+     * @return an unmodifiable list of the services of the area, in
+     *         registration order
+     */
+    public List<Service> servicesIn(String area) {
+        View view = viewOf(area);
+        return view == null ? List.of() : view.services();
+    }
+
+    /**
+     * Returns the latency statistics of an area.
+     * 
+     * @param area the area, in any case
+     * @return the statistics of the area, with a count of 0 if it has no
+     *         services
+     */
+    public LatencyStats stats(String area) {
+        View view = viewOf(area);
+        return view == null ? new LatencyStats.Accumulator(area).finish() : view.stats();
+    }
+
+    /**
+     * Returns the highest latency of an area, which is the answer to
+     * {@code findAnswer(services, area)}.
+     * 
+     * @param area the area, in any case
+     * @return the highest latency of the area, or 0 if it has none
+     */
+    public double maxLatency(String area) {
+        return stats(area).max();
+    }
+
+    /**
+     * Returns the statistics of every area, recomputing only the areas that
+     * changed since they were last queried.
+     * 
+     * @return a report of every area
+     */
+    public LatencyReport report() {
+        Map<String, LatencyStats> stats = new HashMap<>();
+        for (Map.Entry<String, Area> entry : byArea.entrySet()) {
+            View view = viewOf(entry.getValue());
+            if (view != null) {
+                stats.put(entry.getKey(), view.stats());
+            }
+        }
+        return new LatencyReport(stats);
+    }
+
+    /**
+     * Returns the case-folded names of the areas with services.
+     * 
+     * @return an unmodifiable view of the area names, in lower case
+     */
+    public Set<String> areas() {
+        return Collections.unmodifiableSet(byArea.keySet());
+    }
+
+    /**
+     * Returns the number of services.
+     * 
+     * @return the number of registered services
+     */
+    public int size() {
+        return byName.size();
+    }
+
+    private View viewOf(String area) {
+        Area entry = byArea.get(LatencyReport.fold(area));
+        return entry == null ? null : viewOf(entry);
+    }
+
+    private View viewOf(Area area) {
+        View view = area.view;
+        return view != null ? view : refresh(area);
+    }
+
+    private synchronized View refresh(Area area) {
+        View view = area.view;
+        if (view != null || area.services.isEmpty()) {
+            return view;
+        }
+        List<Service> services = List.copyOf(area.services.values());
+        LatencyStats.Accumulator accumulator = new LatencyStats.Accumulator(services.get(0).getServiceArea());
+        for (Service service : services) {
+            accumulator.add(service);
+        }
+        view = new View(services, accumulator.finish());
+        area.view = view;
+        return view;
+    }
+
+    private void detach(Service service) {
+        String key = LatencyReport.fold(service.getServiceArea());
+        Area area = byArea.get(key);
+        area.services.remove(service.getServiceName());
+        area.view = null;
+        if (area.services.isEmpty()) {
+            byArea.remove(key);
+        }
+    }
+}
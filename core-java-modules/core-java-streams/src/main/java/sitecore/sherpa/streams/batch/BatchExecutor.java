@@ -0,0 +1,318 @@
+package sitecore.sherpa.streams.batch;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Groups small concurrent requests into larger batches, runs each batch once
+ * on a virtual thread, and hands every caller its own slice of the result.
+ * 
+ * Calling {@code Filtering} or {@code Projection} once per request pays the
+ * stream setup of every call and, under many concurrent requests, keeps many
+ * short tasks in flight. A batch executor queues the requests instead: a
+ * dispatcher takes the first waiting request, keeps adding requests until the
+ * batch holds {@code maxBatchSize} elements or {@code maxWait} has passed, and
+ * runs the batch function on the concatenated elements. A request at least
+ * as large as {@code maxBatchSize} is run alone.
+ * 
+ * Two kinds of batch functions can be split back into slices:
+ * <ul>
+ * <li>{@link #mapping(Function) mapping} functions return one result per
+ * element, in order, like the methods of {@code Projection};</li>
+ * <li>{@link #filtering(Function) filtering} functions return the elements
+ * they keep, in order, and keep or drop equal elements alike, like the
+ * methods of {@code Filtering}.</li>
+ * </ul>
+ * 
+ * If the batch function throws, every request of the batch fails with the
+ * exception. Batches run on virtual threads, so any number of them can be in
+ * flight; only the dispatcher is a platform thread, so that it is not queued
+ * behind the very callers whose requests it is collecting.
+ * 
+ * @param <T> the type of the request elements
+ * @param <R> the type of the result elements
+ */
+public final class BatchExecutor<T, R> implements AutoCloseable {
+    private final Function<List<T>, List<R>> batchFunction;
+    private final boolean filtering;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final BlockingQueue<Request<T, R>> queue = new LinkedBlockingQueue<>();
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    private final Thread dispatcher;
+    private volatile boolean closed;
+
+    private record Request<T, R>(List<T> elements, CompletableFuture<List<R>> result) {
+    }
+
+    private BatchExecutor(Builder<T, R> builder) {
+        this.batchFunction = builder.batchFunction;
+        this.filtering = builder.filtering;
+        this.maxBatchSize = builder.maxBatchSize;
+        this.maxWaitNanos = builder.maxWait.toNanos();
+        this.dispatcher = Thread.ofPlatform().name("batch-dispatcher").daemon().start(this::dispatch);
+    }
+
+    /**
+     * Starts building an executor for a function returning one result per
+     * element, in the order of the elements.
+     * 
+     * @param <T>           the type of the request elements
+     * @param <R>           the type of the result elements
+     * @param batchFunction the function to run on each batch, such as
+     *                      {@code Projection::getNames}
+     * @return a builder for the executor
+     */
+    public static <T, R> Builder<T, R> mapping(Function<List<T>, List<R>> batchFunction) {
+        return new Builder<>(batchFunction, false);
+    }
+
+    /**
+     * Starts building an executor for a function returning the elements it
+     * keeps, in the order of the elements. The function must decide on the
+     * value of each element alone, so that equal elements are kept or dropped
+     * together.
+     * 
+     * @param <T>           the type of the request elements
+     * @param batchFunction the function to run on each batch, such as
+     *                      {@code Filtering::getEven}
+     * @return a builder for the executor
+     */
+    public static <T> Builder<T, T> filtering(Function<List<T>, List<T>> batchFunction) {
+        return new Builder<>(batchFunction, true);
+    }
+
+    /**
+     * Queues a request.
+     * 
+     * @param elements the elements of the request
+     * @return a future completed with the result of the request's elements
+     * @throws RejectedExecutionException if the executor is closed
+     */
+    public CompletableFuture<List<R>> submit(List<T> elements) {
+        Objects.requireNonNull(elements);
+        if (closed) {
+            throw new RejectedExecutionException("Batch executor is closed");
+        }
+        CompletableFuture<List<R>> result = new CompletableFuture<>();
+        Request<T, R> request = new Request<>(elements, result);
+        queue.add(request);
+        // close() may have drained the queue between the check and the add.
+        // Whoever removes the request completes it: the dispatcher, the drain
+        // of close(), or this caller if it is still queued.
+        if (closed && queue.remove(request)) {
+            throw new RejectedExecutionException("Batch executor is closed");
+        }
+        return result;
+    }
+
+    /**
+     * Runs a request and waits for its result. Blocking is cheap on a virtual
+     * thread.
+     * 
+     * @param elements the elements of the request
+     * @return the result of the request's elements
+     */
+    public List<R> execute(List<T> elements) {
+        return submit(elements).join();
+    }
+
+    /**
+     * Stops accepting requests, runs the queued ones and waits for every
+     * batch to finish.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        dispatcher.interrupt();
+        try {
+            dispatcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // A request queued after the dispatcher stopped, before its caller
+        // noticed the executor was closed
+        for (Request<T, R> late; (late = queue.poll()) != null;) {
+            late.result().completeExceptionally(new RejectedExecutionException("Batch executor is closed"));
+        }
+        workers.close();
+    }
+
+    private void dispatch() {
+        List<Request<T, R>> batch = new ArrayList<>();
+        // A request that did not fit in the previous batch starts the next one
+        Request<T, R> carried = null;
+        while (carried != null || !closed || !queue.isEmpty()) {
+            try {
+                Request<T, R> first = carried != null ? carried : closed ? queue.poll() : queue.take();
+                carried = null;
+                if (first == null) {
+                    break;
+                }
+                batch.add(first);
+                int size = first.elements().size();
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (size < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Request<T, R> next = closed || remaining <= 0
+                            ? queue.poll()
+                            : queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    if (size + next.elements().size() > maxBatchSize) {
+                        carried = next;
+                        break;
+                    }
+                    batch.add(next);
+                    size += next.elements().size();
+                }
+            } catch (InterruptedException e) {
+                // close() wakes the dispatcher up to flush what is queued
+            }
+            if (!batch.isEmpty()) {
+                List<Request<T, R>> requests = List.copyOf(batch);
+                batch.clear();
+                workers.execute(() -> run(requests));
+            }
+        }
+    }
+
+    private void run(List<Request<T, R>> requests) {
+        try {
+            List<T> input;
+            if (requests.size() == 1) {
+                input = requests.get(0).elements();
+            } else {
+                input = new ArrayList<>();
+                for (Request<T, R> request : requests) {
+                    input.addAll(request.elements());
+                }
+            }
+            List<R> output = batchFunction.apply(input);
+            if (filtering) {
+                splitFiltered(requests, output);
+            } else {
+                splitMapped(requests, output);
+            }
+        } catch (Throwable e) {
+            for (Request<T, R> request : requests) {
+                request.result().completeExceptionally(e);
+            }
+        }
+    }
+
+    private void splitMapped(List<Request<T, R>> requests, List<R> output) {
+        int expected = 0;
+        for (Request<T, R> request : requests) {
+            expected += request.elements().size();
+        }
+        if (output.size() != expected) {
+            throw new IllegalStateException("Mapping function returned " + output.size()
+                    + " results for " + expected + " elements");
+        }
+        if (requests.size() == 1) {
+            requests.get(0).result().complete(output);
+            return;
+        }
+        int offset = 0;
+        for (Request<T, R> request : requests) {
+            int end = offset + request.elements().size();
+            request.result().complete(new ArrayList<>(output.subList(offset, end)));
+            offset = end;
+        }
+    }
+
+    // The kept elements are a subsequence of the input: walk both, giving
+    // each kept element to the request whose next equal element it matches.
+    // No result is completed before the whole output has been matched.
+    private void splitFiltered(List<Request<T, R>> requests, List<R> output) {
+        int kept = 0;
+        List<List<R>> slices = new ArrayList<>(requests.size());
+        for (Request<T, R> request : requests) {
+            List<R> slice = new ArrayList<>();
+            for (T element : request.elements()) {
+                if (kept < output.size() && Objects.equals(element, output.get(kept))) {
+                    slice.add(output.get(kept++));
+                }
+            }
+            slices.add(slice);
+        }
+        if (kept != output.size()) {
+            throw new IllegalStateException("Filtering function returned elements out of order");
+        }
+        for (int i = 0; i < requests.size(); i++) {
+            requests.get(i).result().complete(slices.get(i));
+        }
+    }
+
+    /**
+     * Configures a batch executor.
+     * 
+     * @param <T> the type of the request elements
+     * @param <R> the type of the result elements
+     */
+    public static final class Builder<T, R> {
+        private final Function<List<T>, List<R>> batchFunction;
+        private final boolean filtering;
+        private int maxBatchSize = 1024;
+        private Duration maxWait = Duration.ofMillis(1);
+
+        private Builder(Function<List<T>, List<R>> batchFunction, boolean filtering) {
+            this.batchFunction = Objects.requireNonNull(batchFunction);
+            this.filtering = filtering;
+        }
+
+        /**
+         * Sets the number of elements from which a batch is run without
+         * waiting for more requests. Defaults to 1024.
+         * 
+         * @param maxBatchSize the largest number of elements of a batch
+         * @return this builder
+         */
+        public Builder<T, R> maxBatchSize(int maxBatchSize) {
+            if (maxBatchSize <= 0) {
+                throw new IllegalArgumentException("Illegal batch size: " + maxBatchSize);
+            }
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * Sets how long the first request of a batch waits for others.
+         * Defaults to 1 millisecond.
+         * 
+         * @param maxWait the longest time a request is held back
+         * @return this builder
+         */
+        public Builder<T, R> maxWait(Duration maxWait) {
+            if (maxWait.isNegative()) {
+                throw new IllegalArgumentException("Illegal wait: " + maxWait);
+            }
+            this.maxWait = maxWait;
+            return this;
+        }
+
+        /**
+         * Builds the executor and starts its dispatcher.
+         * 
+         * @return a running batch executor, to be closed when no longer needed
+         */
+        public BatchExecutor<T, R> build() {
+            return new BatchExecutor<>(this);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package sitecore.sherpa.streams.bitmap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import sitecore.sherpa.streams.helpers.LruCache;
+
+/**
+ * A snapshot of a list that answers filters with {@link PositionBitmap}s
+ * instead of new lists, and caches the bitmap of each filter.
+ * 
+ * Chaining {@code Filtering} methods builds a full intermediate list per
+ * step. Here each filter scans the list once and produces a bitmap of the
+ * matching positions; the bitmaps are then combined with {@code and},
+ * {@code or}, {@code andNot} and {@link #not}, and only the final one is
+ * turned back into elements with {@link #materialize}. Since the snapshot
+ * never changes, the bitmap of a filter is cached under its key, and asking
+ * for the same filter again costs a cache lookup instead of a scan.
+ * 
+ * A filter is keyed by the predicate itself, or by an explicit key for
+ * predicates that are rebuilt on every call, such as lambdas capturing a
+ * pattern. Two filters with equal keys must match the same elements.
+ * 
+ * This class is thread-safe. Two threads asking for the same missing filter
+ * at the same time may both compute it.
+ * 
+ * @param <T> the type of the elements
+ */
+public final class FilterIndex<T> {
+    /** The number of filter bitmaps kept by default. */
+    public static final int DEFAULT_CACHE_CAPACITY = 64;
+
+    private final Object[] elements;
+    private final LruCache<Object, PositionBitmap> cache;
+
+    /**
+     * Creates an index over a copy of a list, caching the bitmaps of the last
+     * {@value #DEFAULT_CACHE_CAPACITY} filters.
+     * 
+     * @param elements the elements to filter
+     */
+    public FilterIndex(List<? extends T> elements) {
+        this(elements, DEFAULT_CACHE_CAPACITY);
+    }
+
+    /**
+     * Creates an index over a copy of a list.
+     * 
+     * @param elements      the elements to filter
+     * @param cacheCapacity the number of filter bitmaps to keep
+     * @throws IllegalArgumentException if the cache capacity is not positive
+     */
+    public FilterIndex(List<? extends T> elements, int cacheCapacity) {
+        this.elements = elements.toArray();
+        this.cache = new LruCache<>(cacheCapacity);
+    }
+
+    /**
+     * Returns the number of elements of the index.
+     * 
+     * @return the size of the indexed list
+     */
+    public int size() {
+        return elements.length;
+    }
+
+    /**
+     * Returns the positions of the elements matching a predicate, keyed by
+     * the predicate itself.
+     * 
+     * @param predicate the condition on the elements, also used as cache key
+     * @return the bitmap of the matching positions
+     */
+    public PositionBitmap matching(Predicate<? super T> predicate) {
+        return matching(predicate, predicate);
+    }
+
+    /**
+     * Returns the positions of the elements matching a predicate, scanning the
+     * elements only if no bitmap is cached for the key.
+     * 
+     * @param key       the cache key of the filter
+     * @param predicate the condition on the elements
+     * @return the bitmap of the matching positions
+     */
+    public PositionBitmap matching(Object key, Predicate<? super T> predicate) {
+        PositionBitmap positions = cache.get(key);
+        if (positions == null) {
+            // Scanned outside the cache lock, so that other filters are not
+            // held up by a long scan
+            positions = scan(predicate);
+            cache.put(key, positions);
+        }
+        return positions;
+    }
+
+    /**
+     * Returns the positions of every element.
+     * 
+     * @return the bitmap of all the positions of the index
+     */
+    public PositionBitmap all() {
+        return PositionBitmap.range(0, elements.length);
+    }
+
+    /**
+     * Returns the positions of the elements that are not in a bitmap.
+     * 
+     * @param positions the positions to exclude
+     * @return the complement of the bitmap within the index
+     */
+    public PositionBitmap not(PositionBitmap positions) {
+        return positions.not(elements.length);
+    }
+
+    /**
+     * Returns the elements at the positions of a bitmap.
+     * 
+     * @param positions positions of this index
+     * @return a new list of the elements, in the order of the index
+     */
+    public List<T> materialize(PositionBitmap positions) {
+        List<T> result = new ArrayList<>(positions.cardinality());
+        materialize(positions, result);
+        return result;
+    }
+
+    /**
+     * Appends the elements at the positions of a bitmap to a caller-provided
+     * sink, such as a reused list.
+     * 
+     * @param positions positions of this index
+     * @param sink      the list that the elements are appended to
+     * @return the number of elements appended to the sink
+     */
+    @SuppressWarnings("unchecked")
+    public int materialize(PositionBitmap positions, List<? super T> sink) {
+        positions.forEach(position -> sink.add((T) elements[position]));
+        return positions.cardinality();
+    }
+
+    /**
+     * Drops every cached bitmap.
+     */
+    public void clearCache() {
+        cache.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private PositionBitmap scan(Predicate<? super T> predicate) {
+        PositionBitmap.Builder positions = new PositionBitmap.Builder();
+        for (int i = 0; i < elements.length; i++) {
+            if (predicate.test((T) elements[i])) {
+                positions.add(i);
+            }
+        }
+        return positions.build();
+    }
+}
@@ -0,0 +1,632 @@
+package sitecore.sherpa.streams.bitmap;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * An immutable, compressed set of positions in a list, in the style of a
+ * Roaring bitmap.
+ * 
+ * Positions are split by their high 16 bits into chunks of 65536. Each
+ * non-empty chunk stores its low 16 bits either as a sorted {@code char[]},
+ * when it holds at most 4096 positions, or as a 65536-bit bitmap otherwise,
+ * so a chunk never takes more than 8 KB and a sparse result takes 2 bytes per
+ * position. {@link #and}, {@link #or}, {@link #andNot} and {@link #not}
+ * combine two bitmaps chunk by chunk, merging sorted arrays or combining 64
+ * bits per instruction, without looking at the elements the positions refer
+ * to.
+ * 
+ * Bitmaps never change once built, so they can be cached and shared between
+ * threads, and the results of the operations share the chunks they do not
+ * modify.
+ */
+public final class PositionBitmap {
+    private static final int ARRAY_MAX = 4096;
+    private static final int WORDS = 1024;
+    private static final PositionBitmap EMPTY = new PositionBitmap(new char[0], new Container[0], 0);
+
+    private final char[] keys;
+    private final Container[] containers;
+    private final int cardinality;
+
+    private PositionBitmap(char[] keys, Container[] containers, int size) {
+        this.keys = Arrays.copyOf(keys, size);
+        this.containers = Arrays.copyOf(containers, size);
+        int cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        this.cardinality = cardinality;
+    }
+
+    /**
+     * Returns the bitmap without any position.
+     * 
+     * @return the empty bitmap
+     */
+    public static PositionBitmap empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a bitmap holding the specified positions.
+     * 
+     * @param positions the positions, in any order and possibly repeated
+     * @return a bitmap of the distinct positions
+     * @throws IllegalArgumentException if a position is negative
+     */
+    public static PositionBitmap of(int... positions) {
+        int[] sorted = positions.clone();
+        Arrays.sort(sorted);
+        Builder builder = new Builder();
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                builder.add(sorted[i]);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Creates a bitmap holding every position of a range.
+     * 
+     * @param from the first position, inclusive
+     * @param to   the last position, exclusive
+     * @return a bitmap of the positions from {@code from} to {@code to - 1}
+     * @throws IllegalArgumentException if the range is negative or reversed
+     */
+    public static PositionBitmap range(int from, int to) {
+        if (from < 0 || to < from) {
+            throw new IllegalArgumentException("Illegal range: [" + from + ", " + to + ")");
+        }
+        if (from == to) {
+            return EMPTY;
+        }
+        int firstKey = from >>> 16;
+        int lastKey = (to - 1) >>> 16;
+        char[] keys = new char[lastKey - firstKey + 1];
+        Container[] containers = new Container[keys.length];
+        for (int key = firstKey; key <= lastKey; key++) {
+            int low = key == firstKey ? from & 0xFFFF : 0;
+            int high = key == lastKey ? (to - 1) & 0xFFFF : 0xFFFF;
+            long[] words = new long[WORDS];
+            Arrays.fill(words, low >>> 6, (high >>> 6) + 1, -1L);
+            words[low >>> 6] &= -1L << low;
+            words[high >>> 6] &= -1L >>> (63 - (high & 63));
+            keys[key - firstKey] = (char) key;
+            containers[key - firstKey] = normalize(words);
+        }
+        return new PositionBitmap(keys, containers, keys.length);
+    }
+
+    /**
+     * Returns the positions that are in both bitmaps.
+     * 
+     * @param other the other bitmap
+     * @return the intersection of the bitmaps
+     */
+    public PositionBitmap and(PositionBitmap other) {
+        char[] keys = new char[Math.min(this.keys.length, other.keys.length)];
+        Container[] containers = new Container[keys.length];
+        int size = 0;
+        for (int i = 0, j = 0; i < this.keys.length && j < other.keys.length;) {
+            int compare = Character.compare(this.keys[i], other.keys[j]);
+            if (compare < 0) {
+                i++;
+            } else if (compare > 0) {
+                j++;
+            } else {
+                Container container = this.containers[i++].and(other.containers[j++]);
+                if (container != null) {
+                    keys[size] = this.keys[i - 1];
+                    containers[size++] = container;
+                }
+            }
+        }
+        return size == 0 ? EMPTY : new PositionBitmap(keys, containers, size);
+    }
+
+    /**
+     * Returns the positions that are in either bitmap.
+     * 
+     * @param other the other bitmap
+     * @return the union of the bitmaps
+     */
+    public PositionBitmap or(PositionBitmap other) {
+        char[] keys = new char[this.keys.length + other.keys.length];
+        Container[] containers = new Container[keys.length];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < this.keys.length || j < other.keys.length) {
+            int compare = i == this.keys.length ? 1
+                    : j == other.keys.length ? -1
+                    : Character.compare(this.keys[i], other.keys[j]);
+            if (compare < 0) {
+                keys[size] = this.keys[i];
+                containers[size++] = this.containers[i++];
+            } else if (compare > 0) {
+                keys[size] = other.keys[j];
+                containers[size++] = other.containers[j++];
+            } else {
+                keys[size] = this.keys[i];
+                containers[size++] = this.containers[i++].or(other.containers[j++]);
+            }
+        }
+        return size == 0 ? EMPTY : new PositionBitmap(keys, containers, size);
+    }
+
+    /**
+     * Returns the positions of this bitmap that are not in the other one.
+     * 
+     * @param other the bitmap of the positions to remove
+     * @return the difference of the bitmaps
+     */
+    public PositionBitmap andNot(PositionBitmap other) {
+        char[] keys = new char[this.keys.length];
+        Container[] containers = new Container[keys.length];
+        int size = 0;
+        int j = 0;
+        for (int i = 0; i < this.keys.length; i++) {
+            while (j < other.keys.length && other.keys[j] < this.keys[i]) {
+                j++;
+            }
+            Container container = j < other.keys.length && other.keys[j] == this.keys[i]
+                    ? this.containers[i].andNot(other.containers[j])
+                    : this.containers[i];
+            if (container != null) {
+                keys[size] = this.keys[i];
+                containers[size++] = container;
+            }
+        }
+        return size == 0 ? EMPTY : new PositionBitmap(keys, containers, size);
+    }
+
+    /**
+     * Returns the positions of a list that are not in this bitmap.
+     * 
+     * @param size the size of the list, positions from 0 to {@code size - 1}
+     * @return the complement of this bitmap within the list
+     */
+    public PositionBitmap not(int size) {
+        return range(0, size).andNot(this);
+    }
+
+    /**
+     * Checks whether the bitmap holds a position.
+     * 
+     * @param position the position
+     * @return {@code true} if the position is in the bitmap
+     */
+    public boolean contains(int position) {
+        if (position < 0) {
+            return false;
+        }
+        int index = Arrays.binarySearch(keys, (char) (position >>> 16));
+        return index >= 0 && containers[index].contains((char) position);
+    }
+
+    /**
+     * Returns the number of positions in the bitmap.
+     * 
+     * @return the number of positions
+     */
+    public int cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * Returns whether the bitmap has no position.
+     * 
+     * @return {@code true} if the bitmap is empty
+     */
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * Calls an action for every position, in ascending order.
+     * 
+     * @param action the action to call with each position
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < keys.length; i++) {
+            containers[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    /**
+     * Returns the positions of the bitmap.
+     * 
+     * @return a new array of the positions, in ascending order
+     */
+    public int[] toArray() {
+        int[] positions = new int[cardinality];
+        int offset = 0;
+        for (int i = 0; i < keys.length; i++) {
+            offset = containers[i].copyTo(keys[i] << 16, positions, offset);
+        }
+        return positions;
+    }
+
+    /**
+     * Returns the approximate number of bytes used by the chunks of the
+     * bitmap.
+     * 
+     * @return the approximate size of the bitmap in bytes
+     */
+    public long sizeInBytes() {
+        long bytes = 2L * keys.length;
+        for (Container container : containers) {
+            bytes += container.sizeInBytes();
+        }
+        return bytes;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof PositionBitmap other) || cardinality != other.cardinality
+                || !Arrays.equals(keys, other.keys)) {
+            return false;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (!containers[i].sameAs(other.containers[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int[] hash = { 1 };
+        forEach(position -> hash[0] = 31 * hash[0] + position);
+        return hash[0];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        forEach(position -> builder.append(builder.length() > 1 ? ", " : "").append(position));
+        return builder.append(']').toString();
+    }
+
+    // A chunk small enough for a sorted array is stored as one, whatever
+    // operation produced it
+    private static Container normalize(long[] words) {
+        int cardinality = 0;
+        for (long word : words) {
+            cardinality += Long.bitCount(word);
+        }
+        if (cardinality == 0) {
+            return null;
+        }
+        if (cardinality > ARRAY_MAX) {
+            return new BitmapContainer(words, cardinality);
+        }
+        char[] values = new char[cardinality];
+        int size = 0;
+        for (int w = 0; w < WORDS; w++) {
+            for (long word = words[w]; word != 0; word &= word - 1) {
+                values[size++] = (char) ((w << 6) + Long.numberOfTrailingZeros(word));
+            }
+        }
+        return new ArrayContainer(values);
+    }
+
+    /**
+     * The low 16 bits of the positions of one chunk. Operations return
+     * {@code null} instead of an empty container.
+     */
+    private abstract static sealed class Container permits ArrayContainer, BitmapContainer {
+        abstract int cardinality();
+
+        abstract boolean contains(char value);
+
+        abstract void forEach(int base, IntConsumer action);
+
+        abstract int copyTo(int base, int[] positions, int offset);
+
+        abstract long sizeInBytes();
+
+        abstract long[] toWords();
+
+        // Every chunk has a single representation, so equal chunks have the
+        // same kind and the same contents
+        abstract boolean sameAs(Container other);
+
+        Container and(Container other) {
+            if (this instanceof ArrayContainer array) {
+                return array.filter(other, true);
+            }
+            if (other instanceof ArrayContainer array) {
+                return array.filter(this, true);
+            }
+            long[] words = toWords();
+            long[] otherWords = ((BitmapContainer) other).words;
+            for (int w = 0; w < WORDS; w++) {
+                words[w] &= otherWords[w];
+            }
+            return normalize(words);
+        }
+
+        Container or(Container other) {
+            if (this instanceof ArrayContainer a && other instanceof ArrayContainer b
+                    && a.values.length + b.values.length <= ARRAY_MAX) {
+                return a.union(b);
+            }
+            long[] words = toWords();
+            if (other instanceof ArrayContainer array) {
+                for (char value : array.values) {
+                    words[value >>> 6] |= 1L << value;
+                }
+            } else {
+                long[] otherWords = ((BitmapContainer) other).words;
+                for (int w = 0; w < WORDS; w++) {
+                    words[w] |= otherWords[w];
+                }
+            }
+            return normalize(words);
+        }
+
+        Container andNot(Container other) {
+            if (this instanceof ArrayContainer array) {
+                return array.filter(other, false);
+            }
+            long[] words = toWords();
+            if (other instanceof ArrayContainer array) {
+                for (char value : array.values) {
+                    words[value >>> 6] &= ~(1L << value);
+                }
+            } else {
+                long[] otherWords = ((BitmapContainer) other).words;
+                for (int w = 0; w < WORDS; w++) {
+                    words[w] &= ~otherWords[w];
+                }
+            }
+            return normalize(words);
+        }
+    }
+
+    private static final class ArrayContainer extends Container {
+        private final char[] values;
+
+        ArrayContainer(char[] values) {
+            this.values = values;
+        }
+
+        @Override
+        int cardinality() {
+            return values.length;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, value) >= 0;
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (char value : values) {
+                action.accept(base | value);
+            }
+        }
+
+        @Override
+        int copyTo(int base, int[] positions, int offset) {
+            for (char value : values) {
+                positions[offset++] = base | value;
+            }
+            return offset;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 2L * values.length;
+        }
+
+        @Override
+        long[] toWords() {
+            long[] words = new long[WORDS];
+            for (char value : values) {
+                words[value >>> 6] |= 1L << value;
+            }
+            return words;
+        }
+
+        @Override
+        boolean sameAs(Container other) {
+            return other instanceof ArrayContainer array && Arrays.equals(values, array.values);
+        }
+
+        // Keeps the values that are in the other container, or that are not
+        Container filter(Container other, boolean keep) {
+            char[] kept = new char[values.length];
+            int size = 0;
+            if (other instanceof ArrayContainer array) {
+                // Both sorted: one merge pass instead of a binary search per value
+                char[] otherValues = array.values;
+                int j = 0;
+                for (char value : values) {
+                    while (j < otherValues.length && otherValues[j] < value) {
+                        j++;
+                    }
+                    if ((j < otherValues.length && otherValues[j] == value) == keep) {
+                        kept[size++] = value;
+                    }
+                }
+            } else {
+                for (char value : values) {
+                    if (other.contains(value) == keep) {
+                        kept[size++] = value;
+                    }
+                }
+            }
+            return size == 0 ? null : new ArrayContainer(size == kept.length ? kept : Arrays.copyOf(kept, size));
+        }
+
+        Container union(ArrayContainer other) {
+            char[] merged = new char[values.length + other.values.length];
+            int size = 0;
+            int i = 0;
+            int j = 0;
+            while (i < values.length && j < other.values.length) {
+                char a = values[i];
+                char b = other.values[j];
+                merged[size++] = a <= b ? a : b;
+                i += a <= b ? 1 : 0;
+                j += b <= a ? 1 : 0;
+            }
+            while (i < values.length) {
+                merged[size++] = values[i++];
+            }
+            while (j < other.values.length) {
+                merged[size++] = other.values[j++];
+            }
+            return new ArrayContainer(Arrays.copyOf(merged, size));
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        private final long[] words;
+        private final int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (int w = 0; w < WORDS; w++) {
+                for (long word = words[w]; word != 0; word &= word - 1) {
+                    action.accept(base | (w << 6) + Long.numberOfTrailingZeros(word));
+                }
+            }
+        }
+
+        @Override
+        int copyTo(int base, int[] positions, int offset) {
+            for (int w = 0; w < WORDS; w++) {
+                for (long word = words[w]; word != 0; word &= word - 1) {
+                    positions[offset++] = base | (w << 6) + Long.numberOfTrailingZeros(word);
+                }
+            }
+            return offset;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 8L * WORDS;
+        }
+
+        @Override
+        long[] toWords() {
+            return words.clone();
+        }
+
+        @Override
+        boolean sameAs(Container other) {
+            return other instanceof BitmapContainer bitmap && Arrays.equals(words, bitmap.words);
+        }
+    }
+
+    /**
+     * Accumulates positions in ascending order, as a filter scanning a list
+     * finds them.
+     */
+    public static final class Builder {
+        private char[] keys = new char[4];
+        private Container[] containers = new Container[4];
+        private int size;
+        private int last = -1;
+        private int currentKey = -1;
+        private char[] values = new char[16];
+        private long[] words;
+        private int count;
+
+        /**
+         * Creates an empty builder.
+         */
+        public Builder() {
+        }
+
+        /**
+         * Adds a position, which must be greater than every position added
+         * before.
+         * 
+         * @param position the position to add
+         * @return this builder
+         * @throws IllegalArgumentException if the position is negative or not
+         *                                  in ascending order
+         */
+        public Builder add(int position) {
+            if (position <= last) {
+                throw new IllegalArgumentException("Positions must be added in ascending order: " + position);
+            }
+            last = position;
+            int key = position >>> 16;
+            if (key != currentKey) {
+                flush();
+                currentKey = key;
+            }
+            char low = (char) position;
+            if (words != null) {
+                words[low >>> 6] |= 1L << low;
+            } else if (count < ARRAY_MAX) {
+                if (count == values.length) {
+                    values = Arrays.copyOf(values, Math.min(ARRAY_MAX, count << 1));
+                }
+                values[count] = low;
+            } else {
+                // The chunk outgrew an array: switch it to a bitmap
+                words = new long[WORDS];
+                for (int i = 0; i < count; i++) {
+                    words[values[i] >>> 6] |= 1L << values[i];
+                }
+                words[low >>> 6] |= 1L << low;
+            }
+            count++;
+            return this;
+        }
+
+        /**
+         * Builds the bitmap. The builder should not be used afterwards.
+         * 
+         * @return a bitmap of the added positions
+         */
+        public PositionBitmap build() {
+            flush();
+            return size == 0 ? EMPTY : new PositionBitmap(keys, containers, size);
+        }
+
+        private void flush() {
+            if (count == 0) {
+                return;
+            }
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size << 1);
+                containers = Arrays.copyOf(containers, size << 1);
+            }
+            keys[size] = (char) currentKey;
+            containers[size++] = words != null
+                    ? new BitmapContainer(words, count)
+                    : new ArrayContainer(Arrays.copyOf(values, count));
+            words = null;
+            count = 0;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package sitecore.sherpa.streams.helpers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A column that stores every distinct value once, in a dictionary, and every
+ * row as an {@code int} code into that dictionary. It suits columns with few
+ * distinct values, such as names, where every row reads back the same shared
+ * {@link String} instance. A {@code null} row is stored like any other value.
+ */
+public final class DictionaryStringColumn extends StringColumn {
+    private final String[] dictionary;
+    private final Map<String, Integer> codesByValue;
+    private final int[] codes;
+    private final int size;
+
+    private DictionaryStringColumn(String[] dictionary, Map<String, Integer> codesByValue, int[] codes, int size) {
+        this.dictionary = dictionary;
+        this.codesByValue = codesByValue;
+        this.codes = codes;
+        this.size = size;
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return dictionary[codes[index]];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the dictionary code of the value at the specified row. Two rows
+     * hold equal values if and only if they have the same code.
+     * 
+     * @param index the row of the value
+     * @return the dictionary code of the value
+     */
+    public int codeAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return codes[index];
+    }
+
+    /**
+     * Returns the dictionary code of a value.
+     * 
+     * @param value the value to look up, possibly {@code null}
+     * @return the code of the value, or -1 if no row holds it
+     */
+    public int codeOf(String value) {
+        return codesByValue.getOrDefault(value, -1);
+    }
+
+    /**
+     * Returns the number of distinct values of the column.
+     * 
+     * @return the size of the dictionary
+     */
+    public int cardinality() {
+        return dictionary.length;
+    }
+
+    @Override
+    public long sizeInBytes() {
+        long bytes = 4L * codes.length + 8L * dictionary.length;
+        for (String value : dictionary) {
+            bytes += value == null ? 0 : 2L * value.length();
+        }
+        return bytes;
+    }
+
+    /**
+     * Accumulates the rows of a dictionary encoded column.
+     */
+    public static final class Builder {
+        private final Map<String, Integer> codesByValue = new HashMap<>();
+        private final List<String> dictionary = new ArrayList<>();
+        private int[] codes;
+        private int size;
+
+        /**
+         * Creates a builder for a column of about {@code capacity} rows.
+         * 
+         * @param capacity the expected number of rows
+         */
+        public Builder(int capacity) {
+            this.codes = new int[Math.max(capacity, 1)];
+        }
+
+        /**
+         * Appends a row.
+         * 
+         * @param value the value of the row, or {@code null}
+         * @return this builder
+         */
+        public Builder add(String value) {
+            Integer code = codesByValue.get(value);
+            if (code == null) {
+                code = dictionary.size();
+                codesByValue.put(value, code);
+                dictionary.add(value);
+            }
+            if (size == codes.length) {
+                codes = Arrays.copyOf(codes, size + (size >> 1) + 1);
+            }
+            codes[size++] = code;
+            return this;
+        }
+
+        /**
+         * Builds the column, trimming the codes to the number of rows. The builder
+         * should not be used afterwards.
+         * 
+         * @return the column holding every appended row
+         */
+        public DictionaryStringColumn build() {
+            int[] trimmed = codes.length == size ? codes : Arrays.copyOf(codes, size);
+            return new DictionaryStringColumn(dictionary.toArray(new String[0]), codesByValue, trimmed, size);
+        }
+    }
+}
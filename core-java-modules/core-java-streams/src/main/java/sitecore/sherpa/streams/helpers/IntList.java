@@ -0,0 +1,221 @@
+package sitecore.sherpa.streams.helpers;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * A growable list of primitive {@code int} values.
+ * 
+ * Unlike {@code List<Integer>}, the values are stored in a single {@code int[]}
+ * without boxing, so adding an element never allocates more than the occasional
+ * regrowth of the backing array.
+ */
+public class IntList {
+    private static final int DEFAULT_CAPACITY = 10;
+    private static final int[] EMPTY = new int[0];
+
+    private int[] values;
+    private int size;
+
+    /**
+     * Creates an empty list with the default initial capacity.
+     */
+    public IntList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty list that can hold {@code capacity} values before it has to
+     * grow.
+     * 
+     * @param capacity the initial capacity of the list
+     * @throws IllegalArgumentException if the capacity is negative
+     */
+    public IntList(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        }
+        this.values = capacity == 0 ? EMPTY : new int[capacity];
+    }
+
+    private IntList(int[] values, int size) {
+        this.values = values;
+        this.size = size;
+    }
+
+    /**
+     * Creates a list containing the given values.
+     * 
+     * @param values the values of the list
+     * @return a new list containing a copy of the given values
+     */
+    public static IntList of(int... values) {
+        return new IntList(values.clone(), values.length);
+    }
+
+    /**
+     * Creates a list that takes ownership of the first {@code size} values of the
+     * given array, without copying it. The caller must not modify the array
+     * afterwards.
+     * 
+     * @param values the backing array of the list
+     * @param size   the number of values of the array that belong to the list
+     * @return a new list backed by the given array
+     * @throws IllegalArgumentException if the size is outside of the array bounds
+     */
+    public static IntList wrap(int[] values, int size) {
+        if (size < 0 || size > values.length) {
+            throw new IllegalArgumentException("Illegal size: " + size);
+        }
+        return new IntList(values, size);
+    }
+
+    /**
+     * Appends a value to the end of the list.
+     * 
+     * @param value the value to append
+     */
+    public void add(int value) {
+        if (size == values.length) {
+            grow(size + 1);
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * Appends all the values of another list to the end of this list.
+     * 
+     * @param other the list whose values should be appended
+     */
+    public void addAll(IntList other) {
+        ensureCapacity(size + other.size);
+        System.arraycopy(other.values, 0, values, size, other.size);
+        size += other.size;
+    }
+
+    /**
+     * Returns the value at the specified position.
+     * 
+     * @param index the position of the value
+     * @return the value at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int get(int index) {
+        checkIndex(index);
+        return values[index];
+    }
+
+    /**
+     * Replaces the value at the specified position.
+     * 
+     * @param index the position of the value
+     * @param value the new value
+     * @return the value previously at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int set(int index, int value) {
+        checkIndex(index);
+        int previous = values[index];
+        values[index] = value;
+        return previous;
+    }
+
+    /**
+     * Returns the number of values in the list.
+     * 
+     * @return the number of values in the list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the list has no values.
+     * 
+     * @return {@code true} if the list has no values
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all the values of the list, keeping its capacity so that it can be
+     * reused without allocating.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Makes sure that the list can hold at least {@code capacity} values without
+     * growing.
+     * 
+     * @param capacity the minimum capacity
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > values.length) {
+            grow(capacity);
+        }
+    }
+
+    /**
+     * Returns a copy of the values of the list.
+     * 
+     * @return a new array containing the values of the list
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Returns a sequential stream over the values of the list.
+     * 
+     * @return a stream over the values of the list
+     */
+    public IntStream stream() {
+        return Arrays.stream(values, 0, size);
+    }
+
+    private void grow(int minCapacity) {
+        int newCapacity = Math.max(minCapacity, values.length + (values.length >> 1));
+        values = Arrays.copyOf(values, Math.max(newCapacity, DEFAULT_CAPACITY));
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof IntList other)) {
+            return false;
+        }
+        return Arrays.equals(values, 0, size, other.values, 0, other.size);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < size; i++) {
+            hash = 31 * hash + values[i];
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(values[i]);
+        }
+        return builder.append(']').toString();
+    }
+}
@@ -0,0 +1,94 @@
+package sitecore.sherpa.streams.helpers;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A thread-safe cache that holds at most a fixed number of entries, evicting
+ * the least recently used one when it is full.
+ * 
+ * @param <K> the type of the keys
+ * @param <V> the type of the cached values
+ */
+public class LruCache<K, V> {
+    private final int capacity;
+    private final LinkedHashMap<K, V> entries;
+
+    /**
+     * Creates an empty cache.
+     * 
+     * @param capacity the maximum number of entries of the cache
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public LruCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        }
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > LruCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the value cached for the key, computing and caching it first if it
+     * is missing. The value is computed while holding the cache lock, so the
+     * function should be cheap compared to the work the cache saves.
+     * 
+     * @param key     the key of the value
+     * @param compute the function that computes a missing value
+     * @return the cached value
+     */
+    public synchronized V computeIfAbsent(K key, Function<? super K, ? extends V> compute) {
+        return entries.computeIfAbsent(key, compute);
+    }
+
+    /**
+     * Returns the value cached for the key.
+     * 
+     * @param key the key of the value
+     * @return the cached value, or {@code null} if there is none
+     */
+    public synchronized V get(K key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Caches a value, replacing any value previously cached for the key.
+     * 
+     * @param key   the key of the value
+     * @param value the value to cache
+     */
+    public synchronized void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    /**
+     * Returns the number of cached entries.
+     * 
+     * @return the number of cached entries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the maximum number of entries of the cache.
+     * 
+     * @return the capacity of the cache
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Removes every cached entry.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+}
@@ -0,0 +1,171 @@
+package sitecore.sherpa.streams.helpers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A column that packs the UTF-8 bytes of every row back to back. It suits
+ * columns of mostly unique values, such as ids, which would gain nothing from
+ * a dictionary. Reading a row decodes a new {@link String}.
+ * 
+ * The bytes are split into pages of 16 MB, addressed by {@code long} offsets,
+ * so that a column is not limited to the 2 GB of a single array: tens of
+ * millions of 36-byte UUIDs fit. A row may span two pages, in which case it is
+ * copied out before it is decoded.
+ */
+public final class PackedStringColumn extends StringColumn {
+    private static final int DEFAULT_PAGE_SHIFT = 24;
+
+    private final byte[][] pages;
+    private final int pageShift;
+    // Row i spans bytes offsets[i] to offsets[i + 1] of the pages laid end to end
+    private final long[] offsets;
+    // The rows holding null, which take no bytes
+    private final BitSet nulls;
+    private final int size;
+
+    private PackedStringColumn(byte[][] pages, int pageShift, long[] offsets, BitSet nulls, int size) {
+        this.pages = pages;
+        this.pageShift = pageShift;
+        this.offsets = offsets;
+        this.nulls = nulls;
+        this.size = size;
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        if (nulls.get(index)) {
+            return null;
+        }
+        long start = offsets[index];
+        int length = (int) (offsets[index + 1] - start);
+        if (length == 0) {
+            return "";
+        }
+        int page = (int) (start >>> pageShift);
+        int offset = (int) (start & ((1 << pageShift) - 1));
+        if (offset + length <= 1 << pageShift) {
+            return new String(pages[page], offset, length, StandardCharsets.UTF_8);
+        }
+        byte[] row = new byte[length];
+        for (int copied = 0; copied < length; page++, offset = 0) {
+            int chunk = Math.min(length - copied, (1 << pageShift) - offset);
+            System.arraycopy(pages[page], offset, row, copied, chunk);
+            copied += chunk;
+        }
+        return new String(row, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long sizeInBytes() {
+        long bytes = 8L * offsets.length + nulls.size() / 8;
+        for (byte[] page : pages) {
+            bytes += page.length;
+        }
+        return bytes;
+    }
+
+    /**
+     * Accumulates the rows of a packed column.
+     */
+    public static final class Builder {
+        private final int pageShift;
+        private byte[][] pages = new byte[1][];
+        private long[] offsets;
+        private final BitSet nulls = new BitSet();
+        private int size;
+
+        /**
+         * Creates a builder for a column of about {@code capacity} rows of about
+         * {@code averageLength} bytes each.
+         * 
+         * @param capacity      the expected number of rows
+         * @param averageLength the expected length of a row, in bytes
+         */
+        public Builder(int capacity, int averageLength) {
+            this(capacity, averageLength, DEFAULT_PAGE_SHIFT);
+        }
+
+        // Smaller pages let tests cover rows that span pages
+        Builder(int capacity, int averageLength, int pageShift) {
+            this.pageShift = pageShift;
+            this.pages[0] = new byte[(int) Math.min(Math.max((long) capacity * averageLength, 16), 1 << pageShift)];
+            this.offsets = new long[Math.max(capacity, 1) + 1];
+        }
+
+        /**
+         * Appends a row.
+         * 
+         * @param value the value of the row, or {@code null}
+         * @return this builder
+         */
+        public Builder add(String value) {
+            if (size + 1 == offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length + (offsets.length >> 1) + 1);
+            }
+            long end = offsets[size];
+            if (value == null) {
+                nulls.set(size);
+            } else {
+                byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+                for (int copied = 0; copied < encoded.length;) {
+                    byte[] page = pageFor(end, encoded.length - copied);
+                    int offset = (int) (end & ((1 << pageShift) - 1));
+                    int chunk = Math.min(encoded.length - copied, page.length - offset);
+                    System.arraycopy(encoded, copied, page, offset, chunk);
+                    copied += chunk;
+                    end += chunk;
+                }
+            }
+            offsets[++size] = end;
+            return this;
+        }
+
+        /**
+         * Builds the column, trimming the backing arrays to their used length.
+         * The builder should not be used afterwards.
+         * 
+         * @return the column holding every appended row
+         */
+        public PackedStringColumn build() {
+            long length = offsets[size];
+            int pageCount = (int) ((length + (1 << pageShift) - 1) >>> pageShift);
+            byte[][] used = Arrays.copyOf(pages, pageCount);
+            if (pageCount > 0) {
+                int lastLength = (int) (length - ((long) (pageCount - 1) << pageShift));
+                used[pageCount - 1] = Arrays.copyOf(used[pageCount - 1], lastLength);
+            }
+            return new PackedStringColumn(used, pageShift, Arrays.copyOf(offsets, size + 1), nulls, size);
+        }
+
+        // Returns the page holding the byte at the position, growing the last
+        // page or opening a new one as needed
+        private byte[] pageFor(long position, int remaining) {
+            int page = (int) (position >>> pageShift);
+            int offset = (int) (position & ((1 << pageShift) - 1));
+            if (page == pages.length) {
+                pages = Arrays.copyOf(pages, page + 1);
+            }
+            byte[] current = pages[page];
+            if (current == null) {
+                current = new byte[Math.min(Math.max(remaining, 16), 1 << pageShift)];
+                pages[page] = current;
+            } else if (offset == current.length) {
+                int grown = (int) Math.min(Math.max((long) offset + remaining, (long) current.length << 1),
+                        1 << pageShift);
+                current = Arrays.copyOf(current, grown);
+                pages[page] = current;
+            }
+            return current;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package sitecore.sherpa.streams.helpers;
 
+import sitecore.sherpa.streams.intern.StringPool;
+
 public class Person {
     private String id;
     private String name;
@@ -11,6 +13,21 @@ public class Person {
         this.age = age;
     }
 
+    /**
+     * Creates a person whose name is taken from a string pool, so that people
+     * with the same name share one instance of it. Ids are unique, so pooling
+     * them would only grow the pool; they are kept as they are.
+     * 
+     * @param id   the id of the person
+     * @param name the name of the person, or {@code null}
+     * @param age  the age of the person
+     * @param pool the pool the name is interned into
+     * @return a new person holding the pooled name
+     */
+    public static Person interned(String id, String name, int age, StringPool pool) {
+        return new Person(id, name == null ? null : pool.intern(name), age);
+    }
+
     public String getId() {
         return id;
     }
@@ -0,0 +1,111 @@
+package sitecore.sherpa.streams.helpers;
+
+import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A service of the latency challenge, with its average latency for each day
+ * of the week.
+ * 
+ * The challenge keeps the latencies in a {@code Map<String, Double>} keyed by
+ * day name, which boxes every value and hashes the day name on every read.
+ * Here they are stored in a {@code double[7]} indexed by
+ * {@link DayOfWeek#ordinal()}, with {@code NaN} marking a day without a value.
+ */
+public class Service {
+    private static final int DAYS = 7;
+
+    private final String serviceName;
+    private final String serviceArea;
+    private final double[] weeklyLatency;
+
+    /**
+     * Creates a service from its latencies, indexed by
+     * {@link DayOfWeek#ordinal()} (Monday is 0).
+     * 
+     * @param serviceName   the name of the service
+     * @param serviceArea   the area the service belongs to
+     * @param weeklyLatency the seven daily latencies, {@code NaN} for a day
+     *                      without a value
+     */
+    public Service(String serviceName, String serviceArea, double[] weeklyLatency) {
+        if (weeklyLatency.length != DAYS) {
+            throw new IllegalArgumentException("Expected 7 daily latencies, got " + weeklyLatency.length);
+        }
+        this.serviceName = serviceName;
+        this.serviceArea = serviceArea;
+        this.weeklyLatency = weeklyLatency.clone();
+    }
+
+    /**
+     * Creates a service from latencies keyed by day name, as in the challenge.
+     * 
+     * @param serviceName   the name of the service
+     * @param serviceArea   the area the service belongs to
+     * @param weeklyLatency the latencies keyed by day name ("Monday", ...),
+     *                      missing days have no value
+     */
+    public Service(String serviceName, String serviceArea, Map<String, Double> weeklyLatency) {
+        this.serviceName = serviceName;
+        this.serviceArea = serviceArea;
+        this.weeklyLatency = new double[DAYS];
+        Arrays.fill(this.weeklyLatency, Double.NaN);
+        weeklyLatency.forEach((day, latency) -> this.weeklyLatency[dayOf(day).ordinal()] = latency);
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public String getServiceArea() {
+        return serviceArea;
+    }
+
+    /**
+     * Returns the latency of one day.
+     * 
+     * @param day the day of the week
+     * @return the latency of the day, or {@code NaN} if it has no value
+     */
+    public double getLatency(DayOfWeek day) {
+        return weeklyLatency[day.ordinal()];
+    }
+
+    /**
+     * Returns the latency of one day.
+     * 
+     * @param dayIndex the {@link DayOfWeek#ordinal()} of the day
+     * @return the latency of the day, or {@code NaN} if it has no value
+     */
+    public double getLatency(int dayIndex) {
+        return weeklyLatency[dayIndex];
+    }
+
+    /**
+     * Returns a copy of the latencies, indexed by {@link DayOfWeek#ordinal()}.
+     * 
+     * @return the seven daily latencies, {@code NaN} for a day without a value
+     */
+    public double[] getWeeklyLatency() {
+        return weeklyLatency.clone();
+    }
+
+    /**
+     * Returns a copy of this service with the latency of one day replaced.
+     * 
+     * @param day     the day of the week
+     * @param latency the new latency of the day, {@code NaN} to remove it
+     * @return a new service with the same name and area
+     */
+    public Service withLatency(DayOfWeek day, double latency) {
+        Service copy = new Service(serviceName, serviceArea, weeklyLatency);
+        copy.weeklyLatency[day.ordinal()] = latency;
+        return copy;
+    }
+
+    private static DayOfWeek dayOf(String day) {
+        return DayOfWeek.valueOf(day.toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,23 @@
+package sitecore.sherpa.streams.helpers;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * A read-only column of strings, stored in a compact layout rather than as one
+ * {@link String} object per row.
+ */
+public sealed abstract class StringColumn extends AbstractList<String> implements RandomAccess
+        permits DictionaryStringColumn, PackedStringColumn {
+
+    StringColumn() {
+    }
+
+    /**
+     * Returns the number of bytes used by the column's backing arrays, an
+     * estimate of its footprint that leaves out object headers.
+     * 
+     * @return the approximate size of the column in bytes
+     */
+    public abstract long sizeInBytes();
+}
@@ -0,0 +1,245 @@
+package sitecore.sherpa.streams.index;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.UnaryOperator;
+
+/**
+ * A snapshot of a list of strings that answers prefix queries without
+ * scanning the list.
+ * 
+ * {@code Filtering.filterByFirstLetter} calls {@code startsWith} on every
+ * string of the list, on every call. The index sorts the strings once;
+ * the strings with a given prefix are then one contiguous range of the sorted
+ * array, whose bounds are found with two binary searches of
+ * {@code O(prefix × log n)} character comparisons. Any prefix works, not only
+ * single letters.
+ * 
+ * Queries that return positions, or strings in the order of the list, must
+ * undo the sort. For that the index also keeps, for every first character,
+ * the sorted entries starting with it in the order of the list. A one-letter
+ * prefix matches exactly one such group and is answered without sorting; a
+ * longer prefix either filters the group of its first letter or sorts its
+ * matches, whichever is cheaper.
+ * 
+ * The index keeps the strings, the sorted keys, and two {@code int}s per
+ * string, and takes an {@code O(n log n)} sort to build. It pays off when the
+ * same list is queried many times, as by an autocomplete service; for a
+ * single query, scanning is cheaper. {@link SuffixIndex} does the same for
+ * suffixes.
+ * 
+ * Instances are immutable and can be shared between threads.
+ */
+public final class PrefixIndex {
+    private final String[] strings;
+    private final String[] keys;
+    // The position in the list of each sorted key
+    private final int[] order;
+    // The sorted indexes of the keys of each first character, in list order
+    private final int[] listOrder;
+
+    private record Entry(String key, int position) {
+    }
+
+    /**
+     * Creates an index over a copy of a list of strings.
+     * 
+     * @param strings the strings to index, without {@code null}s
+     */
+    public PrefixIndex(List<String> strings) {
+        this(strings, UnaryOperator.identity());
+    }
+
+    // Sorts the strings by key; the suffix index passes reversed strings
+    PrefixIndex(List<String> strings, UnaryOperator<String> keyOf) {
+        this.strings = strings.toArray(new String[0]);
+        Entry[] entries = new Entry[this.strings.length];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = new Entry(keyOf.apply(this.strings[i]), i);
+        }
+        Arrays.parallelSort(entries, Comparator.comparing(Entry::key));
+        this.keys = new String[entries.length];
+        this.order = new int[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            keys[i] = entries[i].key();
+            order[i] = entries[i].position();
+        }
+        this.listOrder = groupInListOrder(keys, order);
+    }
+
+    // Walks the list in order and appends each sorted index to the group of
+    // its first character, so that every group ends up in list order
+    private static int[] groupInListOrder(String[] keys, int[] order) {
+        int[] groupOf = new int[keys.length];
+        for (int i = 1; i < keys.length; i++) {
+            groupOf[i] = firstChar(keys[i]) == firstChar(keys[i - 1]) ? groupOf[i - 1] : i;
+        }
+        int[] sortedIndexOf = new int[keys.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedIndexOf[order[i]] = i;
+        }
+        // The next free slot of each group, stored at the start of the group
+        int[] next = new int[keys.length];
+        Arrays.setAll(next, i -> i);
+        int[] listOrder = new int[keys.length];
+        for (int sortedIndex : sortedIndexOf) {
+            listOrder[next[groupOf[sortedIndex]]++] = sortedIndex;
+        }
+        return listOrder;
+    }
+
+    private static int firstChar(String key) {
+        return key.isEmpty() ? -1 : key.charAt(0);
+    }
+
+    /**
+     * Returns the number of strings of the index.
+     * 
+     * @return the size of the indexed list
+     */
+    public int size() {
+        return strings.length;
+    }
+
+    /**
+     * Counts the strings that start with a prefix, without visiting them.
+     * 
+     * @param prefix the prefix that a string should start with
+     * @return the number of strings with the prefix
+     */
+    public int count(String prefix) {
+        int from = lowerBound(prefix);
+        return upperBound(prefix, from) - from;
+    }
+
+    /**
+     * Returns the strings that start with a prefix, in lexicographic order,
+     * as suggested by an autocomplete. The list is a read-only view of the
+     * index, so this method costs only the two binary searches; use
+     * {@code subList} for the first suggestions.
+     * 
+     * @param prefix the prefix that a string should start with
+     * @return an unmodifiable view of the strings with the prefix
+     */
+    public List<String> withPrefix(String prefix) {
+        int from = lowerBound(prefix);
+        return new Range(from, upperBound(prefix, from));
+    }
+
+    /**
+     * Returns the positions in the indexed list of the strings that start
+     * with a prefix. For a prefix of one character this costs only the copy of
+     * the positions.
+     * 
+     * @param prefix the prefix that a string should start with
+     * @return a new array of the positions, in ascending order
+     */
+    public int[] positionsWithPrefix(String prefix) {
+        if (prefix.isEmpty()) {
+            int[] positions = new int[strings.length];
+            Arrays.setAll(positions, i -> i);
+            return positions;
+        }
+        int from = lowerBound(prefix);
+        int to = upperBound(prefix, from);
+        int count = to - from;
+        if (count == 0) {
+            return new int[0];
+        }
+        String letter = prefix.length() == 1 ? prefix : prefix.substring(0, 1);
+        int groupFrom = prefix.length() == 1 ? from : lowerBound(letter);
+        int groupTo = prefix.length() == 1 ? to : upperBound(letter, groupFrom);
+        int[] positions = new int[count];
+        if (count == groupTo - groupFrom) {
+            for (int i = 0; i < count; i++) {
+                positions[i] = order[listOrder[groupFrom + i]];
+            }
+        } else if ((long) count * (32 - Integer.numberOfLeadingZeros(count)) < groupTo - groupFrom) {
+            // Few matches in a large group: sorting them beats filtering it
+            System.arraycopy(order, from, positions, 0, count);
+            Arrays.sort(positions);
+        } else {
+            int found = 0;
+            for (int i = groupFrom; i < groupTo; i++) {
+                int sortedIndex = listOrder[i];
+                if (sortedIndex >= from && sortedIndex < to) {
+                    positions[found++] = order[sortedIndex];
+                }
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Returns the strings that start with a prefix in the order of the indexed
+     * list, the same result as scanning the list with {@code startsWith}. The
+     * order is restored as described by {@link #positionsWithPrefix(String)}.
+     * 
+     * @param prefix the prefix that a string should start with
+     * @return a new list of the strings with the prefix
+     */
+    public List<String> filterByPrefix(String prefix) {
+        int[] positions = positionsWithPrefix(prefix);
+        List<String> result = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            result.add(strings[position]);
+        }
+        return result;
+    }
+
+    private int lowerBound(String prefix) {
+        // First key not below the prefix, which is where keys with it start
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle].compareTo(prefix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int upperBound(String prefix, int from) {
+        // Keys with the prefix are contiguous from lowerBound: first key
+        // after them, all keys past it sorting above every one of them
+        int low = from;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle].startsWith(prefix)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private final class Range extends AbstractList<String> implements RandomAccess {
+        private final int from;
+        private final int to;
+
+        Range(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public String get(int index) {
+            return strings[order[from + Objects.checkIndex(index, to - from)]];
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+}
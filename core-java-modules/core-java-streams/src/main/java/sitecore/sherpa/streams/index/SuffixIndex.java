@@ -0,0 +1,87 @@
+package sitecore.sherpa.streams.index;
+
+import java.util.List;
+
+/**
+ * A snapshot of a list of strings that answers suffix queries without
+ * scanning the list, the counterpart of {@link PrefixIndex} for
+ * {@code Filtering.filterByLastLetter}.
+ * 
+ * A string ends with a suffix exactly when its reverse starts with the
+ * reversed suffix, so the index is a {@link PrefixIndex} keyed by the
+ * reversed strings, and every query reverses its suffix once. Like the prefix
+ * index, it costs a sort to build and pays off over repeated queries.
+ * 
+ * Instances are immutable and can be shared between threads.
+ */
+public final class SuffixIndex {
+    private final PrefixIndex reversed;
+
+    /**
+     * Creates an index over a copy of a list of strings.
+     * 
+     * @param strings the strings to index, without {@code null}s
+     */
+    public SuffixIndex(List<String> strings) {
+        this.reversed = new PrefixIndex(strings, SuffixIndex::reverse);
+    }
+
+    /**
+     * Returns the number of strings of the index.
+     * 
+     * @return the size of the indexed list
+     */
+    public int size() {
+        return reversed.size();
+    }
+
+    /**
+     * Counts the strings that end with a suffix, without visiting them.
+     * 
+     * @param suffix the suffix that a string should end with
+     * @return the number of strings with the suffix
+     */
+    public int count(String suffix) {
+        return reversed.count(reverse(suffix));
+    }
+
+    /**
+     * Returns the strings that end with a suffix, ordered by their reverse,
+     * so that strings sharing a longer suffix are next to each other. The
+     * list is a read-only view of the index.
+     * 
+     * @param suffix the suffix that a string should end with
+     * @return an unmodifiable view of the strings with the suffix
+     */
+    public List<String> withSuffix(String suffix) {
+        return reversed.withPrefix(reverse(suffix));
+    }
+
+    /**
+     * Returns the positions in the indexed list of the strings that end with
+     * a suffix.
+     * 
+     * @param suffix the suffix that a string should end with
+     * @return a new array of the positions, in ascending order
+     */
+    public int[] positionsWithSuffix(String suffix) {
+        return reversed.positionsWithPrefix(reverse(suffix));
+    }
+
+    /**
+     * Returns the strings that end with a suffix in the order of the indexed
+     * list, the same result as scanning the list with {@code endsWith}.
+     * 
+     * @param suffix the suffix that a string should end with
+     * @return a new list of the strings with the suffix
+     */
+    public List<String> filterBySuffix(String suffix) {
+        return reversed.filterByPrefix(reverse(suffix));
+    }
+
+    // Keeps surrogate pairs in order, so that reversed strings compare
+    // consistently with reversed suffixes
+    private static String reverse(String string) {
+        return new StringBuilder(string).reverse().toString();
+    }
+}
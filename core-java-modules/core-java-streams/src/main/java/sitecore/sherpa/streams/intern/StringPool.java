@@ -0,0 +1,66 @@
+package sitecore.sherpa.streams.intern;
+
+/**
+ * A pool of canonical string instances, so that equal strings read from many
+ * records share one {@link String} instead of one copy each.
+ * 
+ * Datasets of people repeat the same names millions of times, and every
+ * record decoded from a file or a request holds its own copy. Passing each
+ * string through a pool keeps only the first copy: the others become garbage
+ * right away, and equal pooled strings are the same object, so they compare
+ * with {@code ==} before {@code equals} has to look at their characters.
+ * 
+ * Unlike {@link String#intern()}, a pool is not global: a
+ * {@link WeakStringPool} lets unused strings be collected, and an
+ * {@link ArenaStringPool} drops all of its strings at once when it is closed.
+ */
+public interface StringPool {
+
+    /**
+     * Returns the pooled string equal to a value, adding the value to the pool
+     * if it holds no such string.
+     * 
+     * @param value the string to look up, not {@code null}
+     * @return the canonical instance equal to the value
+     */
+    String intern(String value);
+
+    /**
+     * Returns the pooled string equal to a value, without adding the value to
+     * the pool. Lookups such as filter values, which are not kept, use this
+     * instead of {@link #intern(String)} so that they do not grow the pool.
+     * 
+     * @param value the string to look up, not {@code null}
+     * @return the canonical instance equal to the value, or {@code null} if
+     *         the pool holds no such string
+     */
+    String find(String value);
+
+    /**
+     * Returns the number of distinct strings of the pool. Weak pools may
+     * still count strings that are being collected.
+     * 
+     * @return the approximate number of pooled strings
+     */
+    int size();
+
+    /**
+     * Creates a pool that holds its strings weakly, for pools that live as
+     * long as the application.
+     * 
+     * @return a new, empty weak pool
+     */
+    static WeakStringPool weak() {
+        return new WeakStringPool();
+    }
+
+    /**
+     * Creates a pool that holds its strings until it is closed, for pools that
+     * live as long as one load.
+     * 
+     * @return a new, empty arena pool
+     */
+    static ArenaStringPool arena() {
+        return new ArenaStringPool();
+    }
+}
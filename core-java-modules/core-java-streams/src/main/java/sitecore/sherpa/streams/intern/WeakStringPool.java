@@ -0,0 +1,71 @@
+package sitecore.sherpa.streams.intern;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+/**
+ * A thread-safe string pool that holds its strings weakly: a pooled string
+ * that nothing else references is collected, and dropped from the pool.
+ * 
+ * The pool is split into stripes by hash code, each a {@link WeakHashMap}
+ * under its own lock, so threads interning different strings rarely wait for
+ * each other. Each entry maps a string to a weak reference to itself, since a
+ * {@code WeakHashMap} only holds its keys weakly.
+ */
+public final class WeakStringPool implements StringPool {
+    private static final int STRIPES = 16;
+
+    private final List<Map<String, WeakReference<String>>> stripes = new ArrayList<>(STRIPES);
+
+    WeakStringPool() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes.add(new WeakHashMap<>());
+        }
+    }
+
+    @Override
+    public String intern(String value) {
+        Objects.requireNonNull(value);
+        Map<String, WeakReference<String>> stripe = stripeOf(value);
+        synchronized (stripe) {
+            WeakReference<String> reference = stripe.get(value);
+            String pooled = reference == null ? null : reference.get();
+            if (pooled == null) {
+                stripe.put(value, new WeakReference<>(value));
+                pooled = value;
+            }
+            return pooled;
+        }
+    }
+
+    @Override
+    public String find(String value) {
+        Objects.requireNonNull(value);
+        Map<String, WeakReference<String>> stripe = stripeOf(value);
+        synchronized (stripe) {
+            WeakReference<String> reference = stripe.get(value);
+            return reference == null ? null : reference.get();
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Map<String, WeakReference<String>> stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    // The low bits of a String hash are poorly spread for short strings
+    private Map<String, WeakReference<String>> stripeOf(String value) {
+        int hash = value.hashCode();
+        return stripes.get((hash ^ (hash >>> 16)) & (STRIPES - 1));
+    }
+}
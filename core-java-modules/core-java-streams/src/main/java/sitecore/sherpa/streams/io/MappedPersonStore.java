@@ -0,0 +1,300 @@
+package sitecore.sherpa.streams.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.IntPredicate;
+
+import sitecore.sherpa.streams.helpers.IntList;
+import sitecore.sherpa.streams.helpers.Person;
+import sitecore.sherpa.streams.intern.StringPool;
+
+/**
+ * A read-only view of a person file, memory mapped instead of loaded.
+ * 
+ * Opening a store only reads the header: the records stay in the file and are
+ * paged in by the operating system as they are accessed, outside of the Java
+ * heap. Projections and age filters read the fields they need straight from
+ * the mapped bytes, so a dataset larger than the heap can be scanned without
+ * ever creating its {@link Person} objects.
+ * 
+ * A single mapping is limited to 2 GB, so larger files are mapped as several
+ * segments of whole records. A store can be shared between threads.
+ * 
+ * @see PersonFileFormat
+ * @see PersonFileWriter
+ */
+public class MappedPersonStore implements Closeable {
+    private final FileChannel channel;
+    private final int idWidth;
+    private final int recordSize;
+    private final int size;
+    private final int recordsPerSegment;
+    private final ByteBuffer[] segments;
+
+    private MappedPersonStore(FileChannel channel, int idWidth, int recordSize, int size, int recordsPerSegment,
+            ByteBuffer[] segments) {
+        this.channel = channel;
+        this.idWidth = idWidth;
+        this.recordSize = recordSize;
+        this.size = size;
+        this.recordsPerSegment = recordsPerSegment;
+        this.segments = segments;
+    }
+
+    /**
+     * Opens and maps a person file.
+     * 
+     * @param path the person file
+     * @return a store over the records of the file
+     * @throws IOException if the file cannot be read, or is not a complete
+     *                     person file
+     */
+    public static MappedPersonStore open(Path path) throws IOException {
+        return open(path, Integer.MAX_VALUE);
+    }
+
+    // The segment size can be lowered to exercise multi-segment files in tests
+    static MappedPersonStore open(Path path, int maxSegmentBytes) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(PersonFileFormat.HEADER_SIZE).order(PersonFileFormat.BYTE_ORDER);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    break;
+                }
+            }
+            if (header.hasRemaining() || header.getInt(PersonFileFormat.MAGIC_OFFSET) != PersonFileFormat.MAGIC) {
+                throw new IOException(path + " is not a person file");
+            }
+            int version = header.getInt(PersonFileFormat.VERSION_OFFSET);
+            if (version != PersonFileFormat.VERSION) {
+                throw new IOException(path + " has unsupported version " + version);
+            }
+            int idWidth = header.getInt(PersonFileFormat.ID_WIDTH_OFFSET);
+            int nameWidth = header.getInt(PersonFileFormat.NAME_WIDTH_OFFSET);
+            try {
+                PersonFileFormat.checkWidth("id", idWidth);
+                PersonFileFormat.checkWidth("name", nameWidth);
+            } catch (IllegalArgumentException e) {
+                throw new IOException(path + " has a corrupt header: " + e.getMessage(), e);
+            }
+            long count = header.getLong(PersonFileFormat.COUNT_OFFSET);
+            int recordSize = PersonFileFormat.recordSize(idWidth, nameWidth);
+            if (count < 0 || count > Integer.MAX_VALUE
+                    || channel.size() < PersonFileFormat.HEADER_SIZE + count * recordSize) {
+                throw new IOException(path + " is truncated or was not closed properly");
+            }
+
+            int size = (int) count;
+            int recordsPerSegment = Math.max(1, maxSegmentBytes / recordSize);
+            int segmentCount = size == 0 ? 0 : (size - 1) / recordsPerSegment + 1;
+            ByteBuffer[] segments = new ByteBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                long first = (long) i * recordsPerSegment;
+                long records = Math.min(recordsPerSegment, size - first);
+                MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY,
+                        PersonFileFormat.HEADER_SIZE + first * recordSize, records * recordSize);
+                segments[i] = segment.order(PersonFileFormat.BYTE_ORDER);
+            }
+            return new MappedPersonStore(channel, idWidth, recordSize, size, recordsPerSegment, segments);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of people in the store.
+     * 
+     * @return the number of records of the file
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Reads the age of the person at the specified row.
+     * 
+     * @param index the row of the person
+     * @return the age of the person
+     */
+    public int ageAt(int index) {
+        checkIndex(index);
+        return segment(index).getInt(offset(index) + PersonFileFormat.AGE_OFFSET);
+    }
+
+    /**
+     * Reads the id of the person at the specified row.
+     * 
+     * @param index the row of the person
+     * @return the id of the person
+     */
+    public String idAt(int index) {
+        checkIndex(index);
+        ByteBuffer segment = segment(index);
+        int offset = offset(index);
+        int length = segment.getShort(offset + PersonFileFormat.ID_LENGTH_OFFSET);
+        return decode(segment, offset + PersonFileFormat.ID_OFFSET, length);
+    }
+
+    /**
+     * Reads the name of the person at the specified row.
+     * 
+     * @param index the row of the person
+     * @return the name of the person
+     */
+    public String nameAt(int index) {
+        checkIndex(index);
+        ByteBuffer segment = segment(index);
+        int offset = offset(index);
+        int length = segment.getShort(offset + PersonFileFormat.NAME_LENGTH_OFFSET);
+        return decode(segment, offset + PersonFileFormat.ID_OFFSET + idWidth, length);
+    }
+
+    /**
+     * Reads the person at the specified row.
+     * 
+     * @param index the row of the person
+     * @return a new Person object holding the record
+     */
+    public Person get(int index) {
+        return new Person(idAt(index), nameAt(index), ageAt(index));
+    }
+
+    /**
+     * Reads the person at the specified row, interning the decoded name, so
+     * that people loaded with the same pool share their names.
+     * 
+     * @param index the row of the person
+     * @param pool  the pool the name is interned into
+     * @return a new Person object holding the record
+     */
+    public Person get(int index, StringPool pool) {
+        return Person.interned(idAt(index), nameAt(index), ageAt(index), pool);
+    }
+
+    /**
+     * Returns the ids of the store, as a view that decodes each id when it is
+     * read.
+     * 
+     * @return a read-only list of the ids
+     */
+    public List<String> ids() {
+        return new FieldView<>() {
+            @Override
+            public String get(int index) {
+                return idAt(index);
+            }
+        };
+    }
+
+    /**
+     * Returns the names of the store, as a view that decodes each name when it
+     * is read.
+     * 
+     * @return a read-only list of the names
+     */
+    public List<String> names() {
+        return new FieldView<>() {
+            @Override
+            public String get(int index) {
+                return nameAt(index);
+            }
+        };
+    }
+
+    /**
+     * Returns the ages of the store, as a view that reads each age when it is
+     * accessed.
+     * 
+     * @return a read-only list of the ages
+     */
+    public List<Integer> ages() {
+        return new FieldView<>() {
+            @Override
+            public Integer get(int index) {
+                return ageAt(index);
+            }
+        };
+    }
+
+    /**
+     * Finds the rows whose age matches a predicate, reading only the age field
+     * of each record.
+     * 
+     * @param predicate the condition on the age
+     * @return the matching rows, in ascending order
+     */
+    public IntList filterByAge(IntPredicate predicate) {
+        IntList rows = new IntList();
+        int row = 0;
+        for (ByteBuffer segment : segments) {
+            int limit = segment.limit();
+            for (int offset = PersonFileFormat.AGE_OFFSET; offset < limit; offset += recordSize, row++) {
+                if (predicate.test(segment.getInt(offset))) {
+                    rows.add(row);
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Finds the rows whose age lies in a range, reading only the age field of
+     * each record.
+     * 
+     * @param minAge the lowest accepted age, inclusive
+     * @param maxAge the highest accepted age, inclusive
+     * @return the matching rows, in ascending order
+     */
+    public IntList filterByAgeRange(int minAge, int maxAge) {
+        return filterByAge(age -> age >= minAge && age <= maxAge);
+    }
+
+    /**
+     * Releases the file. The mapped memory itself is released by the garbage
+     * collector once the store and its views are unreachable.
+     * 
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private ByteBuffer segment(int index) {
+        return segments[index / recordsPerSegment];
+    }
+
+    private int offset(int index) {
+        return (index % recordsPerSegment) * recordSize;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private static String decode(ByteBuffer segment, int offset, int length) {
+        byte[] bytes = new byte[length];
+        segment.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private abstract class FieldView<T> extends AbstractList<T> implements RandomAccess {
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package sitecore.sherpa.streams.io;
+
+import java.nio.ByteOrder;
+
+/**
+ * The layout of a binary person file.
+ * 
+ * A person file starts with a {@value #HEADER_SIZE} byte header, followed by
+ * one fixed size record per person, so that the record of any row can be found
+ * with a multiplication instead of a scan. All numbers are little endian.
+ * 
+ * <pre>
+ * header:  magic (int) | version (int) | idWidth (int) | nameWidth (int) | count (long) | reserved (8 bytes)
+ * record:  age (int) | idLength (short) | nameLength (short) | id (idWidth bytes) | name (nameWidth bytes) | padding
+ * </pre>
+ * 
+ * Ids and names are stored as UTF-8, zero padded up to the width of their
+ * field, and records are padded to a multiple of 4 bytes so that every age is
+ * aligned.
+ */
+public final class PersonFileFormat {
+    /** The first four bytes of every person file: "PRSN". */
+    public static final int MAGIC = 0x5052534E;
+    /** The version of the layout described by this class. */
+    public static final int VERSION = 1;
+    /** The size of the header, in bytes. */
+    public static final int HEADER_SIZE = 32;
+    /** The byte order of every number in the file. */
+    public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    static final int MAGIC_OFFSET = 0;
+    static final int VERSION_OFFSET = 4;
+    static final int ID_WIDTH_OFFSET = 8;
+    static final int NAME_WIDTH_OFFSET = 12;
+    static final int COUNT_OFFSET = 16;
+
+    static final int AGE_OFFSET = 0;
+    static final int ID_LENGTH_OFFSET = 4;
+    static final int NAME_LENGTH_OFFSET = 6;
+    static final int ID_OFFSET = 8;
+
+    /** The largest width of the id and name fields, in bytes. */
+    public static final int MAX_FIELD_WIDTH = Short.MAX_VALUE;
+
+    private PersonFileFormat() {
+    }
+
+    /**
+     * Returns the size of a record with the specified field widths.
+     * 
+     * @param idWidth   the width of the id field, in bytes
+     * @param nameWidth the width of the name field, in bytes
+     * @return the size of a record, in bytes
+     */
+    public static int recordSize(int idWidth, int nameWidth) {
+        int unpadded = ID_OFFSET + idWidth + nameWidth;
+        return (unpadded + 3) & ~3;
+    }
+
+    static void checkWidth(String field, int width) {
+        if (width < 0 || width > MAX_FIELD_WIDTH) {
+            throw new IllegalArgumentException("Illegal " + field + " width: " + width);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package sitecore.sherpa.streams.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+import sitecore.sherpa.streams.helpers.Person;
+
+/**
+ * Writes people to a binary person file, one record at a time, so that files
+ * larger than the heap can be produced from a streamed source.
+ * 
+ * The number of records is written into the header when the writer is closed.
+ * A file whose writer was not closed is incomplete and cannot be opened.
+ * 
+ * @see PersonFileFormat
+ */
+public class PersonFileWriter implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final int idWidth;
+    private final int nameWidth;
+    private final int recordSize;
+    private final ByteBuffer buffer;
+    private long count;
+
+    /**
+     * Creates (or truncates) a person file.
+     * 
+     * @param path      the file to write
+     * @param idWidth   the width of the id field, in UTF-8 bytes
+     * @param nameWidth the width of the name field, in UTF-8 bytes
+     * @throws IOException if the file cannot be created
+     */
+    public PersonFileWriter(Path path, int idWidth, int nameWidth) throws IOException {
+        PersonFileFormat.checkWidth("id", idWidth);
+        PersonFileFormat.checkWidth("name", nameWidth);
+        this.idWidth = idWidth;
+        this.nameWidth = nameWidth;
+        this.recordSize = PersonFileFormat.recordSize(idWidth, nameWidth);
+        this.buffer = ByteBuffer.allocate(Math.max(BUFFER_SIZE, recordSize)).order(PersonFileFormat.BYTE_ORDER);
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+
+        // The count is only known at the end, see close()
+        try {
+            ByteBuffer header = header(0);
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes a list of people to a new person file, with fields just wide enough
+     * for the longest id and name.
+     * 
+     * @param path   the file to write
+     * @param people the people to write
+     * @throws IOException              if the file cannot be written
+     * @throws IllegalArgumentException if a person has no id or no name
+     */
+    public static void write(Path path, List<Person> people) throws IOException {
+        int idWidth = 0;
+        int nameWidth = 0;
+        for (Person person : people) {
+            idWidth = Math.max(idWidth, utf8Length("id", person.getId()));
+            nameWidth = Math.max(nameWidth, utf8Length("name", person.getName()));
+        }
+        try (PersonFileWriter writer = new PersonFileWriter(path, idWidth, nameWidth)) {
+            for (Person person : people) {
+                writer.append(person);
+            }
+        }
+    }
+
+    /**
+     * Appends a person.
+     * 
+     * @param person the person to append
+     * @throws IOException if the record cannot be written
+     */
+    public void append(Person person) throws IOException {
+        append(person.getId(), person.getName(), person.getAge());
+    }
+
+    /**
+     * Appends a person from its fields, without creating a Person object.
+     * 
+     * @param id   the id of the person
+     * @param name the name of the person
+     * @param age  the age of the person
+     * @throws IOException              if the record cannot be written
+     * @throws IllegalArgumentException if the id or the name is null, or does
+     *                                  not fit in its field
+     */
+    public void append(String id, String name, int age) throws IOException {
+        byte[] idBytes = encode("id", id, idWidth);
+        byte[] nameBytes = encode("name", name, nameWidth);
+        if (buffer.remaining() < recordSize) {
+            flush();
+        }
+
+        // The buffer is reused between flushes, so clear the padding first
+        int start = buffer.position();
+        Arrays.fill(buffer.array(), start, start + recordSize, (byte) 0);
+        buffer.putInt(start + PersonFileFormat.AGE_OFFSET, age)
+                .putShort(start + PersonFileFormat.ID_LENGTH_OFFSET, (short) idBytes.length)
+                .putShort(start + PersonFileFormat.NAME_LENGTH_OFFSET, (short) nameBytes.length)
+                .put(start + PersonFileFormat.ID_OFFSET, idBytes)
+                .put(start + PersonFileFormat.ID_OFFSET + idWidth, nameBytes)
+                .position(start + recordSize);
+        count++;
+    }
+
+    /**
+     * Flushes the buffered records and writes the final record count into the
+     * header.
+     * 
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+            ByteBuffer header = header(count);
+            long position = 0;
+            while (header.hasRemaining()) {
+                position += channel.write(header, position);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private ByteBuffer header(long count) {
+        ByteBuffer header = ByteBuffer.allocate(PersonFileFormat.HEADER_SIZE).order(PersonFileFormat.BYTE_ORDER);
+        header.putInt(PersonFileFormat.MAGIC_OFFSET, PersonFileFormat.MAGIC)
+                .putInt(PersonFileFormat.VERSION_OFFSET, PersonFileFormat.VERSION)
+                .putInt(PersonFileFormat.ID_WIDTH_OFFSET, idWidth)
+                .putInt(PersonFileFormat.NAME_WIDTH_OFFSET, nameWidth)
+                .putLong(PersonFileFormat.COUNT_OFFSET, count);
+        return header;
+    }
+
+    private static byte[] encode(String field, String value, int width) {
+        byte[] bytes = utf8(field, value);
+        if (bytes.length > width) {
+            throw new IllegalArgumentException(
+                    "The " + field + " '" + value + "' is longer than " + width + " bytes");
+        }
+        return bytes;
+    }
+
+    private static int utf8Length(String field, String value) {
+        return utf8(field, value).length;
+    }
+
+    // The format has no way to tell a null field from an empty one
+    private static byte[] utf8(String field, String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("A person file cannot store a null " + field);
+        }
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
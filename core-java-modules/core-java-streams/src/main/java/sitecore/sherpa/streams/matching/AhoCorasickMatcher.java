@@ -0,0 +1,237 @@
+package sitecore.sherpa.streams.matching;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Matches a string against many substrings at once, using an Aho-Corasick
+ * automaton.
+ * 
+ * The automaton is compiled once per list of patterns, and every string is then
+ * scanned a single time, no matter how many patterns there are. Checking a
+ * string of length {@code m} against {@code k} patterns with
+ * {@link String#contains} costs {@code O(k * m)}; with the matcher it costs
+ * {@code O(m)}.
+ * 
+ * A compiled matcher is immutable and can be shared between threads.
+ */
+public final class AhoCorasickMatcher {
+    private static final int ASCII = 128;
+    private static final int ROOT = 0;
+    private static final int[] NO_PATTERNS = new int[0];
+
+    private final int patternCount;
+    private final int alphabetSize;
+    // Column of every ASCII character in the transition table, or -1 when no
+    // pattern contains it. Other characters are looked up in unicodeAlphabet.
+    private final int[] asciiColumns;
+    private final char[] unicodeAlphabet;
+    // Complete transition function: transitions[state * alphabetSize + column].
+    private final int[] transitions;
+    // Patterns that end in every state, including the ones reached through
+    // failure links.
+    private final int[][] matches;
+
+    private AhoCorasickMatcher(int patternCount, int alphabetSize, int[] asciiColumns, char[] unicodeAlphabet,
+            int[] transitions, int[][] matches) {
+        this.patternCount = patternCount;
+        this.alphabetSize = alphabetSize;
+        this.asciiColumns = asciiColumns;
+        this.unicodeAlphabet = unicodeAlphabet;
+        this.transitions = transitions;
+        this.matches = matches;
+    }
+
+    /**
+     * Compiles a matcher for the specified patterns. Duplicate patterns are only
+     * matched once.
+     * 
+     * @param patterns the substrings to look for
+     * @return a matcher for the specified patterns
+     */
+    public static AhoCorasickMatcher compile(List<String> patterns) {
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(patterns));
+
+        // Assign a column to every character that appears in a pattern
+        int[] asciiColumns = new int[ASCII];
+        Arrays.fill(asciiColumns, -1);
+        Set<Character> unicode = new TreeSet<>();
+        int alphabetSize = 0;
+        for (String pattern : distinct) {
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (c < ASCII) {
+                    if (asciiColumns[c] < 0) {
+                        asciiColumns[c] = alphabetSize++;
+                    }
+                } else {
+                    unicode.add(c);
+                }
+            }
+        }
+        char[] unicodeAlphabet = new char[unicode.size()];
+        int u = 0;
+        for (char c : unicode) {
+            unicodeAlphabet[u++] = c;
+        }
+        int asciiSize = alphabetSize;
+        alphabetSize += unicodeAlphabet.length;
+
+        // Build the trie of the patterns, where 0 means "no child"
+        List<int[]> children = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        children.add(new int[alphabetSize]);
+        ends.add(new ArrayList<>());
+        for (int id = 0; id < distinct.size(); id++) {
+            String pattern = distinct.get(id);
+            int state = ROOT;
+            for (int i = 0; i < pattern.length(); i++) {
+                int column = column(pattern.charAt(i), asciiColumns, unicodeAlphabet, asciiSize);
+                int next = children.get(state)[column];
+                if (next == ROOT) {
+                    next = children.size();
+                    children.add(new int[alphabetSize]);
+                    ends.add(new ArrayList<>());
+                    children.get(state)[column] = next;
+                }
+                state = next;
+            }
+            ends.get(state).add(id);
+        }
+
+        // Breadth first, resolve the failure links into a complete transition
+        // table and merge the matches of every state with those of its fallback
+        int stateCount = children.size();
+        int[] transitions = new int[stateCount * alphabetSize];
+        int[] failures = new int[stateCount];
+        int[][] matches = new int[stateCount][];
+        matches[ROOT] = toArray(ends.get(ROOT), NO_PATTERNS);
+
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int column = 0; column < alphabetSize; column++) {
+            int child = children.get(ROOT)[column];
+            transitions[column] = child;
+            if (child != ROOT) {
+                failures[child] = ROOT;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int failure = failures[state];
+            matches[state] = toArray(ends.get(state), matches[failure]);
+            for (int column = 0; column < alphabetSize; column++) {
+                int child = children.get(state)[column];
+                if (child != ROOT) {
+                    failures[child] = transitions[failure * alphabetSize + column];
+                    transitions[state * alphabetSize + column] = child;
+                    queue.add(child);
+                } else {
+                    transitions[state * alphabetSize + column] = transitions[failure * alphabetSize + column];
+                }
+            }
+        }
+
+        return new AhoCorasickMatcher(distinct.size(), alphabetSize, asciiColumns, unicodeAlphabet, transitions,
+                matches);
+    }
+
+    /**
+     * Returns the number of distinct patterns of the matcher.
+     * 
+     * @return the number of distinct patterns
+     */
+    public int patternCount() {
+        return patternCount;
+    }
+
+    /**
+     * Checks whether the input contains at least one of the patterns. A matcher
+     * without patterns never matches.
+     * 
+     * @param input the string to scan
+     * @return {@code true} if the input contains any of the patterns
+     */
+    public boolean containsAny(String input) {
+        if (patternCount == 0) {
+            return false;
+        }
+        int state = ROOT;
+        if (matches[state].length > 0) {
+            return true;
+        }
+        for (int i = 0; i < input.length(); i++) {
+            state = next(state, input.charAt(i));
+            if (matches[state].length > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether the input contains every one of the patterns. A matcher
+     * without patterns always matches.
+     * 
+     * @param input the string to scan
+     * @return {@code true} if the input contains all the patterns
+     */
+    public boolean containsAll(String input) {
+        if (patternCount == 0) {
+            return true;
+        }
+        long[] found = new long[(patternCount + 63) >>> 6];
+        int state = ROOT;
+        int remaining = mark(matches[state], found, patternCount);
+        for (int i = 0; i < input.length() && remaining > 0; i++) {
+            state = next(state, input.charAt(i));
+            int[] ended = matches[state];
+            if (ended.length > 0) {
+                remaining = mark(ended, found, remaining);
+            }
+        }
+        return remaining == 0;
+    }
+
+    private int next(int state, char c) {
+        int column = column(c, asciiColumns, unicodeAlphabet, alphabetSize - unicodeAlphabet.length);
+        // A character that is in no pattern can only lead back to the root
+        return column < 0 ? ROOT : transitions[state * alphabetSize + column];
+    }
+
+    private static int column(char c, int[] asciiColumns, char[] unicodeAlphabet, int asciiSize) {
+        if (c < ASCII) {
+            return asciiColumns[c];
+        }
+        int index = Arrays.binarySearch(unicodeAlphabet, c);
+        return index < 0 ? -1 : asciiSize + index;
+    }
+
+    private static int mark(int[] ended, long[] found, int remaining) {
+        for (int id : ended) {
+            long bit = 1L << id;
+            if ((found[id >>> 6] & bit) == 0) {
+                found[id >>> 6] |= bit;
+                remaining--;
+            }
+        }
+        return remaining;
+    }
+
+    private static int[] toArray(List<Integer> own, int[] inherited) {
+        if (own.isEmpty()) {
+            return inherited;
+        }
+        int[] result = Arrays.copyOf(inherited, inherited.length + own.size());
+        for (int i = 0; i < own.size(); i++) {
+            result[inherited.length + i] = own.get(i);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,209 @@
+package sitecore.sherpa.streams.matching;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import sitecore.sherpa.streams.helpers.LruCache;
+
+/**
+ * A string predicate whose pattern has been analysed once, up front, so that it
+ * can be applied to many strings without any per-call setup.
+ * 
+ * Filters are obtained through the static factories, which cache the compiled
+ * form of recently used patterns. Asking twice for the same filter returns the
+ * same instance as long as it is cached. The cache is split into stripes by
+ * pattern, each an {@link LruCache} under its own lock, so parallel callers
+ * only wait for each other when their patterns share a stripe, and a full
+ * stripe evicts its least recently used filter, so frequently used patterns
+ * stay cached. Compiled filters are immutable and can be shared between
+ * threads.
+ */
+public abstract sealed class CompiledFilter implements Predicate<String> {
+    /** The number of compiled filters kept in the cache. */
+    public static final int CACHE_CAPACITY = 256;
+
+    // Below this length String.contains, which the JIT turns into vectorized
+    // code, beats the skip table of Boyer-Moore-Horspool
+    private static final int HORSPOOL_MIN_LENGTH = 8;
+
+    private static final int CACHE_STRIPES = 16;
+
+    private static final List<LruCache<Key, CompiledFilter>> CACHE = new ArrayList<>(CACHE_STRIPES);
+
+    static {
+        for (int i = 0; i < CACHE_STRIPES; i++) {
+            CACHE.add(new LruCache<>(CACHE_CAPACITY / CACHE_STRIPES));
+        }
+    }
+
+    private enum Kind {
+        PREFIX, SUFFIX, SUBSTRING
+    }
+
+    private record Key(Kind kind, String pattern) {
+    }
+
+    private final String pattern;
+
+    private CompiledFilter(String pattern) {
+        this.pattern = pattern;
+    }
+
+    /**
+     * Returns a filter that accepts the strings that start with the specified
+     * prefix.
+     * 
+     * @param prefix the prefix that a string should start with
+     * @return a compiled filter for the prefix
+     */
+    public static CompiledFilter startsWith(String prefix) {
+        return cached(new Key(Kind.PREFIX, prefix),
+                key -> key.pattern().length() == 1 ? new FirstChar(key.pattern()) : new Prefix(key.pattern()));
+    }
+
+    /**
+     * Returns a filter that accepts the strings that end with the specified
+     * suffix.
+     * 
+     * @param suffix the suffix that a string should end with
+     * @return a compiled filter for the suffix
+     */
+    public static CompiledFilter endsWith(String suffix) {
+        return cached(new Key(Kind.SUFFIX, suffix),
+                key -> key.pattern().length() == 1 ? new LastChar(key.pattern()) : new Suffix(key.pattern()));
+    }
+
+    /**
+     * Returns a filter that accepts the strings that contain the specified
+     * substring. Long substrings are searched with a Boyer-Moore-Horspool skip
+     * table.
+     * 
+     * @param substring the substring that a string should contain
+     * @return a compiled filter for the substring
+     */
+    public static CompiledFilter contains(String substring) {
+        return cached(new Key(Kind.SUBSTRING, substring),
+                key -> key.pattern().length() >= HORSPOOL_MIN_LENGTH
+                        ? new Horspool(key.pattern())
+                        : new Substring(key.pattern()));
+    }
+
+    private static CompiledFilter cached(Key key, Function<Key, CompiledFilter> compile) {
+        int hash = key.hashCode();
+        return CACHE.get((hash ^ (hash >>> 16)) & (CACHE_STRIPES - 1)).computeIfAbsent(key, compile);
+    }
+
+    /**
+     * Returns the pattern the filter was compiled from.
+     * 
+     * @return the pattern of the filter
+     */
+    public String pattern() {
+        return pattern;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[" + pattern + "]";
+    }
+
+    private static final class FirstChar extends CompiledFilter {
+        private final char first;
+
+        private FirstChar(String pattern) {
+            super(pattern);
+            this.first = pattern.charAt(0);
+        }
+
+        @Override
+        public boolean test(String s) {
+            return !s.isEmpty() && s.charAt(0) == first;
+        }
+    }
+
+    private static final class Prefix extends CompiledFilter {
+        private Prefix(String pattern) {
+            super(pattern);
+        }
+
+        @Override
+        public boolean test(String s) {
+            return s.startsWith(pattern());
+        }
+    }
+
+    private static final class LastChar extends CompiledFilter {
+        private final char last;
+
+        private LastChar(String pattern) {
+            super(pattern);
+            this.last = pattern.charAt(0);
+        }
+
+        @Override
+        public boolean test(String s) {
+            return !s.isEmpty() && s.charAt(s.length() - 1) == last;
+        }
+    }
+
+    private static final class Suffix extends CompiledFilter {
+        private Suffix(String pattern) {
+            super(pattern);
+        }
+
+        @Override
+        public boolean test(String s) {
+            return s.endsWith(pattern());
+        }
+    }
+
+    private static final class Substring extends CompiledFilter {
+        private Substring(String pattern) {
+            super(pattern);
+        }
+
+        @Override
+        public boolean test(String s) {
+            return s.contains(pattern());
+        }
+    }
+
+    private static final class Horspool extends CompiledFilter {
+        private final char[] needle;
+        // How far the window can slide, indexed by the low byte of the character
+        // under its last position. Characters that share a low byte share the
+        // smallest shift, which keeps the table small and the search correct.
+        private final int[] shifts = new int[256];
+
+        private Horspool(String pattern) {
+            super(pattern);
+            this.needle = pattern.toCharArray();
+            int last = needle.length - 1;
+            Arrays.fill(shifts, needle.length);
+            for (int i = 0; i < last; i++) {
+                shifts[needle[i] & 0xFF] = last - i;
+            }
+        }
+
+        @Override
+        public boolean test(String s) {
+            int last = needle.length - 1;
+            int end = s.length() - needle.length;
+            int position = 0;
+            while (position <= end) {
+                int i = last;
+                while (s.charAt(position + i) == needle[i]) {
+                    if (i == 0) {
+                        return true;
+                    }
+                    i--;
+                }
+                position += shifts[s.charAt(position + last) & 0xFF];
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package sitecore.sherpa.streams.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * The JFR event of one instrumented call.
+ */
+@Name("sitecore.sherpa.streams.HelperCall")
+@Label("Helper Call")
+@Category({ "Sherpa", "Streams" })
+@Description("A call to an instrumented Filtering or Projection helper")
+@StackTrace(false)
+final class HelperCallEvent extends Event {
+    @Label("Method")
+    String method;
+
+    @Label("Input Size")
+    int inputSize;
+
+    @Label("Output Size")
+    int outputSize;
+
+    @Label("Latency")
+    @Timespan(Timespan.NANOSECONDS)
+    long latency;
+}
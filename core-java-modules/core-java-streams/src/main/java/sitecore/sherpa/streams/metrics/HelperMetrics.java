@@ -0,0 +1,117 @@
+package sitecore.sherpa.streams.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Optional instrumentation of the helpers of {@code Filtering} and
+ * {@code Projection}: for every method, the number of calls, the distribution
+ * of input sizes, the selectivity (output size over input size) and the
+ * latency.
+ * 
+ * Instrumentation is off by default, and can be turned on with
+ * {@link #setEnabled(boolean)} or by setting the {@value #ENABLED_PROPERTY}
+ * system property to {@code true}. While it is off, an instrumented call reads
+ * one volatile flag and records nothing. While it is on, a call adds to a few
+ * {@link java.util.concurrent.atomic.LongAdder}s and histogram buckets, which
+ * do not lock or allocate, and emits a {@code sitecore.sherpa.streams.HelperCall}
+ * JFR event when a flight recording enables it.
+ * 
+ * The metrics stay in memory until they are {@link #export exported} to a
+ * {@link MetricsExporter}, for example from a scheduled task. Selectivity tells
+ * which filters keep most of their input, and deserve a pre-sized result, and
+ * which keep a small part of a large input, and deserve an index.
+ */
+public final class HelperMetrics {
+    /** System property that turns the instrumentation on at startup. */
+    public static final String ENABLED_PROPERTY = "sitecore.sherpa.streams.metrics";
+
+    // Returned by start() while disabled, so that a call that started before
+    // the instrumentation was turned on records nothing
+    static final long NOT_STARTED = Long.MIN_VALUE;
+
+    private static final Map<String, MethodMetrics> METHODS = new ConcurrentHashMap<>();
+
+    private static volatile boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    private HelperMetrics() {
+    }
+
+    /**
+     * Checks whether calls are being recorded.
+     * 
+     * @return {@code true} if the instrumentation is on
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns the instrumentation on or off. Metrics recorded so far are kept.
+     * 
+     * @param enabled {@code true} to record calls
+     */
+    public static void setEnabled(boolean enabled) {
+        HelperMetrics.enabled = enabled;
+    }
+
+    /**
+     * Returns the metrics of a method, registering them on first use.
+     * Instrumented classes keep the result in a constant.
+     * 
+     * @param method the name of the method, such as {@code "Filtering.getEven"}
+     * @return the metrics of the method
+     */
+    public static MethodMetrics forMethod(String method) {
+        return METHODS.computeIfAbsent(method, MethodMetrics::new);
+    }
+
+    /**
+     * Marks the start of an instrumented call.
+     * 
+     * @return the start time to pass to {@link MethodMetrics#record}, or a
+     *         marker that makes it record nothing if the instrumentation is off
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : NOT_STARTED;
+    }
+
+    /**
+     * Returns a copy of the metrics of every method that has been called.
+     * 
+     * @return the snapshots, sorted by method name
+     */
+    public static List<MethodMetrics.Snapshot> snapshot() {
+        List<MethodMetrics.Snapshot> snapshots = new ArrayList<>();
+        for (MethodMetrics metrics : METHODS.values()) {
+            MethodMetrics.Snapshot snapshot = metrics.snapshot();
+            if (snapshot.calls() > 0) {
+                snapshots.add(snapshot);
+            }
+        }
+        snapshots.sort(Comparator.comparing(MethodMetrics.Snapshot::method));
+        return snapshots;
+    }
+
+    /**
+     * Hands a snapshot of the metrics of every method to an exporter.
+     * 
+     * @param exporter the exporter to publish the metrics with
+     */
+    public static void export(MetricsExporter exporter) {
+        exporter.export(snapshot());
+    }
+
+    /**
+     * Clears the metrics of every method, for example after an export, so
+     * that the next one only covers the calls since.
+     */
+    public static void reset() {
+        for (MethodMetrics metrics : METHODS.values()) {
+            metrics.reset();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package sitecore.sherpa.streams.metrics;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import jdk.jfr.EventType;
+import sitecore.sherpa.streams.aggregation.LatencyHistogram;
+
+/**
+ * The metrics of one instrumented method, obtained from
+ * {@link HelperMetrics#forMethod(String)}.
+ * 
+ * Counters are {@link LongAdder}s, which spread concurrent updates over
+ * several cells instead of contending on one. The distributions are
+ * {@link LatencyHistogram}s, striped the same way: each thread records into
+ * one of about as many stripes of histograms as there are processors, each
+ * created the first time a thread lands on it, and snapshots merge the
+ * stripes. Recording a call never locks, and only allocates when it creates a
+ * stripe. Latencies
+ * are kept in nanoseconds, because most helper calls on small inputs take
+ * well under a microsecond. The JFR event is only created while a recording
+ * enables it.
+ */
+public final class MethodMetrics {
+    // A power of two, so that a thread picks its stripe with a mask
+    private static final int STRIPES = Math.min(64,
+            Integer.highestOneBit(Math.max(1, 2 * Runtime.getRuntime().availableProcessors() - 1)));
+
+    private final String method;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder inputElements = new LongAdder();
+    private final LongAdder outputElements = new LongAdder();
+    private final AtomicReferenceArray<Stripe> stripes = new AtomicReferenceArray<>(STRIPES);
+
+    /**
+     * A copy of the metrics of a method at one point in time.
+     * 
+     * @param method         the name of the method
+     * @param calls          the number of calls
+     * @param inputElements  the number of elements passed in, over all calls
+     * @param outputElements the number of elements returned, over all calls
+     * @param inputSizes     the distribution of the input size of a call
+     * @param selectivity    the distribution of the output size over the
+     *                       input size of a call, between 0 and 1, for calls
+     *                       with a non-empty input
+     * @param latencyNanos   the distribution of the duration of a call, in
+     *                       nanoseconds
+     */
+    public record Snapshot(String method, long calls, long inputElements, long outputElements,
+            LatencyHistogram inputSizes, LatencyHistogram selectivity, LatencyHistogram latencyNanos) {
+
+        /**
+         * Returns the share of all input elements that was returned.
+         * 
+         * @return the output elements over the input elements, or 0 if no
+         *         element was passed in
+         */
+        public double overallSelectivity() {
+            return inputElements == 0 ? 0 : (double) outputElements / inputElements;
+        }
+    }
+
+    MethodMetrics(String method) {
+        this.method = method;
+    }
+
+    /**
+     * Returns the name of the method.
+     * 
+     * @return the name the metrics were registered under
+     */
+    public String method() {
+        return method;
+    }
+
+    /**
+     * Records a call that started at {@link HelperMetrics#start()}. Does
+     * nothing if the instrumentation was off when the call started.
+     * 
+     * @param start      the value returned by {@link HelperMetrics#start()}
+     * @param inputSize  the number of elements passed in
+     * @param outputSize the number of elements returned
+     */
+    public void record(long start, int inputSize, int outputSize) {
+        if (start == HelperMetrics.NOT_STARTED) {
+            return;
+        }
+        long latency = System.nanoTime() - start;
+        calls.increment();
+        inputElements.add(inputSize);
+        outputElements.add(outputSize);
+        Stripe stripe = stripe();
+        stripe.inputSizes.record(inputSize);
+        if (inputSize > 0) {
+            stripe.selectivity.record(Math.min(1, (double) outputSize / inputSize));
+        }
+        stripe.latencyNanos.record(latency);
+
+        if (HelperCallType.TYPE.isEnabled()) {
+            HelperCallEvent event = new HelperCallEvent();
+            event.method = method;
+            event.inputSize = inputSize;
+            event.outputSize = outputSize;
+            event.latency = latency;
+            event.commit();
+        }
+    }
+
+    /**
+     * Returns a copy of the metrics. Calls recorded during the copy may be
+     * counted in some of the metrics and not in others.
+     * 
+     * @return a snapshot of the metrics
+     */
+    public Snapshot snapshot() {
+        Stripe merged = new Stripe();
+        for (int i = 0; i < STRIPES; i++) {
+            Stripe stripe = stripes.get(i);
+            if (stripe != null) {
+                merged.inputSizes.merge(stripe.inputSizes);
+                merged.selectivity.merge(stripe.selectivity);
+                merged.latencyNanos.merge(stripe.latencyNanos);
+            }
+        }
+        return new Snapshot(method, calls.sum(), inputElements.sum(), outputElements.sum(),
+                merged.inputSizes, merged.selectivity, merged.latencyNanos);
+    }
+
+    /**
+     * Clears the metrics.
+     */
+    public void reset() {
+        calls.reset();
+        inputElements.reset();
+        outputElements.reset();
+        for (int i = 0; i < STRIPES; i++) {
+            Stripe stripe = stripes.get(i);
+            if (stripe != null) {
+                stripe.inputSizes.reset();
+                stripe.selectivity.reset();
+                stripe.latencyNanos.reset();
+            }
+        }
+    }
+
+    private Stripe stripe() {
+        long id = Thread.currentThread().threadId();
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        int index = (hash ^ (hash >>> 16)) & (STRIPES - 1);
+        Stripe stripe = stripes.get(index);
+        if (stripe == null) {
+            Stripe created = new Stripe();
+            stripe = stripes.compareAndSet(index, null, created) ? created : stripes.get(index);
+        }
+        return stripe;
+    }
+
+    // Looked up on the first recorded call, so that loading the instrumented
+    // classes does not register the event with JFR
+    private static final class HelperCallType {
+        static final EventType TYPE = EventType.getEventType(HelperCallEvent.class);
+    }
+
+    // The distributions recorded by the threads that hash to one stripe
+    private static final class Stripe {
+        final LatencyHistogram inputSizes = new LatencyHistogram(1, Integer.MAX_VALUE, 5);
+        final LatencyHistogram selectivity = new LatencyHistogram(0.001, 1, 7);
+        // From 1 nanosecond to 1 hour, with a relative error below 1.6%
+        final LatencyHistogram latencyNanos = new LatencyHistogram(1, 3_600_000_000_000d, 7);
+    }
+}
@@ -0,0 +1,18 @@
+package sitecore.sherpa.streams.metrics;
+
+import java.util.List;
+
+/**
+ * Publishes the metrics of the instrumented helpers, for example to a log or
+ * to a monitoring system.
+ */
+@FunctionalInterface
+public interface MetricsExporter {
+    /**
+     * Publishes one snapshot of the metrics.
+     * 
+     * @param snapshots the metrics of every method that has been called,
+     *                  sorted by method name
+     */
+    void export(List<MethodMetrics.Snapshot> snapshots);
+}
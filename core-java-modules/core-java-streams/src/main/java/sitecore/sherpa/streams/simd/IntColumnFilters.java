@@ -0,0 +1,194 @@
+package sitecore.sherpa.streams.simd;
+
+/**
+ * Filters over {@code int[]} columns, such as the ages of a
+ * {@code PersonTable}, that use SIMD instructions when they can.
+ * 
+ * When the JVM runs with {@code --add-modules jdk.incubator.vector} and the
+ * preferred vector species holds at least {@value #MIN_LANES} ints (256-bit
+ * registers, as with AVX2 or AVX-512), every filter compares a whole vector of
+ * values per instruction and compresses the matches into the output. Without
+ * the incubator module, or on narrower hardware where the gain does not pay
+ * for the setup, the same methods run a plain scalar loop, so callers never
+ * have to check which path is taken.
+ * 
+ * Every filter writes its matches to the start of an output array and returns
+ * how many it wrote. An output as long as the input always has room; a shorter
+ * one is enough when it can hold every match, for example when it was sized
+ * with the matching {@code count} method. On the vectorized path, elements
+ * after the returned count may be overwritten.
+ */
+public final class IntColumnFilters {
+    /**
+     * The narrowest vector, in {@code int} lanes, for which the vectorized path
+     * is used.
+     */
+    public static final int MIN_LANES = 8;
+
+    private static final boolean VECTORIZED = probe();
+
+    private IntColumnFilters() {
+    }
+
+    /**
+     * Tells whether the filters run on the Vector API in this JVM.
+     * 
+     * @return {@code true} if the incubator module is present and the
+     *         preferred species is wide enough
+     */
+    public static boolean isVectorized() {
+        return VECTORIZED;
+    }
+
+    /**
+     * Counts the even values of an array.
+     * 
+     * @param values the values to be filtered
+     * @return the number of even values
+     */
+    public static int countEven(int[] values) {
+        return VECTORIZED ? VectorIntFilters.countParity(values, 0) : scalarCountParity(values, 0, 0);
+    }
+
+    /**
+     * Counts the odd values of an array.
+     * 
+     * @param values the values to be filtered
+     * @return the number of odd values
+     */
+    public static int countOdd(int[] values) {
+        return VECTORIZED ? VectorIntFilters.countParity(values, 1) : scalarCountParity(values, 0, 1);
+    }
+
+    /**
+     * Counts the values of an array that lie in a range.
+     * 
+     * @param values the values to be filtered
+     * @param min    the lowest accepted value, inclusive
+     * @param max    the highest accepted value, inclusive
+     * @return the number of values in the range
+     */
+    public static int countInRange(int[] values, int min, int max) {
+        return VECTORIZED ? VectorIntFilters.countInRange(values, min, max) : scalarCountInRange(values, 0, min, max);
+    }
+
+    /**
+     * Writes the even values of an array to the start of another one.
+     * 
+     * @param values the values to be filtered
+     * @param out    the array that the even values are written to
+     * @return the number of even values written
+     * @throws ArrayIndexOutOfBoundsException if the output cannot hold every
+     *                                        even value
+     */
+    public static int even(int[] values, int[] out) {
+        return VECTORIZED ? VectorIntFilters.parity(values, 0, out) : scalarParity(values, 0, 0, out, 0);
+    }
+
+    /**
+     * Writes the odd values of an array to the start of another one.
+     * 
+     * @param values the values to be filtered
+     * @param out    the array that the odd values are written to
+     * @return the number of odd values written
+     * @throws ArrayIndexOutOfBoundsException if the output cannot hold every odd
+     *                                        value
+     */
+    public static int odd(int[] values, int[] out) {
+        return VECTORIZED ? VectorIntFilters.parity(values, 1, out) : scalarParity(values, 0, 1, out, 0);
+    }
+
+    /**
+     * Writes the values of an array that lie in a range to the start of
+     * another one.
+     * 
+     * @param values the values to be filtered
+     * @param min    the lowest accepted value, inclusive
+     * @param max    the highest accepted value, inclusive
+     * @param out    the array that the values in the range are written to
+     * @return the number of values written
+     * @throws ArrayIndexOutOfBoundsException if the output cannot hold every
+     *                                        value in the range
+     */
+    public static int inRange(int[] values, int min, int max, int[] out) {
+        return VECTORIZED ? VectorIntFilters.inRange(values, min, max, out) : scalarInRange(values, 0, min, max, out, 0);
+    }
+
+    /**
+     * Writes the positions of the values of an array that lie in a range to
+     * the start of another one, in ascending order.
+     * 
+     * @param values the values to be filtered
+     * @param min    the lowest accepted value, inclusive
+     * @param max    the highest accepted value, inclusive
+     * @param rows   the array that the positions are written to
+     * @return the number of positions written
+     * @throws ArrayIndexOutOfBoundsException if the output cannot hold every
+     *                                        position
+     */
+    public static int rowsInRange(int[] values, int min, int max, int[] rows) {
+        return VECTORIZED
+                ? VectorIntFilters.rowsInRange(values, min, max, rows)
+                : scalarRowsInRange(values, 0, min, max, rows, 0);
+    }
+
+    // The scalar loops start at an offset so that the vectorized path can
+    // finish the tail that does not fill a whole vector with them
+
+    static int scalarCountParity(int[] values, int from, int parity) {
+        int count = 0;
+        for (int i = from; i < values.length; i++) {
+            if ((values[i] & 1) == parity) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    static int scalarParity(int[] values, int from, int parity, int[] out, int count) {
+        for (int i = from; i < values.length; i++) {
+            if ((values[i] & 1) == parity) {
+                out[count++] = values[i];
+            }
+        }
+        return count;
+    }
+
+    static int scalarCountInRange(int[] values, int from, int min, int max) {
+        int count = 0;
+        for (int i = from; i < values.length; i++) {
+            if (values[i] >= min && values[i] <= max) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    static int scalarInRange(int[] values, int from, int min, int max, int[] out, int count) {
+        for (int i = from; i < values.length; i++) {
+            if (values[i] >= min && values[i] <= max) {
+                out[count++] = values[i];
+            }
+        }
+        return count;
+    }
+
+    static int scalarRowsInRange(int[] values, int from, int min, int max, int[] rows, int count) {
+        for (int i = from; i < values.length; i++) {
+            if (values[i] >= min && values[i] <= max) {
+                rows[count++] = i;
+            }
+        }
+        return count;
+    }
+
+    // Touching VectorIntFilters fails with a LinkageError when the incubator
+    // module was not added to the JVM
+    private static boolean probe() {
+        try {
+            return VectorIntFilters.lanes() >= MIN_LANES;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package sitecore.sherpa.streams.simd;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The Vector API implementation of {@link IntColumnFilters}. Each step loads
+ * one vector of values, compares all its lanes at once into a mask, and
+ * compresses the selected lanes to the front of the vector so that they can
+ * be stored contiguously.
+ * 
+ * This is the only class that refers to {@code jdk.incubator.vector}, so that
+ * the rest of the module loads without the incubator module.
+ */
+final class VectorIntFilters {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    private VectorIntFilters() {
+    }
+
+    static int lanes() {
+        return SPECIES.length();
+    }
+
+    static int countParity(int[] values, int parity) {
+        int count = 0;
+        int i = 0;
+        for (int upper = SPECIES.loopBound(values.length); i < upper; i += SPECIES.length()) {
+            count += parityMask(IntVector.fromArray(SPECIES, values, i), parity).trueCount();
+        }
+        return count + IntColumnFilters.scalarCountParity(values, i, parity);
+    }
+
+    static int parity(int[] values, int parity, int[] out) {
+        int count = 0;
+        int i = 0;
+        for (int upper = SPECIES.loopBound(values.length); i < upper; i += SPECIES.length()) {
+            IntVector vector = IntVector.fromArray(SPECIES, values, i);
+            count = store(vector, parityMask(vector, parity), out, count);
+        }
+        return IntColumnFilters.scalarParity(values, i, parity, out, count);
+    }
+
+    static int countInRange(int[] values, int min, int max) {
+        int count = 0;
+        int i = 0;
+        for (int upper = SPECIES.loopBound(values.length); i < upper; i += SPECIES.length()) {
+            count += rangeMask(IntVector.fromArray(SPECIES, values, i), min, max).trueCount();
+        }
+        return count + IntColumnFilters.scalarCountInRange(values, i, min, max);
+    }
+
+    static int inRange(int[] values, int min, int max, int[] out) {
+        int count = 0;
+        int i = 0;
+        for (int upper = SPECIES.loopBound(values.length); i < upper; i += SPECIES.length()) {
+            IntVector vector = IntVector.fromArray(SPECIES, values, i);
+            count = store(vector, rangeMask(vector, min, max), out, count);
+        }
+        return IntColumnFilters.scalarInRange(values, i, min, max, out, count);
+    }
+
+    static int rowsInRange(int[] values, int min, int max, int[] rows) {
+        int count = 0;
+        int i = 0;
+        IntVector row = IntVector.zero(SPECIES).addIndex(1);
+        IntVector step = IntVector.broadcast(SPECIES, SPECIES.length());
+        for (int upper = SPECIES.loopBound(values.length); i < upper; i += SPECIES.length()) {
+            count = store(row, rangeMask(IntVector.fromArray(SPECIES, values, i), min, max), rows, count);
+            row = row.add(step);
+        }
+        return IntColumnFilters.scalarRowsInRange(values, i, min, max, rows, count);
+    }
+
+    // The lowest bit is the parity for negative numbers too
+    private static VectorMask<Integer> parityMask(IntVector vector, int parity) {
+        return vector.and(1).compare(VectorOperators.EQ, parity);
+    }
+
+    private static VectorMask<Integer> rangeMask(IntVector vector, int min, int max) {
+        return vector.compare(VectorOperators.GE, min).and(vector.compare(VectorOperators.LE, max));
+    }
+
+    // A full-width store is cheapest and its extra lanes are overwritten by
+    // the next store; close to the end of the output the store is masked
+    private static int store(IntVector vector, VectorMask<Integer> mask, int[] out, int count) {
+        int selected = mask.trueCount();
+        if (selected == 0) {
+            return count;
+        }
+        if (selected > out.length - count) {
+            throw new ArrayIndexOutOfBoundsException("Output array too short: " + out.length);
+        }
+        IntVector compressed = vector.compress(mask);
+        if (out.length - count >= SPECIES.length()) {
+            compressed.intoArray(out, count);
+        } else {
+            compressed.intoArray(out, count, SPECIES.indexInRange(count, out.length));
+        }
+        return count + selected;
+    }
+}
@@ -0,0 +1,160 @@
+package sitecore.sherpa.streams;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ExecutionPolicyTests {
+
+    @Test
+    @DisplayName("Test that fixed policies ignore the size of the input")
+    public void isParallel_whenModeIsFixed_ignoresTheWork() {
+        assertFalse(ExecutionPolicy.sequential().isParallel(Integer.MAX_VALUE, 100));
+        assertTrue(ExecutionPolicy.parallel().isParallel(1, 1));
+    }
+
+    @Test
+    @DisplayName("Test that the adaptive policy stays sequential for small inputs")
+    public void isParallel_whenInputIsSmall_staysSequential() {
+        assertFalse(ExecutionPolicy.adaptive().isParallel(10, 1));
+    }
+
+    @Test
+    @DisplayName("Test that the adaptive policy never goes parallel on a single thread")
+    public void isParallel_whenPoolHasOneThread_staysSequential() {
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            assertFalse(ExecutionPolicy.adaptive(pool).isParallel(Integer.MAX_VALUE, 100));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Test that the adaptive policy goes parallel for large inputs")
+    public void isParallel_whenWorkExceedsTheThreshold_goesParallel() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertTrue(ExecutionPolicy.adaptive(pool).isParallel(Integer.MAX_VALUE, 1));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Test that a parallel policy runs on the supplied pool")
+    public void apply_whenPoolIsSupplied_runsOnThatPool() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            List<Integer> numbers = IntStream.range(0, 10_000).boxed().collect(Collectors.toList());
+
+            List<ForkJoinPool> pools = ExecutionPolicy.parallel(pool).apply(numbers, 1, stream -> stream
+                    .map(n -> Thread.currentThread() instanceof ForkJoinWorkerThread worker ? worker.getPool() : null)
+                    .distinct()
+                    .collect(Collectors.toList()));
+
+            assertEquals(List.of(pool), pools);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Test that parallel filtering keeps the order of the input")
+    public void getEven_whenPolicyIsParallel_keepsTheOrder() {
+        List<Integer> numbers = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            numbers.add(i);
+        }
+
+        List<Integer> sequential = Filtering.getEven(numbers);
+        List<Integer> parallel = Filtering.getEven(numbers, ExecutionPolicy.parallel());
+
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    @DisplayName("Test that the parallel threshold is calibrated within bounds")
+    public void parallelThreshold_whenCalibrated_isPositive() {
+        assertTrue(ExecutionPolicy.parallelThreshold() > 0);
+    }
+
+    @Test
+    @DisplayName("Test that the common pool can be calibrated up front")
+    public void calibrate_whenCalledAtStartup_returnsTheParallelThreshold() {
+        assertEquals(ExecutionPolicy.parallelThreshold(), ExecutionPolicy.calibrate());
+        assertEquals(ExecutionPolicy.calibrate(), ExecutionPolicy.adaptive().threshold());
+    }
+
+    @Test
+    @DisplayName("Test that an adaptive policy is calibrated once against its own pool")
+    public void threshold_whenPoolIsSupplied_isCalibratedForThatPool() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            long threshold = ExecutionPolicy.adaptive(pool).threshold();
+
+            assertTrue(threshold >= 1_000 && threshold <= 10_000_000);
+            assertEquals(threshold, ExecutionPolicy.adaptive(pool).threshold());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Test that workers of a pool being calibrated can ask for its policy")
+    public void adaptive_whenCalledFromWorkersDuringCalibration_doesNotDeadlock() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+                List<ForkJoinTask<Long>> workers = new ArrayList<>();
+                for (int i = 0; i < 4; i++) {
+                    workers.add(pool.submit(() -> ExecutionPolicy.adaptive(pool).threshold()));
+                }
+                long threshold = ExecutionPolicy.adaptive(pool).threshold();
+
+                for (ForkJoinTask<Long> worker : workers) {
+                    assertEquals(threshold, worker.join());
+                }
+            });
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Test that the threshold property overrides the calibration and malformed values are ignored")
+    public void adaptive_whenThresholdPropertyIsSet_usesItOnlyIfValid() {
+        String previous = System.getProperty(ExecutionPolicy.THRESHOLD_PROPERTY);
+        ForkJoinPool configured = new ForkJoinPool(2);
+        ForkJoinPool malformed = new ForkJoinPool(2);
+        try {
+            System.setProperty(ExecutionPolicy.THRESHOLD_PROPERTY, " 5000 ");
+            assertEquals(5_000, ExecutionPolicy.adaptive(configured).threshold());
+
+            System.setProperty(ExecutionPolicy.THRESHOLD_PROPERTY, "1e6");
+            long threshold = ExecutionPolicy.adaptive(malformed).threshold();
+            assertTrue(threshold >= 1_000 && threshold <= 10_000_000);
+        } finally {
+            if (previous == null) {
+                System.clearProperty(ExecutionPolicy.THRESHOLD_PROPERTY);
+            } else {
+                System.setProperty(ExecutionPolicy.THRESHOLD_PROPERTY, previous);
+            }
+            configured.shutdown();
+            malformed.shutdown();
+        }
+    }
+}
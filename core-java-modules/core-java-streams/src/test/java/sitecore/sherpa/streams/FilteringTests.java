@@ -1,13 +1,20 @@
 package sitecore.sherpa.streams;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import sitecore.sherpa.streams.helpers.IntList;
+
 public class FilteringTests {
 
     @Test
@@ -54,6 +61,116 @@ public class FilteringTests {
         assertEquals(expected, result);
     }
 
+    @Test
+    @DisplayName("Test even numbers filtering with a primitive array")
+    public void getEven_whenProvidedWithAnArray_returnsEvenNumbers() {
+        int[] numbers = { -3, -2, -1, 0, 1, 2, 3, 4 };
+
+        IntList result = Filtering.getEven(numbers);
+
+        assertEquals(IntList.of(-2, 0, 2, 4), result);
+    }
+
+    @Test
+    @DisplayName("Test even numbers filtering with a primitive stream")
+    public void getEven_whenProvidedWithAStream_returnsEvenNumbers() {
+        IntList result = Filtering.getEven(IntStream.rangeClosed(1, 6));
+
+        assertEquals(IntList.of(2, 4, 6), result);
+    }
+
+    @Test
+    @DisplayName("Test odd numbers filtering with a primitive array")
+    public void getOdd_whenProvidedWithAnArray_returnsOddNumbers() {
+        int[] numbers = { -3, -2, -1, 0, 1, 2, 3, 4, Integer.MIN_VALUE, Integer.MAX_VALUE };
+
+        IntList result = Filtering.getOdd(numbers);
+
+        assertEquals(IntList.of(-3, -1, 1, 3, Integer.MAX_VALUE), result);
+    }
+
+    @Test
+    @DisplayName("Test odd numbers filtering with a parallel primitive stream")
+    public void getOdd_whenProvidedWithAParallelStream_returnsOddNumbersInOrder() {
+        IntList result = Filtering.getOdd(IntStream.range(0, 10_000).parallel());
+
+        assertEquals(5_000, result.size());
+        assertEquals(1, result.get(0));
+        assertEquals(9_999, result.get(4_999));
+    }
+
+    @Test
+    @DisplayName("Test even numbers filtering into a reused sink")
+    public void getEven_whenProvidedWithASink_appendsEvenNumbersAndReturnsCount() {
+        List<Integer> sink = new ArrayList<>(List.of(100));
+
+        int count = Filtering.getEven(Arrays.asList(1, 2, 3, 4, 5, 6), sink);
+
+        assertEquals(3, count);
+        assertEquals(List.of(100, 2, 4, 6), sink);
+        sink.clear();
+        assertEquals(2, Filtering.getOdd(new LinkedList<>(List.of(-1, -2, -3)), sink));
+        assertEquals(List.of(-1, -3), sink);
+    }
+
+    @Test
+    @DisplayName("Test parity filtering into a primitive array and list")
+    public void getOdd_whenProvidedWithAnArraySink_writesOddNumbersAndReturnsCount() {
+        int[] numbers = { -3, -2, -1, 0, 1, 2, 3, 4, Integer.MIN_VALUE, Integer.MAX_VALUE };
+        int[] out = new int[numbers.length];
+        IntList sink = new IntList();
+
+        int odd = Filtering.getOdd(numbers, out);
+        int even = Filtering.getEven(numbers, sink);
+
+        assertEquals(5, odd);
+        assertEquals(IntList.of(-3, -1, 1, 3, Integer.MAX_VALUE), IntList.wrap(out, odd));
+        assertEquals(5, even);
+        assertEquals(IntList.of(-2, 0, 2, 4, Integer.MIN_VALUE), sink);
+        assertEquals(5_000, Filtering.getEven(IntStream.range(0, 10_000).parallel(), sink));
+        assertEquals(9_998, sink.get(sink.size() - 1));
+    }
+
+    @Test
+    @DisplayName("Test that an output array shorter than the input is rejected before any write")
+    public void getEven_whenArrayIsShorterThanInput_throwsIndexOutOfBoundsException() {
+        int[] numbers = { 1, 2, 3, 4 };
+        int[] out = { -1, -1, -1 };
+
+        assertThrows(IndexOutOfBoundsException.class, () -> Filtering.getEven(numbers, out));
+        assertThrows(IndexOutOfBoundsException.class, () -> Filtering.getOdd(numbers, out));
+        assertThrows(IndexOutOfBoundsException.class, () -> Filtering.filterByRange(numbers, 0, 9, out));
+        assertArrayEquals(new int[] { -1, -1, -1 }, out);
+    }
+
+    @Test
+    @DisplayName("Test string filtering into a reused sink")
+    public void filterBySubstring_whenProvidedWithASink_appendsMatchesAndReturnsCount() {
+        List<String> strings = List.of("apple", "banana", "avocado", "cherry");
+        List<String> sink = new ArrayList<>();
+
+        assertEquals(2, Filtering.filterByFirstLetter(strings, "a", sink));
+        assertEquals(1, Filtering.filterByLastLetter(strings, "y", sink));
+        assertEquals(1, Filtering.filterBySubstring(strings, "nan", sink));
+        assertEquals(3, Filtering.filterByAnySubString(strings, List.of("pp", "an", "rr"), sink));
+        assertEquals(1, Filtering.filterByAllSubStrings(strings, List.of("av", "do"), sink));
+        assertEquals(List.of("apple", "avocado", "cherry", "banana", "apple", "banana", "cherry", "avocado"), sink);
+    }
+
+    @Test
+    @DisplayName("Test range filtering with a primitive array")
+    public void filterByRange_whenProvidedWithAnArray_returnsNumbersInRange() {
+        int[] numbers = { 17, 18, 42, -5, 65, 66, 30, Integer.MIN_VALUE, 0, 19 };
+        int[] out = new int[numbers.length];
+
+        IntList result = Filtering.filterByRange(numbers, 18, 65);
+        int count = Filtering.filterByRange(numbers, 18, 65, out);
+
+        assertEquals(IntList.of(18, 42, 65, 30, 19), result);
+        assertEquals(5, count);
+        assertEquals(result, IntList.wrap(out, count));
+    }
+
     @Test
     @DisplayName("Test first letter filtering with valid elements")
     public void filterByFirstLetter_whenProvidedWithAnArray_returnsOnlyValidStrings() {
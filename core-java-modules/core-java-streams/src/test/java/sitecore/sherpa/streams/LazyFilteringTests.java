@@ -0,0 +1,125 @@
+package sitecore.sherpa.streams;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class LazyFilteringTests {
+
+    @Test
+    @DisplayName("Test that even numbers are filtered from an unbounded stream")
+    public void getEven_whenStreamIsInfinite_producesResultsOnDemand() {
+        List<Integer> result = LazyFiltering.getEven(Stream.iterate(1, n -> n + 1))
+                .limit(3)
+                .collect(Collectors.toList());
+
+        assertEquals(Arrays.asList(2, 4, 6), result);
+    }
+
+    @Test
+    @DisplayName("Test that the source iterator is only read as far as needed")
+    public void filter_whenIteratorIsRead_consumesTheSourceLazily() {
+        AtomicInteger reads = new AtomicInteger();
+        Iterator<String> source = Stream.of("apple", "banana", "cherry", "grape")
+                .peek(s -> reads.incrementAndGet())
+                .iterator();
+
+        Iterator<String> filtered = LazyFiltering.filter(source, s -> s.contains("an"));
+
+        assertEquals(0, reads.get());
+        assertEquals("banana", filtered.next());
+        assertEquals(2, reads.get());
+        assertFalse(filtered.hasNext());
+        assertThrows(NoSuchElementException.class, filtered::next);
+    }
+
+    @Test
+    @DisplayName("Test that a filtered spliterator can back a parallel stream")
+    public void filter_whenSpliteratorIsSplit_keepsEveryMatch() {
+        Spliterator<Integer> source = IntStream.range(0, 10_000).boxed().collect(Collectors.toList()).spliterator();
+
+        Spliterator<Integer> filtered = LazyFiltering.filter(source, n -> n % 3 == 0);
+        long count = StreamSupport.stream(filtered, true).count();
+
+        assertEquals(3_334, count);
+    }
+
+    @Test
+    @DisplayName("Test that string helpers accept an iterator as a source")
+    public void filterByAnySubString_whenSourceIsAnIterator_filtersIt() {
+        Iterator<String> source = Arrays.asList("apple", "banana", "cherry", "grape").iterator();
+
+        Stream<String> strings = LazyFiltering.stream(source);
+
+        List<String> result = LazyFiltering.filterByAnySubString(strings, Arrays.asList("an", "rry"))
+                .collect(Collectors.toList());
+
+        assertEquals(Arrays.asList("banana", "cherry"), result);
+    }
+
+    @Test
+    @DisplayName("Test that the processor requests no more than the subscriber's demand")
+    public void processor_whenSubscriberRequestsOneByOne_respectsTheDemand() throws Exception {
+        List<Integer> received = new ArrayList<>();
+        CompletableFuture<Void> completed = new CompletableFuture<>();
+        FilteringProcessor<Integer> processor = new FilteringProcessor<>(n -> n % 2 == 0);
+
+        try (SubmissionPublisher<Integer> publisher = new SubmissionPublisher<>(Runnable::run, 4)) {
+            publisher.subscribe(processor);
+            processor.subscribe(new Flow.Subscriber<>() {
+                private Flow.Subscription subscription;
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    this.subscription = subscription;
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onNext(Integer item) {
+                    received.add(item);
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    completed.completeExceptionally(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                    completed.complete(null);
+                }
+            });
+
+            for (int i = 0; i < 100; i++) {
+                publisher.submit(i);
+                // With a demand of one, at most one item can be in flight
+                assertTrue(publisher.estimateMaximumLag() <= 1);
+            }
+        }
+
+        completed.get(5, TimeUnit.SECONDS);
+        assertEquals(IntStream.range(0, 50).map(n -> n * 2).boxed().collect(Collectors.toList()), received);
+    }
+}
@@ -1,6 +1,8 @@
 package sitecore.sherpa.streams;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -10,7 +12,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import sitecore.sherpa.streams.helpers.IntList;
 import sitecore.sherpa.streams.helpers.Person;
+import sitecore.sherpa.streams.helpers.PersonTable;
 
 public class ProjectionTests {
     private List<Person> people;
@@ -54,4 +58,58 @@ public class ProjectionTests {
 
         assertEquals(expectedAges, actualAges);
     }
+
+    @Test
+    @DisplayName("Test projections of a columnar table")
+    public void testTableProjections() {
+        PersonTable table = PersonTable.from(people);
+
+        assertEquals(ids, Projection.getIds(table));
+        assertEquals(List.of("Alice", "Bob", "Charles"), Projection.getNames(table));
+        assertEquals(List.of(25, 32, 109), Projection.getAges(table));
+    }
+
+    @Test
+    @DisplayName("Test projections into reused sinks")
+    public void testSinkProjections() {
+        List<Object> sink = new ArrayList<>();
+        int[] ages = new int[4];
+        IntList ageList = IntList.of(1);
+
+        assertEquals(3, Projection.getIds(people, sink));
+        assertEquals(3, Projection.getNames(people, sink));
+        assertEquals(3, Projection.getAges(people, sink));
+        assertEquals(3, Projection.getAges(people, ages));
+        assertEquals(3, Projection.getAges(people, ageList));
+
+        List<Object> expected = new ArrayList<>(ids);
+        expected.addAll(List.of("Alice", "Bob", "Charles", 25, 32, 109));
+        assertEquals(expected, sink);
+        assertArrayEquals(new int[] { 25, 32, 109, 0 }, ages);
+        assertEquals(IntList.of(1, 25, 32, 109), ageList);
+        assertThrows(IndexOutOfBoundsException.class, () -> Projection.getAges(people, new int[2]));
+    }
+
+    @Test
+    @DisplayName("Test projections of a columnar table into reused sinks")
+    public void testTableSinkProjections() {
+        PersonTable table = PersonTable.from(people);
+        List<String> strings = new ArrayList<>();
+        List<Integer> boxed = new ArrayList<>();
+        int[] ages = new int[3];
+        IntList ageList = new IntList();
+
+        assertEquals(3, Projection.getIds(table, strings));
+        assertEquals(3, Projection.getNames(table, strings));
+        assertEquals(3, Projection.getAges(table, boxed));
+        assertEquals(3, Projection.getAges(table, ages));
+        assertEquals(3, Projection.getAges(table, ageList));
+
+        List<String> expected = new ArrayList<>(ids);
+        expected.addAll(List.of("Alice", "Bob", "Charles"));
+        assertEquals(expected, strings);
+        assertEquals(List.of(25, 32, 109), boxed);
+        assertArrayEquals(new int[] { 25, 32, 109 }, ages);
+        assertEquals(IntList.of(25, 32, 109), ageList);
+    }
 }
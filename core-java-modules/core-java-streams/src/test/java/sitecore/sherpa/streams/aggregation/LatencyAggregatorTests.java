@@ -0,0 +1,104 @@
+package sitecore.sherpa.streams.aggregation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import sitecore.sherpa.streams.helpers.Service;
+
+public class LatencyAggregatorTests {
+    private static final List<Service> SERVICES = List.of(
+            new Service("Authentication", "Security", Map.of("Monday", 50.4, "Tuesday", 45.6, "Wednesday", 60.5, "Thursday", 55.7, "Friday", 70.4, "Saturday", 40.3, "Sunday", 30.5)),
+            new Service("Analytics", "Data Warehousing", Map.of("Monday", 60.4, "Tuesday", 55.6, "Wednesday", 70.5, "Thursday", 65.7, "Friday", 80.4, "Saturday", 50.3, "Sunday", 40.5)),
+            new Service("Monitoring", "Operations", Map.of("Monday", 40.4, "Tuesday", 35.6, "Wednesday", 50.5, "Thursday", 45.7, "Friday", 60.4, "Saturday", 30.3, "Sunday", 25.5)),
+            new Service("OrderProcessing", "Operations", Map.of("Monday", 70.4, "Tuesday", 65.6, "Wednesday", 80.5, "Thursday", 75.7, "Friday", 90.4, "Saturday", 60.3, "Sunday", 50.5)),
+            new Service("Telemetry", "Operations", Map.of("Monday", 55.4, "Tuesday", 40.6, "Wednesday", 65.5, "Thursday", 60.7, "Friday", 75.4, "Saturday", 45.3, "Sunday", 35.5)),
+            new Service("Firewall", "Security", Map.of("Monday", 45.4, "Tuesday", 40.6, "Wednesday", 55.5, "Thursday", 50.7, "Friday", 65.4, "Saturday", 35.3, "Sunday", 25.5)));
+
+    @Test
+    @DisplayName("Test that the report answers the challenge for every area")
+    public void aggregate_whenProvidedWithServices_findsMaxLatencyPerArea() {
+        LatencyReport report = LatencyAggregator.aggregate(SERVICES);
+
+        assertEquals(3, report.size());
+        assertEquals(90.4, report.maxLatency("Operations"));
+        assertEquals(70.4, report.maxLatency("Security"));
+        assertEquals(80.4, report.maxLatency("Data Warehousing"));
+        assertEquals(90.4, LatencyAggregator.maxLatency(SERVICES, "Operations"));
+    }
+
+    @Test
+    @DisplayName("Test that every statistic of an area is computed")
+    public void aggregate_whenProvidedWithServices_computesStatistics() {
+        LatencyStats stats = LatencyAggregator.aggregate(SERVICES).get("Security");
+
+        assertEquals("Security", stats.area());
+        assertEquals(2, stats.serviceCount());
+        assertEquals(14, stats.count());
+        assertEquals(25.5, stats.min());
+        assertEquals(70.4, stats.max());
+        assertEquals(671.8 / 14, stats.average(), 1e-9);
+        assertEquals(45.6, stats.median());
+        assertEquals(25.5, stats.percentile(0));
+        assertEquals(65.4, stats.percentile(90));
+        assertEquals(70.4, stats.percentile(100));
+        assertThrows(IllegalArgumentException.class, () -> stats.percentile(101));
+    }
+
+    @Test
+    @DisplayName("Test that areas are matched ignoring case")
+    public void get_whenCaseDiffers_findsTheSameArea() {
+        List<Service> services = new ArrayList<>(SERVICES);
+        services.add(new Service("Backup", "OPERATIONS", new double[] { 95.0, Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN }));
+
+        LatencyReport report = LatencyAggregator.aggregate(services);
+
+        assertEquals(3, report.size());
+        assertEquals(95.0, report.maxLatency("operations"));
+        assertEquals(4, report.get("Operations").serviceCount());
+        assertEquals(22, report.get("oPeRaTiOnS").count());
+    }
+
+    @Test
+    @DisplayName("Test that an unknown area has empty statistics")
+    public void get_whenAreaIsMissing_returnsZeroes() {
+        LatencyReport report = LatencyAggregator.aggregate(SERVICES);
+
+        assertFalse(report.contains("Marketing"));
+        assertEquals(0, report.get("Marketing").count());
+        assertEquals(0, report.maxLatency("Marketing"));
+        assertEquals(0, LatencyAggregator.maxLatency(SERVICES, "Marketing"));
+    }
+
+    @Test
+    @DisplayName("Test that the parallel collector matches the sequential report")
+    public void toReport_whenRunInParallel_matchesAggregate() {
+        List<Service> services = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            double[] latencies = new double[7];
+            for (int day = 0; day < 7; day++) {
+                latencies[day] = (i * 7 + day) % 101;
+            }
+            services.add(new Service("service-" + i, "area-" + (i % 5), latencies));
+        }
+
+        LatencyReport expected = LatencyAggregator.aggregate(services);
+        LatencyReport actual = services.parallelStream().collect(LatencyAggregator.toReport());
+
+        for (int area = 0; area < 5; area++) {
+            LatencyStats left = expected.get("area-" + area);
+            LatencyStats right = actual.get("area-" + area);
+            assertEquals(left.count(), right.count());
+            assertEquals(left.serviceCount(), right.serviceCount());
+            assertEquals(left.average(), right.average(), 1e-9);
+            assertEquals(left.percentile(90), right.percentile(90));
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package sitecore.sherpa.streams.aggregation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTests {
+
+    @Test
+    @DisplayName("Test that quantiles stay within the relative error of the exact ones")
+    public void valueAtQuantile_whenProvidedWithSamples_isWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        SplittableRandom random = new SplittableRandom(42);
+        double[] samples = new double[100_000];
+        for (int i = 0; i < samples.length; i++) {
+            // Long tailed, from about 1ms to a few seconds
+            samples[i] = Math.exp(random.nextDouble() * 8);
+            histogram.record(samples[i]);
+        }
+        Arrays.sort(samples);
+
+        assertEquals(samples.length, histogram.totalCount());
+        for (double quantile : new double[] { 0.5, 0.9, 0.99, 0.999, 1 }) {
+            double exact = samples[(int) Math.ceil(quantile * samples.length) - 1];
+            assertEquals(exact, histogram.valueAtQuantile(quantile), exact / 64);
+        }
+        assertEquals(samples[0], histogram.min(), samples[0] / 64);
+        assertEquals(samples[samples.length - 1], histogram.max(), samples[samples.length - 1] / 64);
+    }
+
+    @Test
+    @DisplayName("Test that merged histograms equal one histogram of every sample")
+    public void merge_whenProvidedWithHistograms_addsTheirCounts() {
+        LatencyHistogram left = new LatencyHistogram();
+        LatencyHistogram right = new LatencyHistogram();
+        LatencyHistogram all = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            (i % 2 == 0 ? left : right).record(i * 0.5);
+            all.record(i * 0.5);
+        }
+
+        left.merge(right);
+
+        assertEquals(1000, left.totalCount());
+        assertEquals(all.valueAtQuantile(0.5), left.valueAtQuantile(0.5));
+        assertEquals(all.valueAtQuantile(0.99), left.valueAtQuantile(0.99));
+        assertThrows(IllegalArgumentException.class, () -> left.merge(new LatencyHistogram(1, 1000, 5)));
+    }
+
+    @Test
+    @DisplayName("Test that a snapshot reads back with the same counts")
+    public void fromByteArray_whenReadingSnapshot_restoresHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram(0.01, 10_000, 8);
+        for (int i = 0; i < 5000; i++) {
+            histogram.record(i % 977 * 1.5);
+        }
+        histogram.record(50_000);
+
+        LatencyHistogram copy = LatencyHistogram.fromByteArray(histogram.toByteArray());
+
+        assertEquals(histogram.totalCount(), copy.totalCount());
+        assertEquals(histogram.valueAtQuantile(0.75), copy.valueAtQuantile(0.75));
+        assertEquals(10_000, copy.max(), 10_000 / 128.0);
+        assertEquals(histogram.mean(), copy.mean());
+        assertThrows(IllegalArgumentException.class, () -> LatencyHistogram.fromByteArray(new byte[8]));
+    }
+
+    @Test
+    @DisplayName("Test that concurrent recording loses no sample")
+    public void record_whenCalledFromManyThreads_countsEverySample() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    histogram.record(i % 100);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(400_000, histogram.totalCount());
+        assertThrows(IllegalArgumentException.class, () -> histogram.record(-1));
+        assertThrows(IllegalArgumentException.class, () -> histogram.record(Double.NaN));
+    }
+}
@@ -0,0 +1,94 @@
+package sitecore.sherpa.streams.aggregation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import sitecore.sherpa.streams.helpers.Service;
+
+public class LatencySketchesTests {
+
+    @Test
+    @DisplayName("Test that samples are counted per service and per area")
+    public void record_whenProvidedWithSamples_updatesServiceAndArea() {
+        LatencySketches sketches = new LatencySketches();
+
+        sketches.record("Monitoring", "Operations", 40);
+        sketches.record("Telemetry", "OPERATIONS", 60);
+        sketches.record("Firewall", "Security", 20);
+
+        assertEquals(1, sketches.service("Monitoring").totalCount());
+        assertEquals(2, sketches.area("operations").totalCount());
+        assertEquals(60, sketches.area("Operations").max(), 1);
+        assertEquals(Set.of("operations", "security"), sketches.areas());
+        assertEquals(0, sketches.service("Analytics").totalCount());
+    }
+
+    @Test
+    @DisplayName("Test that a week of latencies skips the days without a value")
+    public void recordWeek_whenDaysAreMissing_recordsTheOthers() {
+        LatencySketches sketches = new LatencySketches();
+        Service service = new Service("Authentication", "Security", Map.of("Monday", 50.4, "Friday", 70.4));
+
+        sketches.recordWeek(service);
+
+        assertEquals(2, sketches.service("Authentication").totalCount());
+        assertEquals(70.4, sketches.area("Security").valueAtQuantile(1), 70.4 / 64);
+    }
+
+    @Test
+    @DisplayName("Test that merging registries adds their histograms")
+    public void merge_whenProvidedWithRegistry_addsEveryHistogram() {
+        LatencySketches first = new LatencySketches();
+        LatencySketches second = new LatencySketches();
+        first.record("Monitoring", "Operations", 40);
+        second.record("Monitoring", "Operations", 45);
+        second.record("Analytics", "Data Warehousing", 80);
+
+        first.merge(second);
+
+        assertEquals(2, first.service("Monitoring").totalCount());
+        assertEquals(1, first.area("data warehousing").totalCount());
+        assertEquals(Set.of("Monitoring", "Analytics"), first.services());
+    }
+
+    @Test
+    @DisplayName("Test that histograms read back from snapshots can be merged into a registry")
+    public void mergeService_whenProvidedWithSnapshots_addsTheirCounts() {
+        LatencySketches sketches = new LatencySketches();
+        sketches.record("Monitoring", "Operations", 40);
+        LatencyHistogram remote = new LatencyHistogram();
+        remote.record(45);
+        remote.record(50);
+        byte[] snapshot = remote.toByteArray();
+
+        sketches.mergeService("Monitoring", LatencyHistogram.fromByteArray(snapshot));
+        sketches.mergeArea("OPERATIONS", LatencyHistogram.fromByteArray(snapshot));
+
+        assertEquals(3, sketches.service("Monitoring").totalCount());
+        assertEquals(3, sketches.area("operations").totalCount());
+    }
+
+    @Test
+    @DisplayName("Test that a registry with another layout is rejected before anything is merged")
+    public void merge_whenLayoutsDiffer_leavesTheRegistryUnchanged() {
+        LatencySketches sketches = new LatencySketches();
+        sketches.record("Monitoring", "Operations", 40);
+        LatencySketches other = new LatencySketches(new LatencyHistogram(1, 1_000, 5));
+        other.record("Monitoring", "Operations", 45);
+        other.record("Analytics", "Data Warehousing", 80);
+
+        assertThrows(IllegalArgumentException.class, () -> sketches.merge(other));
+        assertThrows(IllegalArgumentException.class,
+                () -> sketches.mergeService("Analytics", other.service("Analytics")));
+
+        assertEquals(1, sketches.service("Monitoring").totalCount());
+        assertEquals(Set.of("Monitoring"), sketches.services());
+        assertEquals(Set.of("operations"), sketches.areas());
+    }
+}
@@ -0,0 +1,92 @@
+package sitecore.sherpa.streams.aggregation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.DayOfWeek;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import sitecore.sherpa.streams.helpers.Service;
+
+public class ServiceRegistryTests {
+
+    private static ServiceRegistry registry() {
+        return new ServiceRegistry(List.of(
+                new Service("Authentication", "Security", Map.of("Monday", 50.4, "Friday", 70.4)),
+                new Service("Monitoring", "Operations", Map.of("Monday", 40.4, "Friday", 60.4)),
+                new Service("OrderProcessing", "operations", Map.of("Monday", 70.4, "Friday", 90.4)),
+                new Service("Firewall", "Security", Map.of("Monday", 45.4, "Friday", 65.4))));
+    }
+
+    @Test
+    @DisplayName("Test that areas are indexed ignoring case")
+    public void servicesIn_whenCaseDiffers_returnsEveryServiceOfTheArea() {
+        ServiceRegistry registry = registry();
+
+        assertEquals(Set.of("security", "operations"), registry.areas());
+        assertEquals(2, registry.servicesIn("OPERATIONS").size());
+        assertEquals("Monitoring", registry.servicesIn("Operations").get(0).getServiceName());
+        assertEquals(90.4, registry.maxLatency("Operations"));
+        assertEquals(List.of(), registry.servicesIn("Marketing"));
+        assertEquals(0, registry.maxLatency("Marketing"));
+    }
+
+    @Test
+    @DisplayName("Test that repeated queries reuse the cached statistics")
+    public void stats_whenAreaIsUnchanged_returnsCachedStatistics() {
+        ServiceRegistry registry = registry();
+
+        LatencyStats operations = registry.stats("Operations");
+        LatencyStats security = registry.stats("Security");
+        registry.updateLatency("Authentication", DayOfWeek.SUNDAY, 99.9);
+
+        assertSame(operations, registry.stats("operations"));
+        assertEquals(99.9, registry.maxLatency("Security"));
+        assertEquals(70.4, security.max());
+        assertEquals(5, registry.stats("Security").count());
+    }
+
+    @Test
+    @DisplayName("Test that updates keep the area index consistent")
+    public void register_whenServiceMovesArea_updatesBothAreas() {
+        ServiceRegistry registry = registry();
+        registry.maxLatency("Operations");
+
+        Service previous = registry.register(new Service("OrderProcessing", "Billing", new double[] { 1, 2, 3, 4, 5, 6, 7 }));
+
+        assertEquals("operations", previous.getServiceArea());
+        assertEquals(60.4, registry.maxLatency("Operations"));
+        assertEquals(7, registry.maxLatency("billing"));
+        assertEquals(4, registry.size());
+
+        registry.unregister("OrderProcessing");
+
+        assertEquals(Set.of("security", "operations"), registry.areas());
+        assertNull(registry.get("OrderProcessing"));
+        assertThrows(IllegalArgumentException.class, () -> registry.updateLatency("OrderProcessing", DayOfWeek.MONDAY, 1));
+    }
+
+    @Test
+    @DisplayName("Test that the report matches a one-pass aggregation")
+    public void report_whenAreasChanged_matchesAggregate() {
+        ServiceRegistry registry = registry();
+        registry.report();
+        registry.updateLatency("Monitoring", DayOfWeek.MONDAY, 120);
+
+        LatencyReport report = registry.report();
+        LatencyReport expected = LatencyAggregator.aggregate(List.of(
+                registry.get("Authentication"), registry.get("Monitoring"),
+                registry.get("OrderProcessing"), registry.get("Firewall")));
+
+        assertEquals(expected.size(), report.size());
+        assertEquals(expected.maxLatency("Operations"), report.maxLatency("Operations"));
+        assertEquals(expected.get("Security").average(), report.get("Security").average());
+    }
+}
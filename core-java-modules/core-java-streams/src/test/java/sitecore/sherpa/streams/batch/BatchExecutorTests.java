@@ -0,0 +1,175 @@
+package sitecore.sherpa.streams.batch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import sitecore.sherpa.streams.Filtering;
+import sitecore.sherpa.streams.Projection;
+import sitecore.sherpa.streams.helpers.Person;
+
+public class BatchExecutorTests {
+
+    @Test
+    @DisplayName("Test that every caller gets the even numbers of its own request")
+    public void submit_whenFilteringConcurrentRequests_returnsEachSlice() {
+        AtomicInteger batches = new AtomicInteger();
+        List<CompletableFuture<List<Integer>>> results = new ArrayList<>();
+        List<List<Integer>> requests = new ArrayList<>();
+        try (BatchExecutor<Integer, Integer> executor = BatchExecutor.<Integer>filtering(numbers -> {
+            batches.incrementAndGet();
+            return Filtering.getEven(numbers);
+        }).maxBatchSize(1000).maxWait(Duration.ofMillis(50)).build()) {
+            for (int r = 0; r < 100; r++) {
+                // Overlapping values check that slices are not mixed up
+                List<Integer> request = IntStream.range(r, r + 8).boxed().toList();
+                requests.add(request);
+                results.add(executor.submit(request));
+            }
+        }
+
+        for (int r = 0; r < requests.size(); r++) {
+            assertEquals(Filtering.getEven(requests.get(r)), results.get(r).join());
+        }
+        assertTrue(batches.get() < requests.size());
+    }
+
+    @Test
+    @DisplayName("Test that requests racing with close are either rejected or completed")
+    public void submit_whenRacingWithClose_neverLeavesARequestPending() throws InterruptedException {
+        for (int round = 0; round < 500; round++) {
+            BatchExecutor<Integer, Integer> executor = BatchExecutor.<Integer>filtering(Filtering::getEven)
+                    .maxBatchSize(16).build();
+            List<CompletableFuture<List<Integer>>> results = Collections.synchronizedList(new ArrayList<>());
+            List<Thread> callers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                callers.add(Thread.ofVirtual().start(() -> {
+                    try {
+                        for (int i = 0; i < 50; i++) {
+                            results.add(executor.submit(List.of(i)));
+                        }
+                    } catch (RejectedExecutionException e) {
+                        // Closed before this request was queued
+                    }
+                }));
+            }
+            executor.close();
+            for (Thread caller : callers) {
+                caller.join();
+            }
+
+            for (CompletableFuture<List<Integer>> result : results) {
+                assertTrue(result.isDone());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test that every caller gets the projection of its own people")
+    public void execute_whenMappingFromVirtualThreads_returnsEachSlice() throws InterruptedException {
+        List<List<String>> results = new ArrayList<>();
+        try (BatchExecutor<Person, String> executor = BatchExecutor.<Person, String>mapping(Projection::getNames)
+                .maxBatchSize(64).build()) {
+            List<Thread> callers = new ArrayList<>();
+            for (int r = 0; r < 50; r++) {
+                int caller = r;
+                results.add(null);
+                callers.add(Thread.ofVirtual().start(() -> results.set(caller, executor.execute(List.of(
+                        new Person(caller + "a", "Name" + caller, 20),
+                        new Person(caller + "b", "Other" + caller, 30))))));
+            }
+            for (Thread caller : callers) {
+                caller.join();
+            }
+        }
+
+        for (int r = 0; r < results.size(); r++) {
+            assertEquals(List.of("Name" + r, "Other" + r), results.get(r));
+        }
+    }
+
+    @Test
+    @DisplayName("Test that a failing batch fails every request in it")
+    public void submit_whenBatchFunctionThrows_failsEveryRequest() {
+        CompletableFuture<List<Integer>> first;
+        CompletableFuture<List<Integer>> second;
+        try (BatchExecutor<Integer, Integer> executor = BatchExecutor.<Integer, Integer>mapping(numbers -> {
+            throw new IllegalStateException("boom");
+        }).maxWait(Duration.ofMillis(50)).build()) {
+            first = executor.submit(List.of(1, 2));
+            second = executor.submit(List.of(3));
+        }
+
+        CompletionException failure = assertThrows(CompletionException.class, first::join);
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+        assertThrows(CompletionException.class, second::join);
+    }
+
+    @Test
+    @DisplayName("Test that a mapping function returning the wrong number of results fails")
+    public void submit_whenMappingChangesSize_failsRequests() {
+        CompletableFuture<List<Integer>> first;
+        CompletableFuture<List<Integer>> second;
+        try (BatchExecutor<Integer, Integer> executor = BatchExecutor.<Integer, Integer>mapping(Filtering::getEven)
+                .maxWait(Duration.ofMillis(50)).build()) {
+            first = executor.submit(List.of(1, 2));
+            second = executor.submit(List.of(3, 4));
+        }
+
+        assertThrows(CompletionException.class, first::join);
+        assertThrows(CompletionException.class, second::join);
+    }
+
+    @Test
+    @DisplayName("Test that a filtering function reordering its output fails every request")
+    public void submit_whenFilterReordersElements_failsEveryRequest() {
+        CompletableFuture<List<Integer>> first;
+        CompletableFuture<List<Integer>> second;
+        try (BatchExecutor<Integer, Integer> executor = BatchExecutor.<Integer>filtering(numbers -> {
+            List<Integer> evens = new ArrayList<>(Filtering.getEven(numbers));
+            Collections.reverse(evens);
+            return evens;
+        }).maxWait(Duration.ofMillis(50)).build()) {
+            first = executor.submit(List.of(1, 2, 3, 4));
+            second = executor.submit(List.of(5, 6, 7, 8));
+        }
+
+        CompletionException failure = assertThrows(CompletionException.class, first::join);
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+        assertThrows(CompletionException.class, second::join);
+    }
+
+    @Test
+    @DisplayName("Test that a closed executor rejects requests")
+    public void submit_whenClosed_throwsRejectedExecutionException() {
+        BatchExecutor<Integer, Integer> executor = BatchExecutor.<Integer>filtering(Filtering::getOdd).build();
+        CompletableFuture<List<Integer>> pending = executor.submit(List.of(1, 2, 3));
+        executor.close();
+
+        assertEquals(List.of(1, 3), pending.join());
+        assertThrows(RejectedExecutionException.class, () -> executor.submit(List.of(5)));
+    }
+
+    @Test
+    @DisplayName("Test that illegal knobs are rejected")
+    public void builder_whenKnobsAreIllegal_throwsIllegalArgumentException() {
+        BatchExecutor.Builder<Integer, Integer> builder = BatchExecutor.<Integer>filtering(Filtering::getEven);
+
+        assertThrows(IllegalArgumentException.class, () -> builder.maxBatchSize(0));
+        assertThrows(IllegalArgumentException.class, () -> builder.maxWait(Duration.ofMillis(-1)));
+    }
+}
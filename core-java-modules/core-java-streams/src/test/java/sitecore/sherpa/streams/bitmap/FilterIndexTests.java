@@ -0,0 +1,68 @@
+package sitecore.sherpa.streams.bitmap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import sitecore.sherpa.streams.Filtering;
+import sitecore.sherpa.streams.matching.AhoCorasickMatcher;
+
+public class FilterIndexTests {
+    private static final List<String> WORDS = List.of(
+            "banana", "bandana", "cabana", "apple", "bonanza", "berry", "anagram");
+
+    @Test
+    @DisplayName("Test that chained filters combine into a single materialization")
+    public void materialize_whenFiltersAreCombined_returnsMatchingElementsInOrder() {
+        FilterIndex<String> words = new FilterIndex<>(WORDS);
+
+        PositionBitmap startsWithB = Filtering.filterByFirstLetter(words, "b");
+        PositionBitmap result = startsWithB
+                .and(Filtering.filterBySubstring(words, "an"))
+                .andNot(Filtering.filterByLastLetter(words, "z"));
+
+        assertEquals(List.of("banana", "bandana", "bonanza"), words.materialize(result));
+        assertEquals(List.of("cabana", "apple", "anagram"), words.materialize(words.not(startsWithB)));
+        assertEquals(List.of("apple", "berry"), words.materialize(
+                Filtering.filterByAnySubString(words, AhoCorasickMatcher.compile(List.of("pp", "rr")))));
+        assertEquals(List.of("anagram"), words.materialize(
+                Filtering.filterByAllSubStrings(words, AhoCorasickMatcher.compile(List.of("gr", "na")))));
+    }
+
+    @Test
+    @DisplayName("Test that repeated filters reuse the cached bitmap")
+    public void matching_whenKeyIsCached_doesNotScanAgain() {
+        FilterIndex<String> words = new FilterIndex<>(WORDS);
+        AtomicInteger scans = new AtomicInteger();
+
+        PositionBitmap first = words.matching("long", word -> scans.incrementAndGet() > 0 && word.length() > 6);
+        PositionBitmap second = words.matching("long", word -> scans.incrementAndGet() > 0 && word.length() > 6);
+
+        assertSame(first, second);
+        assertEquals(WORDS.size(), scans.get());
+        assertSame(Filtering.filterBySubstring(words, "an"), Filtering.filterBySubstring(words, "an"));
+        words.clearCache();
+        words.matching("long", word -> scans.incrementAndGet() > 0);
+        assertEquals(2 * WORDS.size(), scans.get());
+    }
+
+    @Test
+    @DisplayName("Test that parity filters and sinks work on an integer index")
+    public void getEven_whenIndexHoldsIntegers_materializesIntoSink() {
+        FilterIndex<Integer> numbers = new FilterIndex<>(List.of(1, 2, 3, 4, 5, 6));
+        List<Integer> sink = new ArrayList<>();
+
+        int count = numbers.materialize(Filtering.getEven(numbers).or(PositionBitmap.of(0)), sink);
+
+        assertEquals(4, count);
+        assertEquals(List.of(1, 2, 4, 6), sink);
+        assertEquals(Filtering.getOdd(numbers), numbers.not(Filtering.getEven(numbers)));
+        assertEquals(numbers.all(), PositionBitmap.range(0, 6));
+    }
+}
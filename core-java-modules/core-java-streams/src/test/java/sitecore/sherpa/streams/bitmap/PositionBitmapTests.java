@@ -0,0 +1,106 @@
+package sitecore.sherpa.streams.bitmap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PositionBitmapTests {
+    private static final int SIZE = 300_000;
+
+    // Mixes sparse chunks, stored as arrays, with dense ones, stored as bitmaps
+    private static BitSet randomPositions(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        BitSet positions = new BitSet(SIZE);
+        for (int chunk = 0; chunk < SIZE >>> 16; chunk++) {
+            double density = random.nextInt(3) == 0 ? 0.001 : random.nextInt(2) == 0 ? 0.05 : 0.5;
+            for (int i = chunk << 16; i < Math.min(SIZE, (chunk + 1) << 16); i++) {
+                if (random.nextDouble() < density) {
+                    positions.set(i);
+                }
+            }
+        }
+        return positions;
+    }
+
+    private static PositionBitmap bitmapOf(BitSet positions) {
+        PositionBitmap.Builder builder = new PositionBitmap.Builder();
+        positions.stream().forEach(builder::add);
+        return builder.build();
+    }
+
+    private static void assertSamePositions(BitSet expected, PositionBitmap actual) {
+        assertArrayEquals(expected.stream().toArray(), actual.toArray());
+        assertEquals(expected.cardinality(), actual.cardinality());
+    }
+
+    @Test
+    @DisplayName("Test that the bitmap operations match a BitSet")
+    public void and_whenChunksAreSparseAndDense_matchesBitSet() {
+        for (long seed = 0; seed < 5; seed++) {
+            BitSet a = randomPositions(seed);
+            BitSet b = randomPositions(seed + 100);
+            PositionBitmap left = bitmapOf(a);
+            PositionBitmap right = bitmapOf(b);
+
+            BitSet and = (BitSet) a.clone();
+            and.and(b);
+            BitSet or = (BitSet) a.clone();
+            or.or(b);
+            BitSet andNot = (BitSet) a.clone();
+            andNot.andNot(b);
+            BitSet not = (BitSet) a.clone();
+            not.flip(0, SIZE);
+
+            assertSamePositions(a, left);
+            assertSamePositions(and, left.and(right));
+            assertSamePositions(or, left.or(right));
+            assertSamePositions(andNot, left.andNot(right));
+            assertSamePositions(not, left.not(SIZE));
+            assertEquals(left.and(right), right.and(left));
+            assertEquals(left.or(right).hashCode(), right.or(left).hashCode());
+        }
+    }
+
+    @Test
+    @DisplayName("Test that ranges and membership follow chunk boundaries")
+    public void range_whenCrossingChunks_holdsEveryPosition() {
+        PositionBitmap range = PositionBitmap.range(65_530, 131_080);
+
+        assertEquals(131_080 - 65_530, range.cardinality());
+        assertTrue(range.contains(65_535));
+        assertTrue(range.contains(65_536));
+        assertTrue(range.contains(131_079));
+        assertFalse(range.contains(131_080));
+        assertFalse(range.contains(-1));
+        assertEquals(PositionBitmap.of(65_529, 131_080), range.not(131_081).and(PositionBitmap.range(65_529, 131_081)));
+        assertEquals(PositionBitmap.empty(), PositionBitmap.range(5, 5));
+    }
+
+    @Test
+    @DisplayName("Test that sparse bitmaps stay small")
+    public void sizeInBytes_whenSparse_takesTwoBytesPerPosition() {
+        PositionBitmap sparse = PositionBitmap.of(7, 3, 7, 1_000_000, 70_000);
+
+        assertEquals("[3, 7, 70000, 1000000]", sparse.toString());
+        assertEquals(4 * 2 + 3 * 2, sparse.sizeInBytes());
+        assertEquals(8 * 1024 + 2, PositionBitmap.range(0, 65_536).sizeInBytes());
+    }
+
+    @Test
+    @DisplayName("Test that the builder rejects positions out of order")
+    public void add_whenPositionsAreNotAscending_throwsException() {
+        PositionBitmap.Builder builder = new PositionBitmap.Builder().add(5);
+
+        assertThrows(IllegalArgumentException.class, () -> builder.add(5));
+        assertThrows(IllegalArgumentException.class, () -> new PositionBitmap.Builder().add(-1));
+        assertThrows(IllegalArgumentException.class, () -> PositionBitmap.range(3, 2));
+    }
+}
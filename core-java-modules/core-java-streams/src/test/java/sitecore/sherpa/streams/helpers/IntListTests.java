@@ -0,0 +1,58 @@
+package sitecore.sherpa.streams.helpers;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class IntListTests {
+
+    @Test
+    @DisplayName("Test that adding past the initial capacity grows the list")
+    public void add_whenCapacityIsExceeded_growsTheList() {
+        IntList list = new IntList(2);
+
+        for (int i = 0; i < 100; i++) {
+            list.add(i);
+        }
+
+        assertEquals(100, list.size());
+        assertEquals(0, list.get(0));
+        assertEquals(99, list.get(99));
+    }
+
+    @Test
+    @DisplayName("Test that clear keeps the list reusable")
+    public void clear_whenCalled_emptiesTheList() {
+        IntList list = IntList.of(1, 2, 3);
+
+        list.clear();
+        list.add(4);
+
+        assertEquals(IntList.of(4), list);
+    }
+
+    @Test
+    @DisplayName("Test that values outside of the list cannot be read")
+    public void get_whenIndexIsOutOfRange_throwsException() {
+        IntList list = IntList.wrap(new int[] { 1, 2, 3 }, 2);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(2));
+    }
+
+    @Test
+    @DisplayName("Test conversions to arrays and streams")
+    public void toArray_whenCalled_returnsOnlyTheValuesOfTheList() {
+        IntList list = new IntList();
+        list.add(5);
+        list.add(7);
+        list.set(0, 6);
+
+        assertArrayEquals(new int[] { 6, 7 }, list.toArray());
+        assertEquals(13, list.stream().sum());
+        assertTrue(new IntList(0).isEmpty());
+    }
+}
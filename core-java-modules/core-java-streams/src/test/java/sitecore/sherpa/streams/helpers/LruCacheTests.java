@@ -0,0 +1,37 @@
+package sitecore.sherpa.streams.helpers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class LruCacheTests {
+
+    @Test
+    @DisplayName("Test that the least recently used entry is evicted")
+    public void put_whenCacheIsFull_evictsTheLeastRecentlyUsedEntry() {
+        LruCache<String, Integer> cache = new LruCache<>(2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+
+        cache.get("a");
+        cache.put("c", 3);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(3, cache.get("c"));
+    }
+
+    @Test
+    @DisplayName("Test that cached values are computed once")
+    public void computeIfAbsent_whenKeyIsCached_doesNotRecompute() {
+        LruCache<String, Integer> cache = new LruCache<>(4);
+
+        cache.computeIfAbsent("apple", String::length);
+        int value = cache.computeIfAbsent("apple", key -> -1);
+
+        assertEquals(5, value);
+    }
+}
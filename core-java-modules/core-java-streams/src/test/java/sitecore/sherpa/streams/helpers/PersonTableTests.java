@@ -0,0 +1,75 @@
+package sitecore.sherpa.streams.helpers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PersonTableTests {
+
+    @Test
+    @DisplayName("Test that every field survives the columnar layout")
+    public void from_whenProvidedWithPeople_keepsEveryField() {
+        List<Person> people = List.of(
+                new Person("a1", "Alice", 25),
+                new Person("b2", "Björn", 32),
+                new Person("c3", "Alice", 0));
+
+        PersonTable table = PersonTable.from(people);
+
+        assertEquals(3, table.size());
+        assertEquals("b2", table.ids().get(1));
+        assertEquals("Björn", table.names().get(1));
+        assertEquals(0, table.ageAt(2));
+        assertEquals("c3", table.get(2).getId());
+        assertEquals(57, table.ageStream().sum());
+    }
+
+    @Test
+    @DisplayName("Test that repeated names are stored once")
+    public void names_whenNamesRepeat_shareTheDictionaryEntry() {
+        PersonTable.Builder builder = new PersonTable.Builder(0);
+        for (int i = 0; i < 100; i++) {
+            builder.add("id-" + i, i % 2 == 0 ? "Alice" : "Bob", i);
+        }
+
+        PersonTable table = builder.build();
+
+        assertEquals(2, table.names().cardinality());
+        assertSame(table.names().get(0), table.names().get(98));
+        assertEquals(table.names().codeAt(1), table.names().codeOf("Bob"));
+        assertEquals(-1, table.names().codeOf("Charles"));
+    }
+
+    @Test
+    @DisplayName("Test that age range filtering returns the matching rows")
+    public void filterByAgeRange_whenAgesVary_returnsMatchingRowsInOrder() {
+        PersonTable.Builder builder = new PersonTable.Builder(0);
+        for (int i = 0; i < 100; i++) {
+            builder.add("id-" + i, "Alice", i);
+        }
+        PersonTable table = builder.build();
+
+        IntList rows = table.filterByAgeRange(18, 65);
+
+        assertEquals(48, rows.size());
+        assertEquals(18, rows.get(0));
+        assertEquals(65, rows.get(47));
+        assertEquals(IntList.of(), table.filterByAgeRange(200, 300));
+    }
+
+    @Test
+    @DisplayName("Test that the column views are read-only")
+    public void ages_whenModified_throwsException() {
+        PersonTable table = PersonTable.from(new ArrayList<>(List.of(new Person("a1", "Alice", 25))));
+
+        assertThrows(UnsupportedOperationException.class, () -> table.ages().set(0, 26));
+        assertThrows(UnsupportedOperationException.class, () -> table.ids().add("b2"));
+        assertThrows(IndexOutOfBoundsException.class, () -> table.names().get(1));
+    }
+}
@@ -0,0 +1,50 @@
+package sitecore.sherpa.streams.helpers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ServiceTests {
+
+    @Test
+    @DisplayName("Test that day names are mapped to their day of the week")
+    public void constructor_whenProvidedWithDayNames_storesLatencyPerDay() {
+        Service service = new Service("Authentication", "Security", Map.of("Monday", 50.4, "sunday", 30.5));
+
+        assertEquals(50.4, service.getLatency(DayOfWeek.MONDAY));
+        assertEquals(30.5, service.getLatency(6));
+        assertTrue(Double.isNaN(service.getLatency(DayOfWeek.WEDNESDAY)));
+    }
+
+    @Test
+    @DisplayName("Test that the latencies cannot be changed from outside")
+    public void getWeeklyLatency_whenModified_leavesServiceUnchanged() {
+        double[] latencies = { 1, 2, 3, 4, 5, 6, 7 };
+        Service service = new Service("Analytics", "Data Warehousing", latencies);
+
+        latencies[0] = 100;
+        service.getWeeklyLatency()[1] = 100;
+
+        assertEquals(1, service.getLatency(DayOfWeek.MONDAY));
+        assertEquals(2, service.getLatency(DayOfWeek.TUESDAY));
+        assertThrows(IllegalArgumentException.class, () -> new Service("Firewall", "Security", new double[6]));
+    }
+
+    @Test
+    @DisplayName("Test that replacing a latency leaves the original service unchanged")
+    public void withLatency_whenCalled_returnsUpdatedCopy() {
+        Service service = new Service("Firewall", "Security", Map.of("Monday", 45.4));
+
+        Service updated = service.withLatency(DayOfWeek.MONDAY, 50.0);
+
+        assertEquals(45.4, service.getLatency(DayOfWeek.MONDAY));
+        assertEquals(50.0, updated.getLatency(DayOfWeek.MONDAY));
+        assertEquals("Security", updated.getServiceArea());
+    }
+}
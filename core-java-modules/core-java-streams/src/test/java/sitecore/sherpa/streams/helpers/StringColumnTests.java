@@ -0,0 +1,70 @@
+package sitecore.sherpa.streams.helpers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class StringColumnTests {
+
+    @Test
+    @DisplayName("Test that rows spanning several pages read back intact")
+    public void get_whenRowsSpanPages_decodesEveryRow() {
+        Random random = new Random(11);
+        List<String> values = new ArrayList<>();
+        // 16-byte pages, with rows shorter and longer than a page
+        PackedStringColumn.Builder builder = new PackedStringColumn.Builder(4, 8, 4);
+        for (int i = 0; i < 500; i++) {
+            char[] chars = new char[random.nextInt(40)];
+            Arrays.fill(chars, i % 7 == 0 ? 'é' : (char) ('a' + i % 26));
+            String value = i % 50 == 0 ? null : new String(chars);
+            values.add(value);
+            builder.add(value);
+        }
+
+        PackedStringColumn column = builder.build();
+
+        assertEquals(values, column);
+    }
+
+    @Test
+    @DisplayName("Test that both columns keep null and empty rows apart")
+    public void get_whenRowsAreNullOrEmpty_returnsThemAsAdded() {
+        List<String> values = Arrays.asList("a1", null, "", "b2", null);
+        PackedStringColumn.Builder packed = new PackedStringColumn.Builder(values.size(), 2);
+        DictionaryStringColumn.Builder dictionary = new DictionaryStringColumn.Builder(values.size());
+        values.forEach(packed::add);
+        values.forEach(dictionary::add);
+
+        DictionaryStringColumn names = dictionary.build();
+
+        assertEquals(values, packed.build());
+        assertEquals(values, names);
+        assertNull(names.get(4));
+        assertEquals(names.codeAt(1), names.codeOf(null));
+        assertEquals(4, names.cardinality());
+    }
+
+    @Test
+    @DisplayName("Test that codes are looked up among many distinct values")
+    public void codeOf_whenDictionaryIsLarge_findsEveryCode() {
+        DictionaryStringColumn.Builder builder = new DictionaryStringColumn.Builder(10_000);
+        for (int i = 0; i < 10_000; i++) {
+            builder.add("name" + i % 5_000);
+        }
+
+        DictionaryStringColumn column = builder.build();
+
+        for (int i = 0; i < 5_000; i++) {
+            assertEquals(column.codeAt(i), column.codeOf("name" + i));
+            assertEquals(column.codeAt(i), column.codeAt(i + 5_000));
+        }
+        assertEquals(-1, column.codeOf("name5000"));
+    }
+}
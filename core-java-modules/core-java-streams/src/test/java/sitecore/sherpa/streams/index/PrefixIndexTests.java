@@ -0,0 +1,95 @@
+package sitecore.sherpa.streams.index;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import sitecore.sherpa.streams.Filtering;
+
+public class PrefixIndexTests {
+    private static final List<String> NAMES = List.of(
+            "anna", "bob", "annabel", "ann", "carl", "andrew", "bobby", "an", "zoe", "ann");
+
+    @Test
+    @DisplayName("Test that the index finds the same strings as a scan, in the same order")
+    public void filterByPrefix_whenComparedWithScan_returnsSameStrings() {
+        Random random = new Random(42);
+        List<String> words = IntStream.range(0, 5000)
+                .mapToObj(i -> randomWord(random))
+                .toList();
+        PrefixIndex index = new PrefixIndex(words);
+
+        for (String prefix : List.of("", "a", "b", "ab", "abc", "zz", "q")) {
+            List<String> expected = words.stream().filter(word -> word.startsWith(prefix)).toList();
+            assertEquals(expected, index.filterByPrefix(prefix));
+            assertEquals(expected.size(), index.count(prefix));
+        }
+        assertEquals(Filtering.filterByFirstLetter(words, "c"), Filtering.filterByFirstLetter(index, "c"));
+    }
+
+    @Test
+    @DisplayName("Test that prefix matches are returned in lexicographic order")
+    public void withPrefix_whenPrefixMatches_returnsSortedView() {
+        PrefixIndex index = new PrefixIndex(NAMES);
+
+        assertEquals(List.of("an", "andrew", "ann", "ann", "anna", "annabel"), index.withPrefix("an"));
+        assertEquals(List.of("ann", "ann", "anna", "annabel"), index.withPrefix("ann"));
+        assertEquals(List.of(), index.withPrefix("annie"));
+        assertEquals(List.of("bob", "bobby"), index.withPrefix("b"));
+        assertThrows(UnsupportedOperationException.class, () -> index.withPrefix("b").add("bert"));
+        assertThrows(IndexOutOfBoundsException.class, () -> index.withPrefix("b").get(2));
+    }
+
+    @Test
+    @DisplayName("Test that prefix positions are the ascending positions in the list")
+    public void positionsWithPrefix_whenPrefixMatches_returnsAscendingPositions() {
+        PrefixIndex index = new PrefixIndex(NAMES);
+
+        assertArrayEquals(new int[] { 0, 2, 3, 9 }, index.positionsWithPrefix("ann"));
+        assertArrayEquals(new int[0], index.positionsWithPrefix("x"));
+        assertEquals(NAMES.size(), index.size());
+    }
+
+    @Test
+    @DisplayName("Test that positions of every short prefix match a scan, with empty strings in the list")
+    public void positionsWithPrefix_whenComparedWithScan_returnsSamePositions() {
+        Random random = new Random(7);
+        List<String> words = IntStream.range(0, 3000)
+                .mapToObj(i -> i % 100 == 0 ? "" : randomWord(random))
+                .toList();
+        PrefixIndex index = new PrefixIndex(words);
+        List<String> prefixes = new ArrayList<>(List.of(""));
+        for (int length = 1; length <= 3; length++) {
+            for (String prefix : List.copyOf(prefixes)) {
+                if (prefix.length() == length - 1) {
+                    for (char letter = 'a'; letter <= 'e'; letter++) {
+                        prefixes.add(prefix + letter);
+                    }
+                }
+            }
+        }
+
+        for (String prefix : prefixes) {
+            int[] expected = IntStream.range(0, words.size())
+                    .filter(i -> words.get(i).startsWith(prefix))
+                    .toArray();
+            assertArrayEquals(expected, index.positionsWithPrefix(prefix), prefix);
+        }
+    }
+
+    private static String randomWord(Random random) {
+        char[] letters = new char[1 + random.nextInt(6)];
+        for (int i = 0; i < letters.length; i++) {
+            letters[i] = (char) ('a' + random.nextInt(4));
+        }
+        return new String(letters);
+    }
+}
@@ -0,0 +1,39 @@
+package sitecore.sherpa.streams.index;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import sitecore.sherpa.streams.Filtering;
+
+public class SuffixIndexTests {
+    private static final List<String> WORDS = List.of(
+            "running", "sing", "apple", "king", "table", "ping", "g", "cable", "wing");
+
+    @Test
+    @DisplayName("Test that the index finds the same strings as a scan, in the same order")
+    public void filterBySuffix_whenComparedWithScan_returnsSameStrings() {
+        SuffixIndex index = new SuffixIndex(WORDS);
+
+        for (String suffix : List.of("", "g", "ing", "ble", "able", "x")) {
+            List<String> expected = WORDS.stream().filter(word -> word.endsWith(suffix)).toList();
+            assertEquals(expected, index.filterBySuffix(suffix));
+            assertEquals(expected.size(), index.count(suffix));
+        }
+        assertEquals(Filtering.filterByLastLetter(WORDS, "e"), Filtering.filterByLastLetter(index, "e"));
+    }
+
+    @Test
+    @DisplayName("Test that suffix matches are grouped by their longer suffixes")
+    public void withSuffix_whenSuffixMatches_returnsStringsOrderedByReverse() {
+        SuffixIndex index = new SuffixIndex(WORDS);
+
+        assertEquals(List.of("cable", "table", "apple"), index.withSuffix("le"));
+        assertArrayEquals(new int[] { 2, 4, 7 }, index.positionsWithSuffix("le"));
+        assertEquals(WORDS.size(), index.size());
+    }
+}
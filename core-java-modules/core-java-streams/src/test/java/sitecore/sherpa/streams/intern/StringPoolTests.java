@@ -0,0 +1,125 @@
+package sitecore.sherpa.streams.intern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import sitecore.sherpa.streams.Filtering;
+import sitecore.sherpa.streams.helpers.Person;
+
+public class StringPoolTests {
+
+    @Test
+    @DisplayName("Test that equal strings are interned to the first instance")
+    public void intern_whenStringsAreEqual_returnsSameInstance() {
+        for (StringPool pool : List.of(StringPool.weak(), StringPool.arena())) {
+            String first = new String("Alice");
+            String second = new String("Alice");
+            assertNotSame(first, second);
+
+            assertSame(first, pool.intern(first));
+            assertSame(first, pool.intern(second));
+            assertEquals("Bob", pool.intern(new String("Bob")));
+            assertEquals(2, pool.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Test that concurrent interning agrees on one instance per value")
+    public void intern_whenCalledFromManyThreads_returnsOneInstancePerValue() throws InterruptedException {
+        WeakStringPool pool = StringPool.weak();
+        Set<String> instances = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    instances.add(pool.intern("name" + i % 10));
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(10, instances.size());
+    }
+
+    @Test
+    @DisplayName("Test that a closed arena rejects strings")
+    public void intern_whenArenaIsClosed_throwsIllegalStateException() {
+        ArenaStringPool pool = StringPool.arena();
+        pool.intern("Alice");
+        pool.close();
+
+        assertEquals(0, pool.size());
+        assertThrows(IllegalStateException.class, () -> pool.intern("Alice"));
+    }
+
+    @Test
+    @DisplayName("Test that interned people share their names and filter by value")
+    public void filterByValue_whenNamesAreInterned_returnsEqualNames() {
+        StringPool pool = StringPool.weak();
+        Person first = Person.interned("a1", new String("Alice"), 25, pool);
+        Person second = Person.interned("b2", new String("Alice"), 32, pool);
+        List<String> names = List.of(first.getName(), "Bob", second.getName(), new String("Alice"));
+
+        assertSame(first.getName(), second.getName());
+        assertEquals(List.of("Alice", "Alice", "Alice"), Filtering.filterByValue(names, "Alice", pool));
+        assertEquals(List.of(), Filtering.filterByValue(names, "Carol", pool));
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    @DisplayName("Test that finding a string never adds it to the pool")
+    public void find_whenValueIsMissing_returnsNullWithoutAddingIt() {
+        for (StringPool pool : List.of(StringPool.weak(), StringPool.arena())) {
+            String alice = pool.intern(new String("Alice"));
+
+            assertSame(alice, pool.find(new String("Alice")));
+            assertNull(pool.find("Bob"));
+            assertEquals(1, pool.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Test that filtering by value still works once the arena is closed")
+    public void filterByValue_whenArenaIsClosed_matchesByEquals() {
+        ArenaStringPool pool = StringPool.arena();
+        List<String> names = new ArrayList<>();
+        for (String name : List.of("Alice", "Bob", "Alice")) {
+            names.add(Person.interned(null, new String(name), 30, pool).getName());
+        }
+        names.add(null);
+        pool.close();
+
+        assertEquals(List.of("Alice", "Alice"), Filtering.filterByValue(names, "Alice", pool));
+        assertNull(pool.find("Alice"));
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    @DisplayName("Test that only names are pooled and null fields are kept")
+    public void interned_whenFieldsAreUniqueOrNull_poolsNamesOnly() {
+        StringPool pool = StringPool.arena();
+        String id = new String("a1");
+
+        Person person = Person.interned(id, "Alice", 25, pool);
+        Person nameless = Person.interned("b2", null, 32, pool);
+
+        assertSame(id, person.getId());
+        assertNull(pool.find("a1"));
+        assertNull(nameless.getName());
+        assertEquals(1, pool.size());
+    }
+}
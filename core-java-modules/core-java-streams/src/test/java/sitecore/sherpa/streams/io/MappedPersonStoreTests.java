@@ -0,0 +1,165 @@
+package sitecore.sherpa.streams.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import sitecore.sherpa.streams.Projection;
+import sitecore.sherpa.streams.helpers.IntList;
+import sitecore.sherpa.streams.helpers.Person;
+import sitecore.sherpa.streams.intern.ArenaStringPool;
+import sitecore.sherpa.streams.intern.StringPool;
+
+public class MappedPersonStoreTests {
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Test that a written file reads back the same people")
+    public void open_whenFileWasWritten_readsEveryField() throws IOException {
+        Path file = directory.resolve("people.bin");
+        List<Person> people = List.of(
+                new Person("a1", "Alice", 25),
+                new Person("b2", "Björn", 32),
+                new Person("c3", "Charles", 109));
+        PersonFileWriter.write(file, people);
+
+        try (MappedPersonStore store = MappedPersonStore.open(file)) {
+            assertEquals(3, store.size());
+            assertEquals(List.of("a1", "b2", "c3"), Projection.getIds(store));
+            assertEquals(List.of("Alice", "Björn", "Charles"), Projection.getNames(store));
+            assertEquals(List.of(25, 32, 109), Projection.getAges(store));
+            assertEquals("Björn", store.get(1).getName());
+        }
+    }
+
+    @Test
+    @DisplayName("Test projections of a mapped file into reused sinks")
+    public void getAges_whenProvidedWithSinks_readsEveryRecord() throws IOException {
+        Path file = directory.resolve("people.bin");
+        PersonFileWriter.write(file, List.of(new Person("a1", "Alice", 25), new Person("b2", "Björn", 32)));
+        List<String> strings = new ArrayList<>();
+        List<Integer> boxed = new ArrayList<>();
+        int[] ages = new int[2];
+        IntList ageList = new IntList();
+
+        try (MappedPersonStore store = MappedPersonStore.open(file)) {
+            assertEquals(2, Projection.getIds(store, strings));
+            assertEquals(2, Projection.getNames(store, strings));
+            assertEquals(2, Projection.getAges(store, boxed));
+            assertEquals(2, Projection.getAges(store, ages));
+            assertEquals(2, Projection.getAges(store, ageList));
+        }
+        assertEquals(List.of("a1", "b2", "Alice", "Björn"), strings);
+        assertEquals(List.of(25, 32), boxed);
+        assertEquals(IntList.of(25, 32), IntList.wrap(ages, 2));
+        assertEquals(IntList.of(25, 32), ageList);
+    }
+
+    @Test
+    @DisplayName("Test age filters over a file mapped in several segments")
+    public void filterByAgeRange_whenFileHasSeveralSegments_scansEveryRecord() throws IOException {
+        Path file = directory.resolve("people.bin");
+        try (PersonFileWriter writer = new PersonFileWriter(file, 8, 8)) {
+            for (int i = 0; i < 1000; i++) {
+                writer.append("id" + i, "name", i % 100);
+            }
+        }
+
+        // 7 records of 24 bytes per segment
+        try (MappedPersonStore store = MappedPersonStore.open(file, 170)) {
+            IntList rows = store.filterByAgeRange(10, 11);
+
+            assertEquals(20, rows.size());
+            assertEquals(10, rows.get(0));
+            assertEquals(911, rows.get(19));
+            assertEquals("id911", store.idAt(911));
+            assertEquals(99, store.ageAt(999));
+        }
+    }
+
+    @Test
+    @DisplayName("Test that fields longer than their width are rejected")
+    public void append_whenNameIsTooLong_throwsException() throws IOException {
+        try (PersonFileWriter writer = new PersonFileWriter(directory.resolve("people.bin"), 4, 4)) {
+            assertThrows(IllegalArgumentException.class, () -> writer.append("a1", "Charles", 1));
+        }
+    }
+
+    @Test
+    @DisplayName("Test that people without an id or a name are rejected before anything is written")
+    public void append_whenFieldIsNull_throwsIllegalArgumentException() throws IOException {
+        Path file = directory.resolve("people.bin");
+        List<Person> people = List.of(new Person("a1", "Alice", 25), new Person("b2", null, 32));
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> PersonFileWriter.write(file, people));
+        assertEquals("A person file cannot store a null name", error.getMessage());
+        try (PersonFileWriter writer = new PersonFileWriter(file, 4, 4)) {
+            assertThrows(IllegalArgumentException.class, () -> writer.append(null, "Bob", 1));
+        }
+    }
+
+    @Test
+    @DisplayName("Test that headers with impossible field widths are rejected")
+    public void open_whenHeaderWidthIsInvalid_throwsIOException() throws IOException {
+        Path file = directory.resolve("people.bin");
+        PersonFileWriter.write(file, List.of(new Person("a1", "Alice", 25)));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer width = ByteBuffer.allocate(4).order(PersonFileFormat.BYTE_ORDER).putInt(0, -8);
+            channel.write(width, PersonFileFormat.NAME_WIDTH_OFFSET);
+        }
+
+        IOException error = assertThrows(IOException.class, () -> MappedPersonStore.open(file));
+        assertEquals(file + " has a corrupt header: Illegal name width: -8", error.getMessage());
+    }
+
+    @Test
+    @DisplayName("Test that files that are not person files are rejected")
+    public void open_whenFileIsNotAPersonFile_throwsException() throws IOException {
+        Path file = Files.write(directory.resolve("other.bin"), new byte[] { 1, 2, 3 });
+
+        assertThrows(IOException.class, () -> MappedPersonStore.open(file));
+    }
+
+    @Test
+    @DisplayName("Test that an empty file can be opened")
+    public void open_whenFileHasNoPeople_isEmpty() throws IOException {
+        Path file = directory.resolve("people.bin");
+        PersonFileWriter.write(file, new ArrayList<>());
+
+        try (MappedPersonStore store = MappedPersonStore.open(file)) {
+            assertEquals(0, store.size());
+            assertEquals(0, store.filterByAgeRange(0, 200).size());
+        }
+    }
+
+    @Test
+    @DisplayName("Test that people read through a pool share their names")
+    public void get_whenReadThroughPool_sharesEqualNames() throws IOException {
+        Path file = directory.resolve("people.bin");
+        PersonFileWriter.write(file, List.of(
+                new Person("a1", "Alice", 25), new Person("b2", "Bob", 32), new Person("c3", "Alice", 40)));
+
+        try (MappedPersonStore store = MappedPersonStore.open(file);
+                ArenaStringPool pool = StringPool.arena()) {
+            assertNotSame(store.get(0).getName(), store.get(2).getName());
+            assertSame(store.get(0, pool).getName(), store.get(2, pool).getName());
+            assertEquals("Bob", store.get(1, pool).getName());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package sitecore.sherpa.streams.matching;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class AhoCorasickMatcherTests {
+
+    @Test
+    @DisplayName("Test any match with overlapping patterns")
+    public void containsAny_whenPatternsOverlap_findsTheShorterPattern() {
+        AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(Arrays.asList("bananas", "nan"));
+
+        assertTrue(matcher.containsAny("banana"));
+        assertFalse(matcher.containsAny("bandana"));
+    }
+
+    @Test
+    @DisplayName("Test all match with patterns found through failure links")
+    public void containsAll_whenPatternsAreSuffixesOfEachOther_findsAllOfThem() {
+        AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(Arrays.asList("she", "he", "hers"));
+
+        assertTrue(matcher.containsAll("ushers"));
+        assertFalse(matcher.containsAll("usher"));
+    }
+
+    @Test
+    @DisplayName("Test that duplicate patterns are counted once")
+    public void containsAll_whenPatternsRepeat_matchesOnce() {
+        AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(Arrays.asList("an", "an", "ba"));
+
+        assertEquals(2, matcher.patternCount());
+        assertTrue(matcher.containsAll("banana"));
+    }
+
+    @Test
+    @DisplayName("Test matching without patterns and with an empty pattern")
+    public void compile_whenPatternsAreEmpty_followsStringContains() {
+        AhoCorasickMatcher none = AhoCorasickMatcher.compile(List.of());
+        AhoCorasickMatcher empty = AhoCorasickMatcher.compile(List.of(""));
+
+        assertFalse(none.containsAny("apple"));
+        assertTrue(none.containsAll("apple"));
+        assertTrue(empty.containsAny(""));
+        assertTrue(empty.containsAll("apple"));
+    }
+
+    @Test
+    @DisplayName("Test matching with characters outside of ASCII")
+    public void containsAny_whenPatternsAreNotAscii_findsThem() {
+        AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(Arrays.asList("ñ", "日本"));
+
+        assertTrue(matcher.containsAny("mañana"));
+        assertTrue(matcher.containsAny("日本語"));
+        assertFalse(matcher.containsAny("日曜日"));
+    }
+
+    @Test
+    @DisplayName("Test that the matcher agrees with String.contains on random input")
+    public void containsAnyAndAll_whenProvidedWithRandomInput_agreeWithStringContains() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            List<String> patterns = new ArrayList<>();
+            for (int i = 0; i < 1 + random.nextInt(6); i++) {
+                patterns.add(randomString(random, 1 + random.nextInt(3)));
+            }
+            AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(patterns);
+
+            for (int i = 0; i < 50; i++) {
+                String input = randomString(random, random.nextInt(12));
+
+                assertEquals(patterns.stream().anyMatch(input::contains), matcher.containsAny(input));
+                assertEquals(patterns.stream().allMatch(input::contains), matcher.containsAll(input));
+            }
+        }
+    }
+
+    private static String randomString(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = "abc".charAt(random.nextInt(3));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,112 @@
+package sitecore.sherpa.streams.matching;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class CompiledFilterTests {
+
+    @Test
+    @DisplayName("Test that the same pattern is compiled once")
+    public void startsWith_whenCalledTwiceWithTheSamePattern_returnsTheCachedFilter() {
+        assertSame(CompiledFilter.startsWith("ap"), CompiledFilter.startsWith("ap"));
+        assertNotSame(CompiledFilter.startsWith("ap"), CompiledFilter.endsWith("ap"));
+    }
+
+    @Test
+    @DisplayName("Test that parallel callers share the compiled filters, even past the cache capacity")
+    public void startsWith_whenCalledInParallel_returnsTheSameFilter() {
+        List<CompiledFilter> filters = IntStream.range(0, 4 * CompiledFilter.CACHE_CAPACITY).parallel()
+                .mapToObj(i -> {
+                    CompiledFilter filter = CompiledFilter.contains("pattern-" + i);
+                    assertEquals("pattern-" + i, filter.pattern());
+                    return CompiledFilter.startsWith("parallel");
+                })
+                .toList();
+
+        assertTrue(filters.stream().allMatch(filter -> filter.pattern().equals("parallel")));
+        assertSame(CompiledFilter.startsWith("parallel"), CompiledFilter.startsWith("parallel"));
+    }
+
+    @Test
+    @DisplayName("Test that a frequently used pattern stays cached among many one-off patterns")
+    public void contains_whenHotPatternIsMixedWithOneOffs_keepsTheHotFilter() {
+        CompiledFilter hot = CompiledFilter.startsWith("hot");
+
+        for (int i = 0; i < 2000; i++) {
+            CompiledFilter.contains("once-" + i);
+            assertSame(hot, CompiledFilter.startsWith("hot"));
+        }
+    }
+
+    @Test
+    @DisplayName("Test single letter prefixes and suffixes")
+    public void startsWithAndEndsWith_whenPatternIsOneLetter_matchLikeString() {
+        CompiledFilter first = CompiledFilter.startsWith("b");
+        CompiledFilter last = CompiledFilter.endsWith("e");
+
+        assertTrue(first.test("banana"));
+        assertFalse(first.test("apple"));
+        assertFalse(first.test(""));
+        assertTrue(last.test("apple"));
+        assertFalse(last.test("cherry"));
+        assertFalse(last.test(""));
+    }
+
+    @Test
+    @DisplayName("Test empty patterns")
+    public void factories_whenPatternIsEmpty_matchEveryString() {
+        assertTrue(CompiledFilter.startsWith("").test(""));
+        assertTrue(CompiledFilter.endsWith("").test("apple"));
+        assertTrue(CompiledFilter.contains("").test("apple"));
+    }
+
+    @Test
+    @DisplayName("Test long substrings searched with a skip table")
+    public void contains_whenPatternIsLong_findsItAnywhere() {
+        CompiledFilter filter = CompiledFilter.contains("needle-in-haystack");
+
+        assertTrue(filter.test("needle-in-haystack"));
+        assertTrue(filter.test("a needle-in-haystack!"));
+        assertFalse(filter.test("needle-in-haystac"));
+        assertFalse(filter.test("needle in haystack"));
+    }
+
+    @Test
+    @DisplayName("Test that the skip table agrees with String.contains on random input")
+    public void contains_whenProvidedWithRandomInput_agreesWithStringContains() {
+        Random random = new Random(7);
+        for (int round = 0; round < 100; round++) {
+            String pattern = randomString(random, 8 + random.nextInt(5));
+            CompiledFilter filter = CompiledFilter.contains(pattern);
+
+            for (int i = 0; i < 100; i++) {
+                String input = randomString(random, random.nextInt(40));
+                if (random.nextInt(4) == 0) {
+                    int at = random.nextInt(input.length() + 1);
+                    input = input.substring(0, at) + pattern + input.substring(at);
+                }
+
+                assertEquals(input.contains(pattern), filter.test(input));
+            }
+        }
+    }
+
+    // Mixing characters that share their low byte checks the folded skip table
+    private static String randomString(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = "abšŢ".charAt(random.nextInt(4));
+        }
+        return new String(chars);
+    }
+}
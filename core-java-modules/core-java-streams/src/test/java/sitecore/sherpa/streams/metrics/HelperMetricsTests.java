@@ -0,0 +1,143 @@
+package sitecore.sherpa.streams.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import sitecore.sherpa.streams.Filtering;
+import sitecore.sherpa.streams.Projection;
+import sitecore.sherpa.streams.helpers.Person;
+
+public class HelperMetricsTests {
+    private static final List<Integer> NUMBERS = IntStream.range(0, 10).boxed().toList();
+
+    @BeforeEach
+    public void enable() {
+        HelperMetrics.reset();
+        HelperMetrics.setEnabled(true);
+    }
+
+    @AfterEach
+    public void disable() {
+        HelperMetrics.setEnabled(false);
+        HelperMetrics.reset();
+    }
+
+    @Test
+    @DisplayName("Test that calls, sizes and selectivity are recorded per method")
+    public void snapshot_whenHelpersAreCalled_recordsEveryCall() {
+        Filtering.getEven(NUMBERS);
+        Filtering.getEven(NUMBERS, new ArrayList<>());
+        Filtering.getEven(new int[] { 1, 3, 4, 6 });
+        Projection.getNames(List.of(new Person("1", "Ann", 30)));
+
+        MethodMetrics.Snapshot even = find("Filtering.getEven");
+        assertEquals(3, even.calls());
+        assertEquals(24, even.inputElements());
+        assertEquals(12, even.outputElements());
+        assertEquals(0.5, even.overallSelectivity());
+        assertEquals(0.5, even.selectivity().valueAtQuantile(0.5), 0.01);
+        assertEquals(10, even.inputSizes().max(), 1);
+        assertEquals(3, even.latencyNanos().totalCount());
+        assertEquals(1, find("Projection.getNames").overallSelectivity());
+    }
+
+    @Test
+    @DisplayName("Test that latencies below a microsecond are kept in nanoseconds")
+    public void record_whenCallIsShorterThanAMicrosecond_keepsNanoseconds() {
+        MethodMetrics metrics = HelperMetrics.forMethod("HelperMetricsTests.record");
+
+        metrics.record(System.nanoTime() - 300, 4, 2);
+
+        double latency = metrics.snapshot().latencyNanos().valueAtQuantile(0.5);
+        assertTrue(latency >= 295 && latency < 1_000_000, "latency " + latency);
+    }
+
+    @Test
+    @DisplayName("Test that snapshots merge the distributions recorded by every thread")
+    public void snapshot_whenRecordedFromManyThreads_countsEveryCall() throws InterruptedException {
+        MethodMetrics metrics = HelperMetrics.forMethod("HelperMetricsTests.threads");
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    metrics.record(System.nanoTime(), 8, 2);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        MethodMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(16_000, snapshot.calls());
+        assertEquals(16_000, snapshot.inputSizes().totalCount());
+        assertEquals(16_000, snapshot.selectivity().totalCount());
+        assertEquals(16_000, snapshot.latencyNanos().totalCount());
+        assertEquals(0.25, snapshot.selectivity().valueAtQuantile(0.99), 0.01);
+
+        metrics.reset();
+        assertEquals(0, metrics.snapshot().latencyNanos().totalCount());
+    }
+
+    @Test
+    @DisplayName("Test that nothing is recorded while the instrumentation is off")
+    public void snapshot_whenDisabled_recordsNothing() {
+        HelperMetrics.setEnabled(false);
+        Filtering.getOdd(NUMBERS);
+        Filtering.filterByFirstLetter(List.of("apple", "banana"), "a");
+
+        assertTrue(HelperMetrics.snapshot().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test that an exporter receives the metrics of the called methods")
+    public void export_whenMethodsWereCalled_passesSortedSnapshots() {
+        Filtering.filterBySubstring(List.of("banana", "cherry"), "an");
+        Filtering.filterByFirstLetter(List.of("apple", "banana"), "a");
+        List<String> exported = new ArrayList<>();
+
+        HelperMetrics.export(snapshots -> snapshots.forEach(snapshot -> exported.add(snapshot.method())));
+
+        assertEquals(List.of("Filtering.filterByFirstLetter", "Filtering.filterBySubstring"), exported);
+    }
+
+    @Test
+    @DisplayName("Test that calls are emitted as JFR events while a recording enables them")
+    public void record_whenRecordingIsActive_emitsJfrEvents(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("helpers.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("sitecore.sherpa.streams.HelperCall");
+            recording.start();
+            Filtering.getOdd(NUMBERS);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertEquals(1, events.size());
+        assertEquals("Filtering.getOdd", events.get(0).getString("method"));
+        assertEquals(10, events.get(0).getInt("inputSize"));
+        assertEquals(5, events.get(0).getInt("outputSize"));
+    }
+
+    private static MethodMetrics.Snapshot find(String method) {
+        return HelperMetrics.snapshot().stream()
+                .filter(snapshot -> snapshot.method().equals(method))
+                .findFirst()
+                .orElseThrow();
+    }
+}
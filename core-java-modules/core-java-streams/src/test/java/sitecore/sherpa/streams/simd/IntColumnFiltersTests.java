@@ -0,0 +1,74 @@
+package sitecore.sherpa.streams.simd;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class IntColumnFiltersTests {
+
+    private static int[] values(int size) {
+        SplittableRandom random = new SplittableRandom(size);
+        int[] values = random.ints(size, -200, 200).toArray();
+        if (size > 2) {
+            values[0] = Integer.MIN_VALUE;
+            values[1] = Integer.MAX_VALUE;
+        }
+        return values;
+    }
+
+    @Test
+    @DisplayName("Test that parity filters match the scalar loop for every tail length")
+    public void even_whenLengthIsNotAMultipleOfTheVector_matchesScalarLoop() {
+        for (int size = 0; size <= 100; size++) {
+            int[] values = values(size);
+            int[] even = new int[size];
+            int[] odd = new int[size];
+            int[] expectedEven = new int[size];
+            int[] expectedOdd = new int[size];
+
+            int evenCount = IntColumnFilters.even(values, even);
+            int oddCount = IntColumnFilters.odd(values, odd);
+
+            assertEquals(IntColumnFilters.scalarParity(values, 0, 0, expectedEven, 0), evenCount);
+            assertEquals(IntColumnFilters.scalarParity(values, 0, 1, expectedOdd, 0), oddCount);
+            assertArrayEquals(Arrays.copyOf(expectedEven, evenCount), Arrays.copyOf(even, evenCount));
+            assertArrayEquals(Arrays.copyOf(expectedOdd, oddCount), Arrays.copyOf(odd, oddCount));
+            assertEquals(evenCount, IntColumnFilters.countEven(values));
+            assertEquals(oddCount, IntColumnFilters.countOdd(values));
+        }
+    }
+
+    @Test
+    @DisplayName("Test that range filters return the values and rows within the range")
+    public void inRange_whenValuesAreMixed_returnsValuesAndRowsInOrder() {
+        int[] values = values(1_003);
+        int[] expectedRows = IntStream.range(0, values.length)
+                .filter(i -> values[i] >= -18 && values[i] <= 65)
+                .toArray();
+        int count = IntColumnFilters.countInRange(values, -18, 65);
+        int[] matches = new int[count];
+        int[] rows = new int[count];
+
+        assertEquals(expectedRows.length, count);
+        assertEquals(count, IntColumnFilters.inRange(values, -18, 65, matches));
+        assertEquals(count, IntColumnFilters.rowsInRange(values, -18, 65, rows));
+        assertArrayEquals(expectedRows, rows);
+        assertArrayEquals(Arrays.stream(expectedRows).map(i -> values[i]).toArray(), matches);
+    }
+
+    @Test
+    @DisplayName("Test that an output too short for the matches is rejected")
+    public void even_whenOutputIsTooShort_throwsException() {
+        int[] values = new int[64];
+
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> IntColumnFilters.even(values, new int[63]));
+        assertEquals(0, IntColumnFilters.odd(values, new int[0]));
+    }
+}